@@ -0,0 +1,146 @@
+package com.biit.plugins.benchmarks;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.benchmarks.plugin.BenchmarkPlugin;
+import com.biit.plugins.benchmarks.plugin.BenchmarkPluginExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * Creates the plugins used by the benchmarks. Each jar has a copy of {@link BenchmarkPlugin} and
+ * {@link BenchmarkPluginExtension}, so the plugins are independent as real ones.
+ */
+public final class BenchmarkPlugins {
+    public static final String PLUGIN_PREFIX = "benchmark-plugin-";
+    //Jars of the core test plugins, created by the build of plugin-manager-core.
+    public static final String TEST_PLUGINS_PROPERTY = "benchmark.plugins.directory";
+    //From the module folder or from the project folder.
+    private static final String[] DEFAULT_TEST_PLUGINS = {"../plugin-manager-core/src/test/plugins", "plugin-manager-core/src/test/plugins"};
+    private static final String EXTENSIONS_INDEX = "META-INF/extensions.idx";
+
+    private BenchmarkPlugins() {
+    }
+
+    public static String getPluginName(int index) {
+        return PLUGIN_PREFIX + index;
+    }
+
+    /**
+     * Creates a folder with some plugins, named {@code benchmark-plugin-0}, {@code benchmark-plugin-1}...
+     *
+     * @param pluginCount number of plugins.
+     * @return the folder.
+     */
+    public static Path create(int pluginCount) {
+        try {
+            final Path folder = Files.createTempDirectory("benchmark-plugins");
+            for (int i = 0; i < pluginCount; i++) {
+                createJar(folder.resolve(getPluginName(i) + ".jar"), getPluginName(i));
+            }
+            return folder;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Folder with the jars of the core test plugins, searched from the module or the project folder. Can be changed
+     * with the system property {@value #TEST_PLUGINS_PROPERTY}.
+     *
+     * @return the folder.
+     */
+    public static Path getTestPlugins() {
+        if (System.getProperty(TEST_PLUGINS_PROPERTY) != null) {
+            final Path folder = Paths.get(System.getProperty(TEST_PLUGINS_PROPERTY)).toAbsolutePath();
+            if (!Files.isDirectory(folder)) {
+                throw new IllegalStateException("No test plugins found on '" + folder + "'.");
+            }
+            return folder;
+        }
+        for (String defaultFolder : DEFAULT_TEST_PLUGINS) {
+            final Path folder = Paths.get(defaultFolder).toAbsolutePath();
+            if (Files.isDirectory(folder)) {
+                return folder;
+            }
+        }
+        throw new IllegalStateException("No test plugins found. Build plugin-manager-core first or use '-D"
+                + TEST_PLUGINS_PROPERTY + "'.");
+    }
+
+    public static void delete(Path folder) {
+        if (folder == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void createJar(Path jar, String pluginId) throws IOException {
+        final Manifest manifest = new Manifest();
+        final Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Plugin-Id", pluginId);
+        attributes.putValue("Plugin-Version", "1.0.0");
+        attributes.putValue("Plugin-Provider", "BiiT Solutions");
+        attributes.putValue("Plugin-Class", BenchmarkPlugin.class.getName());
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            addClass(jarOutputStream, BenchmarkPlugin.class);
+            addClass(jarOutputStream, BenchmarkPluginExtension.class);
+            addEntry(jarOutputStream, EXTENSIONS_INDEX,
+                    (BenchmarkPluginExtension.class.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+            addEntry(jarOutputStream, BenchmarkPluginExtension.PROPERTIES_FILE,
+                    (BenchmarkPluginExtension.NAME_PROPERTY + "=" + pluginId + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void addClass(JarOutputStream jarOutputStream, Class<?> type) throws IOException {
+        final String entry = type.getName().replace('.', '/') + ".class";
+        try (InputStream inputStream = type.getClassLoader().getResourceAsStream(entry)) {
+            if (inputStream == null) {
+                throw new IOException("Class '" + type.getName() + "' not found.");
+            }
+            addEntry(jarOutputStream, entry, inputStream.readAllBytes());
+        }
+    }
+
+    private static void addEntry(JarOutputStream jarOutputStream, String name, byte[] content) throws IOException {
+        jarOutputStream.putNextEntry(new JarEntry(name));
+        jarOutputStream.write(content);
+        jarOutputStream.closeEntry();
+    }
+}
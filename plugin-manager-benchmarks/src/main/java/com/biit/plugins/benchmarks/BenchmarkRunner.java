@@ -0,0 +1,51 @@
+package com.biit.plugins.benchmarks;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks with the same arguments as the JMH launcher, adding the GC profiler if it is not selected, so
+ * the allocation of each operation ({@code gc.alloc.rate.norm}) is always reported.
+ */
+public final class BenchmarkRunner {
+    private static final String PROFILER_OPTION = "-prof";
+    private static final String GC_PROFILER = "gc";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains(GC_PROFILER)) {
+            arguments.add(PROFILER_OPTION);
+            arguments.add(GC_PROFILER);
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,39 @@
+package com.biit.plugins.benchmarks;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+/**
+ * Iterations and threads shared by the benchmarks. Can be changed on each run with the JMH options
+ * ({@code -wi}, {@code -i}, {@code -t}...).
+ */
+public final class BenchmarkSettings {
+    public static final int WARMUP_ITERATIONS = 3;
+    public static final int MEASUREMENT_ITERATIONS = 5;
+    //Threads of the contended benchmarks, executing the same operation on the same state.
+    public static final int CONTENDED_THREADS = 4;
+    //Each cold start is measured alone.
+    public static final int STARTUP_WARMUP_ITERATIONS = 5;
+    public static final int STARTUP_MEASUREMENT_ITERATIONS = 20;
+
+    private BenchmarkSettings() {
+    }
+}
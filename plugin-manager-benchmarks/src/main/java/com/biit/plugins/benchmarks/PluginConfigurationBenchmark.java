@@ -0,0 +1,115 @@
+package com.biit.plugins.benchmarks;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.configuration.PluginConfigurationReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a setting with {@link PluginConfigurationReader#getProperty(String)}, as the execution policies do on each new
+ * method. The reader is used without Spring, and with a Spring resolver as when it is a bean: the settings of the
+ * plugins' configuration files are not on the application properties.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = BenchmarkSettings.WARMUP_ITERATIONS, time = 1)
+@Measurement(iterations = BenchmarkSettings.MEASUREMENT_ITERATIONS, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PluginConfigurationBenchmark {
+    private static final String PLUGIN_PROPERTY = "plugins.benchmark-plugin-0.timeout";
+    private static final String APPLICATION_PROPERTY = "plugins.benchmark-plugin-0.bulkhead.max-concurrent-calls";
+    private static final String MISSING_PROPERTY = "plugins.benchmark-plugin-0.missing";
+
+    private Path configurationFolder;
+    private PluginConfigurationReader reader;
+    private PluginConfigurationReader springReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        configurationFolder = Files.createTempDirectory("benchmark-configuration");
+        Files.write(configurationFolder.resolve("benchmark." + PluginConfigurationReader.PLUGINS_CONFIG_FILES_EXTENSION),
+                (PLUGIN_PROPERTY + "=1000\n").getBytes(StandardCharsets.UTF_8));
+        reader = new PluginConfigurationReader(configurationFolder.toString());
+        reader.loadPluginProperties();
+
+        final StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("application", Map.of(APPLICATION_PROPERTY, "10")));
+        springReader = new PluginConfigurationReader(configurationFolder.toString());
+        //As Spring does with a bean.
+        springReader.setEnvironment(environment);
+        springReader.setEmbeddedValueResolver(environment::resolveRequiredPlaceholders);
+        springReader.loadPluginProperties();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkPlugins.delete(configurationFolder);
+    }
+
+    @Benchmark
+    public String getPropertyWithoutSpring() {
+        return reader.getProperty(PLUGIN_PROPERTY);
+    }
+
+    @Benchmark
+    public String getPluginProperty() {
+        return springReader.getPropertyValue(PLUGIN_PROPERTY);
+    }
+
+    @Benchmark
+    @Threads(BenchmarkSettings.CONTENDED_THREADS)
+    public String getPluginPropertyContended() {
+        return springReader.getPropertyValue(PLUGIN_PROPERTY);
+    }
+
+    @Benchmark
+    public String getApplicationProperty() {
+        return springReader.getPropertyValue(APPLICATION_PROPERTY);
+    }
+
+    @Benchmark
+    public String getMissingProperty() {
+        return springReader.getPropertyValue(MISSING_PROPERTY);
+    }
+}
@@ -0,0 +1,110 @@
+package com.biit.plugins.benchmarks;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.exceptions.DuplicatedPluginFoundException;
+import com.biit.plugins.interfaces.IStandardPlugin;
+import com.biit.plugins.interfaces.MethodExecutionResult;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.NoPluginFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executing a plugin method by name on {@link com.biit.plugins.PluginController}, with a
+ * {@link com.biit.plugins.PluginInvoker} and directly on the plugin ({@code BasePlugin.executeMethod}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = BenchmarkSettings.WARMUP_ITERATIONS, time = 1)
+@Measurement(iterations = BenchmarkSettings.MEASUREMENT_ITERATIONS, time = 1)
+@Fork(1)
+public class PluginExecutionBenchmark {
+    private static final int INT_PARAMETER = 7;
+    private static final Integer PARAMETER1 = 2;
+    private static final Integer PARAMETER2 = 3;
+    private static final String TEXT = "text";
+
+    @Benchmark
+    public Object executePluginMethod(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().executePluginMethod(IStandardPlugin.class, state.getPluginName(), PluginsState.METHOD);
+    }
+
+    @Benchmark
+    @Threads(BenchmarkSettings.CONTENDED_THREADS)
+    public Object executePluginMethodContended(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().executePluginMethod(IStandardPlugin.class, state.getPluginName(), PluginsState.METHOD);
+    }
+
+    @Benchmark
+    public Object executePluginMethodWithParameter(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().executePluginMethod(IStandardPlugin.class, state.getPluginName(),
+                PluginsState.METHOD_WITH_PARAMETER, TEXT);
+    }
+
+    @Benchmark
+    public Object executePluginMethodWithTwoParameters(PluginsState state)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().executePluginMethod(IStandardPlugin.class, state.getPluginName(),
+                PluginsState.METHOD_WITH_TWO_PARAMETERS, PARAMETER1, PARAMETER2);
+    }
+
+    @Benchmark
+    public Object executePluginMethodInt(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().executePluginMethodInt(IStandardPlugin.class, state.getPluginName(),
+                PluginsState.METHOD_WITH_INT, INT_PARAMETER);
+    }
+
+    @Benchmark
+    public MethodExecutionResult tryExecuteMissingMethod(PluginsState state) {
+        return state.getPluginController().tryExecutePluginMethod(IStandardPlugin.class, state.getPluginName(), "methodMissing");
+    }
+
+    @Benchmark
+    public Object invoke(PluginsState state) throws NoPluginFoundException, MethodInvocationException {
+        return state.getInvoker().invoke();
+    }
+
+    @Benchmark
+    @Threads(BenchmarkSettings.CONTENDED_THREADS)
+    public Object invokeContended(PluginsState state) throws NoPluginFoundException, MethodInvocationException {
+        return state.getInvoker().invoke();
+    }
+
+    @Benchmark
+    public Object basePluginExecuteMethod(PluginsState state) throws MethodInvocationException {
+        return state.getPlugin().executeMethod(PluginsState.METHOD);
+    }
+
+    @Benchmark
+    public Object basePluginExecuteMethodWithParameter(PluginsState state) throws MethodInvocationException {
+        return state.getPlugin().executeMethod(PluginsState.METHOD_WITH_PARAMETER, TEXT);
+    }
+}
@@ -0,0 +1,82 @@
+package com.biit.plugins.benchmarks;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.exceptions.DuplicatedPluginFoundException;
+import com.biit.plugins.interfaces.IStandardPlugin;
+import com.biit.plugins.interfaces.exceptions.NoPluginFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pf4j.ExtensionPoint;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searching a plugin on {@link com.biit.plugins.PluginController}, with 1, 10 and 100 plugins. The contended
+ * benchmarks search the same plugin from several threads at the same time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = BenchmarkSettings.WARMUP_ITERATIONS, time = 1)
+@Measurement(iterations = BenchmarkSettings.MEASUREMENT_ITERATIONS, time = 1)
+@Fork(1)
+public class PluginLookupBenchmark {
+
+    @Benchmark
+    public IStandardPlugin getPlugin(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().getPlugin(IStandardPlugin.class, state.getPluginName());
+    }
+
+    @Benchmark
+    @Threads(BenchmarkSettings.CONTENDED_THREADS)
+    public IStandardPlugin getPluginContended(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().getPlugin(IStandardPlugin.class, state.getPluginName());
+    }
+
+    @Benchmark
+    public IStandardPlugin getPluginIgnoringCase(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().getPlugin(IStandardPlugin.class, state.getPluginNameOtherCase());
+    }
+
+    @Benchmark
+    public Optional<IStandardPlugin> findMissingPlugin(PluginsState state) {
+        return state.getPluginController().findPlugin(IStandardPlugin.class, "missing-plugin");
+    }
+
+    @Benchmark
+    public ExtensionPoint getPluginByName(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().getPlugin(state.getPluginName());
+    }
+
+    @Benchmark
+    public List<IStandardPlugin> getPlugins(PluginsState state) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        return state.getPluginController().getPlugins(IStandardPlugin.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.biit.plugins.benchmarks;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.startup.ParallelPluginManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pf4j.PluginManager;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the plugins: {@code loadPlugins} and {@code startPlugins} on a new plugin manager, measured once per
+ * invocation. Uses the jars of the core test plugins, and 1, 10 and 100 generated plugins, loaded sequentially
+ * ({@code parallelism = 1}) or with one thread for each processor ({@code parallelism = 0}).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = BenchmarkSettings.STARTUP_WARMUP_ITERATIONS)
+@Measurement(iterations = BenchmarkSettings.STARTUP_MEASUREMENT_ITERATIONS)
+@Fork(1)
+public class PluginStartupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TestPlugins {
+        private Path pluginsFolder;
+        private PluginManager pluginManager;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            pluginsFolder = BenchmarkPlugins.getTestPlugins();
+        }
+
+        @TearDown(Level.Invocation)
+        public void unload() {
+            unloadPlugins(pluginManager);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class GeneratedPlugins {
+        @Param({"1", "10", "100"})
+        private int pluginCount;
+
+        @Param({"1", "0"})
+        private int parallelism;
+
+        private Path pluginsFolder;
+        private PluginManager pluginManager;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            pluginsFolder = BenchmarkPlugins.create(pluginCount);
+        }
+
+        @TearDown(Level.Invocation)
+        public void unload() {
+            unloadPlugins(pluginManager);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            BenchmarkPlugins.delete(pluginsFolder);
+        }
+    }
+
+    @Benchmark
+    public PluginManager startTestPlugins(TestPlugins state) {
+        state.pluginManager = startPlugins(0, state.pluginsFolder);
+        return state.pluginManager;
+    }
+
+    @Benchmark
+    public PluginManager startGeneratedPlugins(GeneratedPlugins state) {
+        state.pluginManager = startPlugins(state.parallelism, state.pluginsFolder);
+        return state.pluginManager;
+    }
+
+    private static PluginManager startPlugins(int parallelism, Path pluginsFolder) {
+        final PluginManager pluginManager = new ParallelPluginManager(parallelism, pluginsFolder);
+        pluginManager.loadPlugins();
+        pluginManager.startPlugins();
+        return pluginManager;
+    }
+
+    private static void unloadPlugins(PluginManager pluginManager) {
+        if (pluginManager != null) {
+            pluginManager.stopPlugins();
+            pluginManager.unloadPlugins();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.biit.plugins.benchmarks;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.PluginController;
+import com.biit.plugins.PluginInvoker;
+import com.biit.plugins.interfaces.IStandardPlugin;
+import com.biit.plugins.interfaces.exceptions.NoPluginFoundException;
+import com.biit.plugins.startup.ParallelPluginManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.pf4j.PluginManager;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * A {@link PluginController} with some started plugins, shared by all the threads of a benchmark. The plugin used is
+ * the last one, so the lookups do not find it by chance on the first place.
+ */
+@State(Scope.Benchmark)
+public class PluginsState {
+    public static final String METHOD = "methodGreeting";
+    public static final String METHOD_WITH_PARAMETER = "methodEcho";
+    public static final String METHOD_WITH_INT = "methodSquare";
+    public static final String METHOD_WITH_TWO_PARAMETERS = "methodAdd";
+
+    @Param({"1", "10", "100"})
+    private int pluginCount;
+
+    private Path pluginsFolder;
+    private PluginManager pluginManager;
+    private PluginController pluginController;
+    private String pluginName;
+    private String pluginNameOtherCase;
+    private IStandardPlugin plugin;
+    private PluginInvoker<IStandardPlugin> invoker;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoPluginFoundException {
+        pluginsFolder = BenchmarkPlugins.create(pluginCount);
+        pluginManager = new ParallelPluginManager(0, pluginsFolder);
+        pluginController = new PluginController(pluginManager);
+        pluginName = BenchmarkPlugins.getPluginName(pluginCount - 1);
+        pluginNameOtherCase = pluginName.toUpperCase(Locale.ROOT);
+        invoker = pluginController.getPluginInvoker(IStandardPlugin.class, pluginName, METHOD);
+        plugin = invoker.getPlugin();
+        if (pluginController.getAllPlugins().size() != pluginCount) {
+            throw new IllegalStateException("Expected '" + pluginCount + "' plugins, but found '"
+                    + pluginController.getAllPlugins().size() + "'.");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pluginController.shutdown();
+        pluginManager.stopPlugins();
+        pluginManager.unloadPlugins();
+        BenchmarkPlugins.delete(pluginsFolder);
+    }
+
+    public PluginController getPluginController() {
+        return pluginController;
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    public String getPluginNameOtherCase() {
+        return pluginNameOtherCase;
+    }
+
+    /**
+     * The extension of the plugin, as returned by the controller.
+     */
+    public IStandardPlugin getPlugin() {
+        return plugin;
+    }
+
+    public PluginInvoker<IStandardPlugin> getInvoker() {
+        return invoker;
+    }
+}
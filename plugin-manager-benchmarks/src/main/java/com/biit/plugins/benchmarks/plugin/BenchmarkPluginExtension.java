@@ -0,0 +1,74 @@
+package com.biit.plugins.benchmarks.plugin;
+
+/*-
+ * #%L
+ * Plugin Manager (Benchmarks)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.BasePlugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Extension copied on each jar created by {@link com.biit.plugins.benchmarks.BenchmarkPlugins}. Each copy is loaded by
+ * the class loader of its plugin, and takes its name from the {@link #PROPERTIES_FILE} of its jar.<br>
+ * Not annotated with {@code @Extension}, so the benchmarks' own classpath is not indexed as a plugin.
+ */
+public class BenchmarkPluginExtension extends BasePlugin {
+    public static final String PROPERTIES_FILE = "benchmark-plugin.properties";
+    public static final String NAME_PROPERTY = "name";
+
+    private final String pluginName;
+
+    public BenchmarkPluginExtension() {
+        final Properties properties = new Properties();
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if (inputStream != null) {
+                properties.load(inputStream);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.pluginName = properties.getProperty(NAME_PROPERTY, "benchmark-plugin");
+    }
+
+    @Override
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    public String methodGreeting() {
+        return "Hello";
+    }
+
+    public String methodEcho(String text) {
+        return text;
+    }
+
+    public int methodSquare(int value) {
+        return value * value;
+    }
+
+    public int methodAdd(Integer value1, Integer value2) {
+        return value1 + value2;
+    }
+}
@@ -0,0 +1,322 @@
+package com.biit.plugins;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.IPlugin;
+import com.biit.plugins.interfaces.MethodExecutionResult;
+import com.biit.plugins.interfaces.exceptions.InvalidMethodParametersException;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.NoMethodFoundException;
+import com.biit.plugins.methods.PluginMethodGroup;
+import com.biit.plugins.methods.PluginMethodTable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Common code of {@link BasePlugin} and {@link SpringBasePlugin}. The methods are executed through the
+ * {@link PluginMethodTable} of the class.
+ */
+public abstract class AbstractBasePlugin implements IPlugin {
+    public static final String METHODS_PREFIX_TO_SELECT = PluginMethodTable.METHODS_PREFIX_TO_SELECT;
+    //Classes that override getMethod or areParametersMatching, and resolve the methods with them.
+    private static final ClassValue<Boolean> RESOLUTION_HOOKS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> pluginClass) {
+            return isOverridden(pluginClass, "getMethod", String.class)
+                    || isOverridden(pluginClass, "areParametersMatching", Method.class, Object[].class);
+        }
+    };
+
+    //Classes that override getPluginMethods to choose the methods that can be executed.
+    private static final ClassValue<Boolean> METHODS_SELECTION = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> pluginClass) {
+            return isOverridden(pluginClass, "getPluginMethods");
+        }
+    };
+
+    //Shared by all instances of the same class, unless the class chooses its own methods.
+    private final PluginMethodTable methodsTable;
+    private final boolean resolutionHooks = RESOLUTION_HOOKS.get(getClass());
+
+    AbstractBasePlugin() {
+        //Only extended by the plugins' base classes.
+        methodsTable = METHODS_SELECTION.get(getClass()) ? PluginMethodTable.of(getClass(), getPluginMethods())
+                : PluginMethodTable.of(getClass());
+    }
+
+    /**
+     * Return the methods that we want to represent in the GUI. By default, the public methods that start with
+     * {@link #METHODS_PREFIX_TO_SELECT}. A plugin can override it to choose the methods that can be executed. It is
+     * called only once, when the plugin is created.
+     */
+    @Override
+    public List<Method> getPluginMethods() {
+        return new ArrayList<>(methodsTable.getPluginMethods());
+    }
+
+    /**
+     * Return the method that we want to invoke
+     */
+    @Override
+    public Method getPluginMethod(String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return this.getClass().getMethod(methodName, parameterTypes);
+    }
+
+    /**
+     * Returns a String representation of the parameters needed by the method
+     *
+     * @param method
+     * @return
+     */
+    @Override
+    public List<String> getPluginMethodParametersString(Method method) {
+        final List<String> parameters = new ArrayList<String>();
+        int parameterNumber = 0;
+        for (Class<?> parameter : method.getParameterTypes()) {
+            parameterNumber++;
+            final Class<?> componentType = parameter.getComponentType();
+            if (componentType != null) {
+                // The parameter is an array
+                // We want the internal class of the array
+                parameters.add("Parameter " + parameterNumber + " - Any number of '"
+                        + translateParameterTypeName(componentType.getSimpleName()) + "'");
+            } else {
+                parameters.add("Parameter " + parameterNumber + " - '"
+                        + translateParameterTypeName(parameter.getSimpleName()) + "'");
+            }
+        }
+        if (parameterNumber == 0) {
+            parameters.add("No parameters needed");
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns a 'user friendly' representation of the class names
+     *
+     * @param className
+     * @return
+     */
+    private String translateParameterTypeName(String className) {
+        switch (className) {
+            case "Integer":
+            case "Double":
+            case "Float":
+                return "Number";
+            case "String":
+                return "Text";
+            default:
+                return className;
+        }
+    }
+
+    PluginMethodTable getMethodsTable() {
+        return methodsTable;
+    }
+
+    /**
+     * If the plugin overrides {@link #executeMethod(String, Object...)}, {@link #getMethod(String)} or
+     * {@link #areParametersMatching(Method, Object...)}, the fixed-arity and primitive executions also use
+     * {@link #executeMethod(String, Object...)}.
+     */
+    boolean isExecutedByName() {
+        return resolutionHooks || methodsTable.getExecutionClass() != AbstractBasePlugin.class;
+    }
+
+    private static boolean isOverridden(Class<?> pluginClass, String methodName, Class<?>... parameterTypes) {
+        for (Class<?> type = pluginClass; type != null && type != AbstractBasePlugin.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod(methodName, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                //Search on the superclass.
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the method with this name. If the method has overloads, the first one is returned.
+     *
+     * @deprecated the methods are resolved by {@link PluginMethodTable}, that chooses between overloads. Only used by
+     * {@link #executeMethod(String, Object...)} if a plugin overrides it or
+     * {@link #areParametersMatching(Method, Object...)}.
+     */
+    @Deprecated
+    protected Method getMethod(String methodName) {
+        final PluginMethodGroup pluginMethods = methodsTable.get(methodName);
+        if (pluginMethods == null) {
+            return null;
+        }
+        return pluginMethods.getMethods().get(0).getMethod();
+    }
+
+    /**
+     * Return true if the parameters passed match the parameters that the method
+     * requires
+     *
+     * @param method
+     * @param parameters
+     * @return
+     * @deprecated the methods are resolved by {@link PluginMethodTable}, that also accepts subtypes, primitives and
+     * variable arity. Only used by {@link #executeMethod(String, Object...)} if a plugin overrides it or
+     * {@link #getMethod(String)}.
+     */
+    @Deprecated
+    protected boolean areParametersMatching(Method method, Object... parameters) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != parameters.length) {
+            return false;
+        }
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].getComponentType() != null) {
+                return false;
+            }
+            if (!parameterTypes[i].equals(parameters[i].getClass())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes a method through its precompiled handle. If the method has overloads, the most specific one for the
+     * classes of the parameters is executed. Plugins that override {@link #getMethod(String)} or
+     * {@link #areParametersMatching(Method, Object...)} still use them for searching the method.
+     */
+    @Override
+    public Object executeMethod(String methodName, Object... parameters) throws MethodInvocationException {
+        if (resolutionHooks) {
+            return executeWithResolutionHooks(methodName, parameters != null ? parameters : new Object[0]);
+        }
+        return methodsTable.execute(this, methodName, parameters);
+    }
+
+    @SuppressWarnings("deprecation")
+    private Object executeWithResolutionHooks(String methodName, Object... parameters) throws MethodInvocationException {
+        final Method methodFound = getMethod(methodName);
+        if (methodFound == null) {
+            throw new NoMethodFoundException("The method '" + methodName + "' was not found");
+        }
+        if (!areParametersMatching(methodFound, parameters)) {
+            throw new InvalidMethodParametersException(
+                    "Invalid parameters '" + Arrays.toString(parameters) + "' for the method '" + methodName + "'");
+        }
+        try {
+            return methodFound.invoke(this, parameters);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new MethodInvocationException("Exception invoking the method '" + methodName + "' with parameters '"
+                    + Arrays.toString(parameters) + "'.", e);
+        }
+    }
+
+    /**
+     * Executes a method without creating an array for the parameters. If a plugin overrides
+     * {@link #executeMethod(String, Object...)}, this and the next methods also use it.
+     */
+    @Override
+    public Object executeMethod(String methodName) throws MethodInvocationException {
+        if (isExecutedByName()) {
+            return executeMethod(methodName, new Object[0]);
+        }
+        return methodsTable.execute(this, methodName);
+    }
+
+    @Override
+    public Object executeMethod(String methodName, Object parameter) throws MethodInvocationException {
+        if (isExecutedByName()) {
+            return executeMethod(methodName, new Object[]{parameter});
+        }
+        return methodsTable.execute(this, methodName, parameter);
+    }
+
+    @Override
+    public Object executeMethod(String methodName, Object parameter1, Object parameter2) throws MethodInvocationException {
+        if (isExecutedByName()) {
+            return executeMethod(methodName, new Object[]{parameter1, parameter2});
+        }
+        return methodsTable.execute(this, methodName, parameter1, parameter2);
+    }
+
+    @Override
+    public Object executeMethod(String methodName, Object parameter1, Object parameter2, Object parameter3)
+            throws MethodInvocationException {
+        if (isExecutedByName()) {
+            return executeMethod(methodName, new Object[]{parameter1, parameter2, parameter3});
+        }
+        return methodsTable.execute(this, methodName, parameter1, parameter2, parameter3);
+    }
+
+    @Override
+    public Object executeMethod(String methodName, Object parameter1, Object parameter2, Object parameter3, Object parameter4)
+            throws MethodInvocationException {
+        if (isExecutedByName()) {
+            return executeMethod(methodName, new Object[]{parameter1, parameter2, parameter3, parameter4});
+        }
+        return methodsTable.execute(this, methodName, parameter1, parameter2, parameter3, parameter4);
+    }
+
+    @Override
+    public Object executeMethodInt(String methodName, int parameter) throws MethodInvocationException {
+        if (isExecutedByName()) {
+            return executeMethod(methodName, new Object[]{parameter});
+        }
+        return methodsTable.executeInt(this, methodName, parameter);
+    }
+
+    @Override
+    public Object executeMethodLong(String methodName, long parameter) throws MethodInvocationException {
+        if (isExecutedByName()) {
+            return executeMethod(methodName, new Object[]{parameter});
+        }
+        return methodsTable.executeLong(this, methodName, parameter);
+    }
+
+    @Override
+    public Object executeMethodDouble(String methodName, double parameter) throws MethodInvocationException {
+        if (isExecutedByName()) {
+            return executeMethod(methodName, new Object[]{parameter});
+        }
+        return methodsTable.executeDouble(this, methodName, parameter);
+    }
+
+    /**
+     * Executes a method once for each set of parameters, searching the method only once.
+     */
+    @Override
+    public List<MethodExecutionResult> executeMethodBatch(String methodName, List<Object[]> parametersList) {
+        if (isExecutedByName()) {
+            return IPlugin.super.executeMethodBatch(methodName, parametersList);
+        }
+        return methodsTable.executeBatch(this, methodName, parametersList);
+    }
+
+    @Override
+    public int compareTo(IPlugin plugin) {
+        return getPluginName().compareTo(plugin.getPluginName());
+    }
+}
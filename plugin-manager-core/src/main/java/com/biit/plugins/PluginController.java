@@ -21,45 +21,260 @@ package com.biit.plugins;
  * #L%
  */
 
+import com.biit.plugins.activation.ActivationBackoff;
+import com.biit.plugins.activation.IdlePluginMonitor;
+import com.biit.plugins.activation.PassivatedPlugin;
+import com.biit.plugins.configuration.ExtensionScope;
+import com.biit.plugins.configuration.PluginActivation;
+import com.biit.plugins.configuration.PluginConfigurationReader;
+import com.biit.plugins.configuration.PluginControllerSettings;
+import com.biit.plugins.configuration.PluginExecutors;
+import com.biit.plugins.context.PluginParentContext;
 import com.biit.plugins.exceptions.DuplicatedPluginFoundException;
+import com.biit.plugins.execution.ExecutionPolicy;
+import com.biit.plugins.execution.ExecutionPolicyRegistry;
+import com.biit.plugins.execution.InFlightCalls;
+import com.biit.plugins.execution.InFlightCallsRegistry;
+import com.biit.plugins.execution.PluginCall;
 import com.biit.plugins.interfaces.IPlugin;
 import com.biit.plugins.interfaces.ISpringPlugin;
 import com.biit.plugins.interfaces.IStandardPlugin;
+import com.biit.plugins.interfaces.MethodExecutionResult;
+import com.biit.plugins.interfaces.exceptions.BulkheadFullException;
 import com.biit.plugins.interfaces.exceptions.InvalidMethodParametersException;
 import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.MethodTimeoutException;
 import com.biit.plugins.interfaces.exceptions.NoMethodFoundException;
 import com.biit.plugins.interfaces.exceptions.NoPluginFoundException;
+import com.biit.plugins.interfaces.exceptions.PluginUnavailableException;
 import com.biit.plugins.logger.PluginManagerLogger;
+import com.biit.plugins.methods.CacheStatistics;
+import com.biit.plugins.methods.PluginMethodTable;
+import com.biit.plugins.metrics.InvocationStatistics;
+import com.biit.plugins.metrics.MethodMetrics;
+import com.biit.plugins.metrics.PluginMetricsRegistry;
+import com.biit.plugins.registry.PluginRegistry;
+import com.biit.plugins.reload.PluginDirectoryWatcher;
+import com.biit.plugins.startup.PluginReadiness;
+import com.biit.plugins.startup.PluginStartupState;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.pf4j.ExtensionPoint;
+import org.pf4j.PluginDependency;
 import org.pf4j.PluginManager;
+import org.pf4j.PluginState;
+import org.pf4j.PluginWrapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Singleton in charge of managing the plugins of the application
  */
 @Component
 public class PluginController {
+    private static final String STARTUP_THREAD_NAME = "plugin-startup";
 
     @Autowired
     private final PluginManager pluginManager;
 
+    private final PluginRegistry pluginRegistry;
+
+    private final PluginControllerSettings settings;
+
+    private final ExecutionPolicyRegistry executionPolicies;
+
+    private final InFlightCallsRegistry inFlightCalls = new InFlightCallsRegistry();
+
+    private final PluginMetricsRegistry metrics;
+
+    private final Executor asyncExecutor;
+
+    //Only the executor created by the controller is shut down.
+    private final ExecutorService ownExecutor;
+
+    //Executions with timeout, not sharing the threads of the asynchronous executions.
+    private final ExecutorService timeoutExecutor;
+
+    private final PluginStartupState startupState;
+
+    //Null if hot reload is disabled. Created once the plugins are started.
+    private volatile PluginDirectoryWatcher pluginWatcher;
+
+    //Thread that is reloading a plugin. The index is updated by it, and not by the events of the plugin manager.
+    private volatile Thread reloadingThread;
+
+    //Plugins registered but not started, by normalized plugin id. Only used with lazy activation.
+    private final Map<String, String> inactivePlugins = new ConcurrentHashMap<>();
+
+    //Inactive plugins that have failed to start, and when they can be started again.
+    private final ActivationBackoff activationBackoff;
+
+    //Plugins unloaded because they were idle, by plugin id.
+    private final Map<String, PassivatedPlugin> passivatedPlugins = new ConcurrentHashMap<>();
+
+    //Null if idle plugins are not unloaded. Created once the plugins are registered.
+    private volatile IdlePluginMonitor idleMonitor;
+
     //For compatibility in old rules
     private static PluginController instance;
 
     public PluginController(PluginManager pluginManager) {
+        this(pluginManager, new PluginControllerSettings());
+    }
+
+    public PluginController(PluginManager pluginManager, PluginControllerSettings settings) {
+        this(pluginManager, settings, null);
+    }
+
+    public PluginController(PluginManager pluginManager, PluginControllerSettings settings,
+                            PluginConfigurationReader pluginConfigurationReader) {
+        this(pluginManager, settings, pluginConfigurationReader, null);
+    }
+
+    /**
+     * The configuration reader and the mapper are optional beans.
+     *
+     * @param pluginManager             the plugin manager.
+     * @param settings                  the settings of the controller.
+     * @param pluginConfigurationReader the configuration of the plugins, if defined.
+     * @param objectMapper              the mapper of the application, if defined.
+     */
+    @Autowired
+    public PluginController(PluginManager pluginManager, PluginControllerSettings settings,
+                            ObjectProvider<PluginConfigurationReader> pluginConfigurationReader,
+                            ObjectProvider<ObjectMapper> objectMapper) {
+        this(pluginManager, settings, pluginConfigurationReader.getIfAvailable(), objectMapper.getIfAvailable());
+    }
+
+    /**
+     * @param pluginManager             the plugin manager.
+     * @param settings                  the settings of the controller.
+     * @param pluginConfigurationReader the configuration of the plugins. Can be null.
+     * @param objectMapper              shared with the Spring plugins on {@link PluginParentContext}. Can be null.
+     */
+    public PluginController(PluginManager pluginManager, PluginControllerSettings settings,
+                            PluginConfigurationReader pluginConfigurationReader, ObjectMapper objectMapper) {
         this.pluginManager = pluginManager;
-        pluginManager.stopPlugins();
-        pluginManager.unloadPlugins();
-        pluginManager.loadPlugins();
-        pluginManager.startPlugins();
+        this.settings = settings;
+        this.pluginRegistry = new PluginRegistry(pluginManager);
+        if (settings.getAsyncExecutor() != null) {
+            this.ownExecutor = null;
+            this.asyncExecutor = settings.getAsyncExecutor();
+        } else {
+            this.ownExecutor = PluginExecutors.create(settings);
+            this.asyncExecutor = ownExecutor;
+        }
+        this.timeoutExecutor = PluginExecutors.createTimeoutExecutor(settings);
+        this.executionPolicies = new ExecutionPolicyRegistry(pluginConfigurationReader, timeoutExecutor);
+        this.metrics = new PluginMetricsRegistry(settings.isMetricsEnabled());
+        this.activationBackoff = new ActivationBackoff(settings.getActivationRetryDelay(), settings.getActivationMaxRetryDelay());
+        //Before starting any Spring plugin.
+        PluginParentContext.set(pluginManager,
+                PluginParentContext.create(objectMapper, pluginConfigurationReader, asyncExecutor));
+        this.startupState = new PluginStartupState(settings.getStartupWaitTimeout());
+        //Any change on the plugins discards the index. Stopped plugins also discard their cached results.
+        pluginManager.addPluginStateListener(event -> {
+            startupState.update(event.getPlugin());
+            //A stopped plugin keeps rejecting executions until it is started again.
+            if (event.getPluginState() != PluginState.STOPPED) {
+                inFlightCalls.remove(event.getPlugin().getPluginClassLoader());
+            }
+            if (reloadingThread == Thread.currentThread()) {
+                return;
+            }
+            if (event.getPluginState() != PluginState.STARTED) {
+                clearMethodCaches(event.getPlugin().getPluginClassLoader());
+            }
+            pluginRegistry.invalidate();
+        });
+        if (settings.isAsyncStartup()) {
+            final Thread startupThread = new Thread(() -> {
+                try {
+                    startPlugins();
+                } catch (RuntimeException e) {
+                    PluginManagerLogger.severe(this.getClass().getName(), "Plugins cannot be started.");
+                    PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+                }
+            }, STARTUP_THREAD_NAME);
+            startupThread.setDaemon(true);
+            startupThread.start();
+        } else {
+            startPlugins();
+        }
+    }
+
+    private synchronized void startPlugins() {
+        try {
+            pluginManager.stopPlugins();
+            pluginManager.unloadPlugins();
+            pluginManager.loadPlugins();
+            inactivePlugins.clear();
+            passivatedPlugins.clear();
+            activationBackoff.clear();
+            if (settings.getActivation() == PluginActivation.LAZY) {
+                //Started when searched.
+                for (PluginWrapper pluginWrapper : pluginManager.getResolvedPlugins()) {
+                    inactivePlugins.put(PluginRegistry.normalize(pluginWrapper.getPluginId()), pluginWrapper.getPluginId());
+                }
+                pluginRegistry.rebuild();
+                PluginManagerLogger.info(this.getClass().getName(), "Plugins registered for lazy activation: '{}'.",
+                        new TreeMap<>(inactivePlugins).values());
+            } else {
+                pluginManager.startPlugins();
+                pluginRegistry.rebuild();
+                PluginManagerLogger.info(this.getClass().getName(), "Plugins started: '{}'.", getStartedPluginIds());
+            }
+        } finally {
+            startupState.finish();
+        }
+        pluginWatcher = createPluginWatcher();
+        idleMonitor = createIdleMonitor();
+    }
+
+    private IdlePluginMonitor createIdleMonitor() {
+        if (settings.getActivation() != PluginActivation.LAZY || settings.getIdleTimeout() <= 0) {
+            return null;
+        }
+        final IdlePluginMonitor monitor = new IdlePluginMonitor(settings.getIdleTimeout(), this::getPassivablePlugins,
+                this::passivatePlugin);
+        monitor.start();
+        return monitor;
+    }
+
+    private PluginDirectoryWatcher createPluginWatcher() {
+        if (!settings.isHotReload()) {
+            return null;
+        }
+        try {
+            final PluginDirectoryWatcher watcher = new PluginDirectoryWatcher(pluginManager.getPluginsRoots(), settings.getHotReloadDelay(),
+                    this::reloadPlugin);
+            watcher.start();
+            return watcher;
+        } catch (IOException e) {
+            PluginManagerLogger.severe(this.getClass().getName(), "Plugins' folders cannot be watched. Hot reload disabled.");
+            PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+            return null;
+        }
     }
 
     @PostConstruct
@@ -67,6 +282,426 @@ public class PluginController {
         setInstance(this);
     }
 
+    /**
+     * Whether the plugins have been started. Always true if {@link PluginControllerSettings#isAsyncStartup()} is not
+     * enabled.
+     *
+     * @return true if the startup has finished.
+     */
+    public boolean isStartupFinished() {
+        return startupState.isFinished();
+    }
+
+    /**
+     * Waits until the plugins have been started in background.
+     *
+     * @param timeoutMillis maximum time waiting.
+     * @return true if the startup has finished.
+     */
+    public boolean awaitStartup(long timeoutMillis) {
+        return startupState.awaitFinish(timeoutMillis);
+    }
+
+    /**
+     * Readiness of each plugin. While the plugins are being started in background, the plugins not loaded yet are not
+     * included.
+     *
+     * @return the readiness by plugin id.
+     */
+    public Map<String, PluginReadiness> getPluginsReadiness() {
+        if (!startupState.isFinished()) {
+            return startupState.getPluginsReadiness();
+        }
+        final Map<String, PluginReadiness> pluginsReadiness = new TreeMap<>();
+        for (PluginWrapper pluginWrapper : pluginManager.getPlugins()) {
+            pluginsReadiness.put(pluginWrapper.getPluginId(), PluginReadiness.of(pluginWrapper.getPluginState()));
+        }
+        for (String pluginId : inactivePlugins.values()) {
+            pluginsReadiness.put(pluginId, activationBackoff.hasFailed(pluginId) ? PluginReadiness.FAILED : PluginReadiness.INACTIVE);
+        }
+        return pluginsReadiness;
+    }
+
+    /**
+     * Starts a plugin registered with {@link PluginActivation#LAZY}, or loads again a plugin unloaded because it was
+     * idle. Its dependencies are also started. If the plugin cannot be started, it is kept as inactive and started
+     * again on a later use, once the delay defined on {@link PluginControllerSettings#getActivationRetryDelay()} has
+     * elapsed.
+     *
+     * @param pluginName the name of the plugin (case-insensitive), that must be its id.
+     * @return true if the plugin is started now or was already started by another thread.
+     */
+    public boolean activatePlugin(String pluginName) {
+        if (pluginName == null || inactivePlugins.isEmpty()) {
+            return false;
+        }
+        final String pluginId = inactivePlugins.get(PluginRegistry.normalize(pluginName));
+        if (pluginId == null) {
+            return false;
+        }
+        return activate(pluginId);
+    }
+
+    private synchronized boolean activate(String pluginId) {
+        if (!inactivePlugins.containsKey(PluginRegistry.normalize(pluginId))) {
+            //Activated meanwhile.
+            final PluginWrapper plugin = pluginManager.getPlugin(pluginId);
+            return plugin != null && plugin.getPluginState() == PluginState.STARTED;
+        }
+        if (!activationBackoff.canActivate(pluginId)) {
+            //Has failed recently.
+            return false;
+        }
+        final Set<String> startedPlugins = getStartedPluginIds();
+        PluginState pluginState = null;
+        reloadingThread = Thread.currentThread();
+        try {
+            if (passivatedPlugins.containsKey(pluginId)) {
+                loadPassivatedPlugin(pluginId);
+            }
+            pluginState = pluginManager.startPlugin(pluginId);
+            PluginManagerLogger.info(this.getClass().getName(), "Plugin '{}' activated as '{}'.", pluginId, pluginState);
+        } catch (RuntimeException e) {
+            PluginManagerLogger.severe(this.getClass().getName(), "Plugin '{}' cannot be activated.", pluginId);
+            PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+        } finally {
+            reloadingThread = null;
+        }
+        if (pluginState == PluginState.STARTED) {
+            inactivePlugins.remove(PluginRegistry.normalize(pluginId));
+            activationBackoff.reset(pluginId);
+        } else {
+            //Not started again on each search, but kept as inactive to be started later.
+            PluginManagerLogger.warning(this.getClass().getName(), "Plugin '{}' will be activated again in '{}' ms.",
+                    pluginId, activationBackoff.failed(pluginId));
+        }
+        //Dependencies are also started.
+        for (String startedPlugin : getStartedPluginIds()) {
+            if (!startedPlugins.contains(startedPlugin)) {
+                inactivePlugins.remove(PluginRegistry.normalize(startedPlugin));
+                activationBackoff.reset(startedPlugin);
+                pluginRegistry.addPlugin(startedPlugin);
+            }
+        }
+        return pluginState == PluginState.STARTED;
+    }
+
+    private void activateAll() {
+        for (String pluginId : new ArrayList<>(inactivePlugins.values())) {
+            activate(pluginId);
+        }
+    }
+
+    private void loadPassivatedPlugin(String pluginId) {
+        final PassivatedPlugin passivatedPlugin = passivatedPlugins.get(pluginId);
+        if (passivatedPlugin == null) {
+            return;
+        }
+        for (String dependency : passivatedPlugin.getDependencies()) {
+            loadPassivatedPlugin(dependency);
+        }
+        pluginManager.loadPlugin(passivatedPlugin.getPluginPath());
+        //Kept until it is loaded, so a failed activation loads it again.
+        passivatedPlugins.remove(pluginId);
+    }
+
+    /**
+     * Unloads a plugin started with {@link PluginActivation#LAZY}, releasing its class loader, as on
+     * {@link #unloadPlugin(String)}. It is loaded and started again the next time it is searched. Plugins used by
+     * other plugins started are not unloaded.
+     *
+     * @param pluginId the id of the plugin on the plugin manager.
+     * @return true if the plugin is unloaded.
+     */
+    public synchronized boolean passivatePlugin(String pluginId) {
+        final PluginWrapper plugin = pluginManager.getPlugin(pluginId);
+        if (plugin == null || plugin.getPluginState() != PluginState.STARTED || hasStartedDependents(pluginId)) {
+            return false;
+        }
+        final List<String> dependencies = new ArrayList<>();
+        for (PluginDependency dependency : plugin.getDescriptor().getDependencies()) {
+            dependencies.add(dependency.getPluginId());
+        }
+        final PassivatedPlugin passivatedPlugin = new PassivatedPlugin(pluginId, plugin.getPluginPath(), dependencies);
+        if (!detachPlugin(pluginId, true)) {
+            return false;
+        }
+        passivatedPlugins.put(pluginId, passivatedPlugin);
+        inactivePlugins.put(PluginRegistry.normalize(pluginId), pluginId);
+        PluginManagerLogger.info(this.getClass().getName(), "Plugin '{}' unloaded after being idle.", pluginId);
+        return true;
+    }
+
+    private boolean hasStartedDependents(String pluginId) {
+        for (PluginWrapper startedPlugin : pluginManager.getStartedPlugins()) {
+            for (PluginDependency dependency : startedPlugin.getDescriptor().getDependencies()) {
+                if (pluginId.equals(dependency.getPluginId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private synchronized Map<String, InFlightCalls> getPassivablePlugins() {
+        final Map<String, InFlightCalls> plugins = new HashMap<>();
+        for (PluginWrapper startedPlugin : pluginManager.getStartedPlugins()) {
+            if (!hasStartedDependents(startedPlugin.getPluginId())) {
+                plugins.put(startedPlugin.getPluginId(), inFlightCalls.get(startedPlugin.getPluginClassLoader()));
+            }
+        }
+        return plugins;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        final PluginDirectoryWatcher pluginWatcher = this.pluginWatcher;
+        if (pluginWatcher != null) {
+            try {
+                pluginWatcher.close();
+            } catch (IOException e) {
+                PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+            }
+        }
+        final IdlePluginMonitor idleMonitor = this.idleMonitor;
+        if (idleMonitor != null) {
+            idleMonitor.close();
+        }
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+        timeoutExecutor.shutdown();
+        executionPolicies.close();
+    }
+
+    /**
+     * Loads, replaces or unloads the plugin of a jar, without changing the other plugins. If the jar exists, the
+     * plugin loaded from it is unloaded, and the jar is loaded and started again. If not, the plugin is only unloaded.
+     * The plugin is removed from the index before unloading it, and added once it is started; the executions of
+     * other plugins use the index during the whole process. The executions already running on the old plugin are
+     * given some time to finish, as on {@link #stopPlugin(String)}. The plugins that depend on it are unloaded with
+     * it, as their class loaders use the old one, and are loaded again from their jars once it is started. The ones
+     * that were started are started again.
+     *
+     * @param pluginPath the path of the jar.
+     */
+    public synchronized void reloadPlugin(Path pluginPath) {
+        final Path path = pluginPath.toAbsolutePath().normalize();
+        final Set<String> startedPlugins = getStartedPluginIds();
+        final PluginWrapper oldPlugin = getPluginByPath(path);
+        final List<PluginWrapper> dependents = oldPlugin != null ? getDependents(oldPlugin.getPluginId()) : new ArrayList<>();
+        reloadingThread = Thread.currentThread();
+        try {
+            if (oldPlugin != null) {
+                PluginManagerLogger.info(this.getClass().getName(), "Unloading plugin '{}' from '{}'.", oldPlugin.getPluginId(), path);
+                startedPlugins.remove(oldPlugin.getPluginId());
+                for (PluginWrapper dependent : dependents) {
+                    pluginRegistry.removePlugin(dependent.getPluginId());
+                }
+                pluginRegistry.removePlugin(oldPlugin.getPluginId());
+                for (PluginWrapper dependent : dependents) {
+                    drain(dependent);
+                    clearMethodCaches(dependent.getPluginClassLoader());
+                }
+                drain(oldPlugin);
+                clearMethodCaches(oldPlugin.getPluginClassLoader());
+                //Its dependents are also unloaded.
+                pluginManager.unloadPlugin(oldPlugin.getPluginId());
+                inFlightCalls.remove(oldPlugin.getPluginClassLoader());
+                for (PluginWrapper dependent : dependents) {
+                    inFlightCalls.remove(dependent.getPluginClassLoader());
+                }
+            }
+            if (Files.isRegularFile(path)) {
+                final String pluginId = pluginManager.loadPlugin(path);
+                PluginManagerLogger.info(this.getClass().getName(), "Loading plugin '{}' from '{}'.", pluginId, path);
+                if (pluginId != null) {
+                    inactivePlugins.remove(PluginRegistry.normalize(pluginId));
+                    passivatedPlugins.remove(pluginId);
+                    activationBackoff.reset(pluginId);
+                }
+                if (pluginId != null && pluginManager.startPlugin(pluginId) == PluginState.STARTED) {
+                    pluginRegistry.addPlugin(pluginId);
+                }
+            }
+        } catch (RuntimeException e) {
+            PluginManagerLogger.severe(this.getClass().getName(), "Plugin '{}' cannot be reloaded.", path);
+            PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+        } finally {
+            reloadingThread = null;
+        }
+        reloadDependents(dependents, startedPlugins);
+        if (!getStartedPluginIds().containsAll(startedPlugins)) {
+            pluginRegistry.rebuild();
+        }
+    }
+
+    /**
+     * Plugins loaded that depend directly or indirectly on a plugin.
+     */
+    private List<PluginWrapper> getDependents(String pluginId) {
+        final List<PluginWrapper> dependents = new ArrayList<>();
+        final Set<String> dependentIds = new HashSet<>();
+        dependentIds.add(pluginId);
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (PluginWrapper plugin : pluginManager.getPlugins()) {
+                if (!dependentIds.contains(plugin.getPluginId()) && dependsOn(plugin, dependentIds)) {
+                    dependentIds.add(plugin.getPluginId());
+                    dependents.add(plugin);
+                    found = true;
+                }
+            }
+        }
+        return dependents;
+    }
+
+    private static boolean dependsOn(PluginWrapper plugin, Set<String> pluginIds) {
+        for (PluginDependency dependency : plugin.getDescriptor().getDependencies()) {
+            if (pluginIds.contains(dependency.getPluginId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Loads again the plugins unloaded with a reloaded plugin, each one after its dependencies, and starts the ones
+     * that were started.
+     */
+    private void reloadDependents(List<PluginWrapper> dependents, Set<String> startedPlugins) {
+        final List<PluginWrapper> pendingPlugins = new ArrayList<>(dependents);
+        boolean loaded = true;
+        while (!pendingPlugins.isEmpty() && loaded) {
+            loaded = false;
+            final Iterator<PluginWrapper> iterator = pendingPlugins.iterator();
+            while (iterator.hasNext()) {
+                final PluginWrapper dependent = iterator.next();
+                if (!areDependenciesLoaded(dependent, pendingPlugins)) {
+                    continue;
+                }
+                iterator.remove();
+                loaded = true;
+                reloadDependent(dependent, startedPlugins.contains(dependent.getPluginId()));
+            }
+        }
+        for (PluginWrapper dependent : pendingPlugins) {
+            PluginManagerLogger.severe(this.getClass().getName(), "Plugin '{}' cannot be loaded again.", dependent.getPluginId());
+        }
+    }
+
+    private boolean areDependenciesLoaded(PluginWrapper plugin, List<PluginWrapper> pendingPlugins) {
+        for (PluginWrapper pendingPlugin : pendingPlugins) {
+            if (pendingPlugin != plugin && dependsOn(plugin, Set.of(pendingPlugin.getPluginId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reloadDependent(PluginWrapper dependent, boolean start) {
+        reloadingThread = Thread.currentThread();
+        try {
+            final String pluginId = pluginManager.loadPlugin(dependent.getPluginPath());
+            PluginManagerLogger.info(this.getClass().getName(), "Loading again dependent plugin '{}'.", pluginId);
+            if (pluginId != null && start && pluginManager.startPlugin(pluginId) == PluginState.STARTED) {
+                pluginRegistry.addPlugin(pluginId);
+            }
+        } catch (RuntimeException e) {
+            PluginManagerLogger.severe(this.getClass().getName(), "Plugin '{}' cannot be loaded again.", dependent.getPluginId());
+            PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+        } finally {
+            reloadingThread = null;
+        }
+    }
+
+    /**
+     * Stops a plugin without losing the executions running on it. The plugin is removed from the index, so new
+     * executions do not find it, and the running ones are given the time defined on
+     * {@link PluginControllerSettings#getDrainTimeout()} to finish. Executions that already had the plugin but have
+     * not started yet fail with {@link PluginUnavailableException}.
+     *
+     * @param pluginId the id of the plugin on the plugin manager.
+     * @return true if the plugin is stopped.
+     */
+    public synchronized boolean stopPlugin(String pluginId) {
+        return detachPlugin(pluginId, false);
+    }
+
+    /**
+     * Unloads a plugin without losing the executions running on it, as on {@link #stopPlugin(String)}.
+     *
+     * @param pluginId the id of the plugin on the plugin manager.
+     * @return true if the plugin is unloaded.
+     */
+    public synchronized boolean unloadPlugin(String pluginId) {
+        inactivePlugins.remove(PluginRegistry.normalize(pluginId));
+        activationBackoff.reset(pluginId);
+        if (passivatedPlugins.remove(pluginId) != null) {
+            return true;
+        }
+        return detachPlugin(pluginId, true);
+    }
+
+    private boolean detachPlugin(String pluginId, boolean unload) {
+        final PluginWrapper plugin = pluginManager.getPlugin(pluginId);
+        if (plugin == null) {
+            return false;
+        }
+        final Set<String> startedPlugins = getStartedPluginIds();
+        startedPlugins.remove(pluginId);
+        final boolean detached;
+        reloadingThread = Thread.currentThread();
+        try {
+            pluginRegistry.removePlugin(pluginId);
+            drain(plugin);
+            clearMethodCaches(plugin.getPluginClassLoader());
+            if (unload) {
+                detached = pluginManager.unloadPlugin(pluginId);
+                inFlightCalls.remove(plugin.getPluginClassLoader());
+            } else {
+                detached = pluginManager.stopPlugin(pluginId) == PluginState.STOPPED;
+            }
+        } finally {
+            reloadingThread = null;
+        }
+        //Plugins that depend on this one are also stopped by the plugin manager.
+        if (!getStartedPluginIds().containsAll(startedPlugins)) {
+            pluginRegistry.rebuild();
+        }
+        return detached;
+    }
+
+    private void drain(PluginWrapper plugin) {
+        try {
+            if (!inFlightCalls.drain(plugin.getPluginClassLoader(), settings.getDrainTimeout())) {
+                PluginManagerLogger.warning(this.getClass().getName(),
+                        "Plugin '{}' still has '{}' executions running after '{}' ms. Stopping it anyway.",
+                        plugin.getPluginId(), inFlightCalls.getCount(plugin.getPluginClassLoader()), settings.getDrainTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Set<String> getStartedPluginIds() {
+        final Set<String> pluginIds = new HashSet<>();
+        for (PluginWrapper pluginWrapper : pluginManager.getStartedPlugins()) {
+            pluginIds.add(pluginWrapper.getPluginId());
+        }
+        return pluginIds;
+    }
+
+    private PluginWrapper getPluginByPath(Path path) {
+        for (PluginWrapper pluginWrapper : pluginManager.getPlugins()) {
+            if (pluginWrapper.getPluginPath() != null && pluginWrapper.getPluginPath().toAbsolutePath().normalize().equals(path)) {
+                return pluginWrapper;
+            }
+        }
+        return null;
+    }
+
     public static synchronized void setInstance(PluginController pluginController) {
         PluginController.instance = pluginController;
     }
@@ -77,26 +712,81 @@ public class PluginController {
 
     public <T extends IPlugin> T getPlugin(Class<T> pluginInterface, String pluginName)
             throws NoPluginFoundException, DuplicatedPluginFoundException {
-        PluginManagerLogger.debug(this.getClass().getName(),
-                "Searching for plugin '" + pluginInterface + "' with name '" + pluginName + "'.");
-        for (T plugin : getPlugins(pluginInterface)) {
-            PluginManagerLogger.debug(this.getClass().getName(), "Existing plugin '" + plugin.getPluginName() + "'.");
-            if (plugin.getPluginName().equalsIgnoreCase(pluginName)) {
-                PluginManagerLogger.debug(this.getClass().getName(), "Found plugin '" + plugin.getPluginName() + "'.");
-                return plugin;
-            }
+        PluginManagerLogger.debug(this.getClass().getName(), "Searching for plugin '{}' with name '{}'.", pluginInterface, pluginName);
+        startupState.checkFinished();
+        return applyScope(findAndActivate(pluginInterface, pluginName));
+    }
+
+    /**
+     * Search a plugin without throwing any exception nor logging anything if it does not exist.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @param pluginName      name of the plugin.
+     * @return the plugin, or empty if it does not exist.
+     */
+    public <T extends IPlugin> Optional<T> findPlugin(Class<T> pluginInterface, String pluginName) {
+        if (!startupState.waitForStartup()) {
+            return Optional.empty();
         }
-        return null;
+        return Optional.ofNullable(applyScope(findAndActivate(pluginInterface, pluginName)));
     }
 
+    /**
+     * Searches a plugin on the index, starting it if it is not active yet. The search is considered a use of the
+     * plugin, so it is not unloaded while it is being searched.
+     */
+    private <T extends IPlugin> T findAndActivate(Class<T> pluginInterface, String pluginName) {
+        T plugin = pluginRegistry.find(pluginInterface, pluginName);
+        if (plugin == null && activatePlugin(pluginName)) {
+            plugin = pluginRegistry.find(pluginInterface, pluginName);
+        }
+        if (plugin != null && idleMonitor != null) {
+            inFlightCalls.get(plugin).markUsed();
+        }
+        return plugin;
+    }
+
+    /**
+     * The index has a single instance of each extension, used by all the executions. With the
+     * {@link ExtensionScope#PROTOTYPE} scope, the plugins returned to the callers are new instances, as
+     * {@link #getPlugins(Class)} does.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends IPlugin> T applyScope(T plugin) {
+        if (plugin == null || settings.getExtensionScope() == ExtensionScope.SINGLETON) {
+            return plugin;
+        }
+        return (T) pluginManager.getExtensionFactory().create(plugin.getClass());
+    }
+
+    /**
+     * Gets all the extensions of an interface. Depending on the {@link ExtensionScope} defined, the extensions are the
+     * same on each call while the plugins are not stopped, or are obtained again from the plugin manager.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @return a list with the extensions.
+     * @throws NoPluginFoundException
+     * @throws DuplicatedPluginFoundException
+     */
     public <T extends ExtensionPoint> List<T> getPlugins(Class<T> pluginInterface)
             throws NoPluginFoundException, DuplicatedPluginFoundException {
-        PluginManagerLogger.debug(this.getClass().getName(), "Searching for plugin '" + pluginInterface + "'.");
+        PluginManagerLogger.debug(this.getClass().getName(), "Searching for plugin '{}'.", pluginInterface);
+        startupState.checkFinished();
+        if (!inactivePlugins.isEmpty()) {
+            activateAll();
+        }
+        if (settings.getExtensionScope() == ExtensionScope.SINGLETON) {
+            return new ArrayList<>(pluginRegistry.getExtensions(pluginInterface));
+        }
         return pluginManager.getExtensions(pluginInterface);
     }
 
     public ExtensionPoint getPlugin(String pluginName) throws NoPluginFoundException, DuplicatedPluginFoundException {
-        PluginManagerLogger.debug(this.getClass().getName(), "Searching for plugin '" + pluginName + "'.");
+        PluginManagerLogger.debug(this.getClass().getName(), "Searching for plugin '{}'.", pluginName);
+        startupState.checkFinished();
+        if (!inactivePlugins.isEmpty()) {
+            activateAll();
+        }
         final List<?> plugins = pluginManager.getExtensions(pluginName);
         if (plugins.isEmpty()) {
             throw new NoPluginFoundException("No plugin exists with name '" + pluginName + "'.");
@@ -107,6 +797,146 @@ public class PluginController {
         return (ExtensionPoint) plugins.iterator().next();
     }
 
+    /**
+     * Gets an invoker that executes always the same method of a plugin, without searching again the plugin and the
+     * method on each execution. If the plugins are reloaded, the invoker searches them again.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @param pluginName      name of the plugin.
+     * @param methodName      method to be used.
+     * @return the invoker.
+     */
+    public <T extends IPlugin> PluginInvoker<T> getPluginInvoker(Class<T> pluginInterface, String pluginName, String methodName) {
+        return new PluginInvoker<>(pluginRegistry, executionPolicies, metrics, inFlightCalls, startupState, this::activatePlugin,
+                pluginInterface, pluginName, methodName);
+    }
+
+    /**
+     * Number of executions rejected on a plugin because its bulkheads are full.
+     *
+     * @param pluginName name of the plugin.
+     * @return the number of executions rejected by the bulkhead of the plugin or any of its methods.
+     */
+    public long getRejectedCalls(String pluginName) {
+        return executionPolicies.getRejectedCalls(pluginName);
+    }
+
+    /**
+     * Number of executions rejected on a method because its bulkhead is full.
+     *
+     * @param pluginName name of the plugin.
+     * @param methodName method of the plugin.
+     * @return the number of executions rejected by the bulkhead of the method.
+     */
+    public long getRejectedCalls(String pluginName, String methodName) {
+        return executionPolicies.getRejectedCalls(pluginName, methodName);
+    }
+
+    /**
+     * Number of executions cancelled on a plugin because they have not finished on time.
+     *
+     * @param pluginName name of the plugin.
+     * @return the number of executions cancelled on any method of the plugin.
+     */
+    public long getTimedOutCalls(String pluginName) {
+        return executionPolicies.getTimedOutCalls(pluginName);
+    }
+
+    /**
+     * Number of executions of a method cancelled because they have not finished on time.
+     *
+     * @param pluginName name of the plugin.
+     * @param methodName method of the plugin.
+     * @return the number of executions cancelled.
+     */
+    public long getTimedOutCalls(String pluginName, String methodName) {
+        return executionPolicies.getTimedOutCalls(pluginName, methodName);
+    }
+
+    /**
+     * Number of executions running now on a plugin, including the other extensions of the same plugin.
+     *
+     * @param pluginName name of the plugin.
+     * @return the number of executions, or 0 if the plugin does not exist.
+     */
+    public int getInFlightCalls(String pluginName) {
+        final IPlugin plugin = findStartedPlugin(pluginName);
+        if (plugin == null) {
+            return 0;
+        }
+        return inFlightCalls.get(plugin).getCount();
+    }
+
+    /**
+     * Usage of the caches of the methods of a plugin annotated with {@link com.biit.plugins.interfaces.CacheableMethod}.
+     *
+     * @param pluginName name of the plugin.
+     * @return the statistics by method name, or an empty map if the plugin does not exist.
+     */
+    public Map<String, CacheStatistics> getCacheStatistics(String pluginName) {
+        final IPlugin plugin = findStartedPlugin(pluginName);
+        if (plugin == null) {
+            return new HashMap<>();
+        }
+        return getMethodsTable(plugin).getCacheStatistics();
+    }
+
+    //Without waiting for the startup.
+    private IPlugin findStartedPlugin(String pluginName) {
+        return startupState.isFinished() ? pluginRegistry.find(IPlugin.class, pluginName) : null;
+    }
+
+    /**
+     * Discards the cached results of the methods of a plugin.
+     *
+     * @param pluginName name of the plugin.
+     */
+    public void clearMethodCaches(String pluginName) {
+        final IPlugin plugin = findStartedPlugin(pluginName);
+        if (plugin != null) {
+            getMethodsTable(plugin).clearCaches();
+        }
+    }
+
+    private void clearMethodCaches(ClassLoader pluginClassLoader) {
+        for (IPlugin plugin : pluginRegistry.getIndexedPlugins()) {
+            if (plugin.getClass().getClassLoader() == pluginClassLoader) {
+                getMethodsTable(plugin).clearCaches();
+            }
+        }
+    }
+
+    //Plugins that choose their own methods have a table for each instance.
+    private static PluginMethodTable getMethodsTable(IPlugin plugin) {
+        if (plugin instanceof AbstractBasePlugin) {
+            return ((AbstractBasePlugin) plugin).getMethodsTable();
+        }
+        return PluginMethodTable.of(plugin.getClass());
+    }
+
+    public ExecutionPolicyRegistry getExecutionPolicies() {
+        return executionPolicies;
+    }
+
+    /**
+     * Number of executions, errors and durations of each method executed.
+     *
+     * @return the metrics of the plugins.
+     */
+    public PluginMetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Number of executions, errors and durations of the methods executed of a plugin.
+     *
+     * @param pluginName name of the plugin.
+     * @return the statistics by method name, or an empty map if no method has been executed.
+     */
+    public Map<String, InvocationStatistics> getInvocationStatistics(String pluginName) {
+        return metrics.getStatistics(pluginName);
+    }
+
     /**
      * Executes the method of the plugin specified.<br>
      * It takes any number of parameters and passes them to the method invocation.
@@ -122,38 +952,402 @@ public class PluginController {
     public <T extends IPlugin> Object executePluginMethod(
             Class<T> pluginInterface, String pluginName,
             String methodName, Object... parameters) throws NoPluginFoundException, DuplicatedPluginFoundException {
+        logExecution(methodName, parameters);
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
         try {
-            try {
-                PluginManagerLogger.debug(this.getClass().getName(),
-                        "Executing '" + methodName + "' with parameters '" + Arrays.toString(parameters) + "'.");
-                final T plugin = getPlugin(pluginInterface, pluginName);
-                if (plugin == null) {
-                    PluginManagerLogger.warning(this.getClass().getName(), "No plugin exists with name '" + pluginName + "'.");
-                    throw new NoPluginFoundException("No plugin exists with name '" + pluginName + "'.");
-                }
-                return plugin.executeMethod(methodName, parameters);
-            } catch (MethodInvocationException e) {
-                final StringBuilder sb = new StringBuilder();
-                for (Object parameter : parameters) {
-                    sb.append(parameter).append(" (").append(parameter.getClass().getName()).append(")");
-                }
-                if (e instanceof NoMethodFoundException) {
-                    PluginManagerLogger.severe(this.getClass().getName(),
-                            "No plugin method found '" + methodName + "' with parameters '" + sb.toString() + "'.");
-                } else if (e instanceof InvalidMethodParametersException) {
-                    PluginManagerLogger.severe(this.getClass().getName(),
-                            "Invalid parameters on '" + methodName + "' with parameters '" + sb.toString() + "'.");
-                } else {
-                    PluginManagerLogger.severe(this.getClass().getName(),
-                            "Exception invoking method '" + methodName + "' with parameters '" + sb.toString() + "'.");
-                }
-                PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+            return invoke(plugin, methodName, () -> plugin.executeMethod(methodName, parameters));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e, parameters);
+        }
+        return null;
+    }
+
+    /**
+     * Executes the method of the plugin specified without parameters.<br>
+     * This and the next methods with a fixed number of parameters do not create any array, if the plugin does not
+     * need it.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @param pluginName      name of the plugin.
+     * @param methodName      method to be used.
+     * @return the result of the execution of the plugin method.
+     * @throws NoPluginFoundException
+     * @throws DuplicatedPluginFoundException
+     */
+    public <T extends IPlugin> Object executePluginMethod(Class<T> pluginInterface, String pluginName, String methodName)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        //Checked before, so no array of parameters is created when debug is disabled.
+        if (PluginManagerLogger.isDebugEnabled()) {
+            logExecution(methodName);
+        }
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethod(methodName));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e);
+        }
+        return null;
+    }
+
+    public <T extends IPlugin> Object executePluginMethod(Class<T> pluginInterface, String pluginName, String methodName,
+                                                          Object parameter)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        if (PluginManagerLogger.isDebugEnabled()) {
+            logExecution(methodName, parameter);
+        }
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethod(methodName, parameter));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e, parameter);
+        }
+        return null;
+    }
+
+    public <T extends IPlugin> Object executePluginMethod(Class<T> pluginInterface, String pluginName, String methodName,
+                                                          Object parameter1, Object parameter2)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        if (PluginManagerLogger.isDebugEnabled()) {
+            logExecution(methodName, parameter1, parameter2);
+        }
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethod(methodName, parameter1, parameter2));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e, parameter1, parameter2);
+        }
+        return null;
+    }
+
+    public <T extends IPlugin> Object executePluginMethod(Class<T> pluginInterface, String pluginName, String methodName,
+                                                          Object parameter1, Object parameter2, Object parameter3)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        if (PluginManagerLogger.isDebugEnabled()) {
+            logExecution(methodName, parameter1, parameter2, parameter3);
+        }
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethod(methodName, parameter1, parameter2, parameter3));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e, parameter1, parameter2, parameter3);
+        }
+        return null;
+    }
+
+    public <T extends IPlugin> Object executePluginMethod(Class<T> pluginInterface, String pluginName, String methodName,
+                                                          Object parameter1, Object parameter2, Object parameter3, Object parameter4)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        if (PluginManagerLogger.isDebugEnabled()) {
+            logExecution(methodName, parameter1, parameter2, parameter3, parameter4);
+        }
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethod(methodName, parameter1, parameter2, parameter3, parameter4));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e, parameter1, parameter2, parameter3, parameter4);
+        }
+        return null;
+    }
+
+    /**
+     * Executes the method of the plugin specified with a primitive parameter.<br>
+     * The value is not boxed if the plugin method receives a primitive.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @param pluginName      name of the plugin.
+     * @param methodName      method to be used.
+     * @param parameter       parameter of the method.
+     * @return the result of the execution of the plugin method.
+     * @throws NoPluginFoundException
+     * @throws DuplicatedPluginFoundException
+     */
+    public <T extends IPlugin> Object executePluginMethodInt(Class<T> pluginInterface, String pluginName, String methodName,
+                                                             int parameter)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        if (PluginManagerLogger.isDebugEnabled()) {
+            logExecution(methodName, parameter);
+        }
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethodInt(methodName, parameter));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e, parameter);
+        }
+        return null;
+    }
+
+    public <T extends IPlugin> Object executePluginMethodLong(Class<T> pluginInterface, String pluginName, String methodName,
+                                                              long parameter)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        if (PluginManagerLogger.isDebugEnabled()) {
+            logExecution(methodName, parameter);
+        }
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethodLong(methodName, parameter));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e, parameter);
+        }
+        return null;
+    }
+
+    public <T extends IPlugin> Object executePluginMethodDouble(Class<T> pluginInterface, String pluginName, String methodName,
+                                                                double parameter)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        if (PluginManagerLogger.isDebugEnabled()) {
+            logExecution(methodName, parameter);
+        }
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethodDouble(methodName, parameter));
+        } catch (MethodInvocationException e) {
+            logExecutionError(methodName, e, parameter);
+        }
+        return null;
+    }
+
+    /**
+     * Executes the method of the plugin specified without throwing any exception. A missing plugin or method is an
+     * expected outcome, that is neither logged nor creates any exception. Missing methods are remembered until the
+     * plugins change.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @param pluginName      name of the plugin.
+     * @param methodName      method to be used.
+     * @param parameters      parameters of the method.
+     * @return the value returned by the method, or the reason because it has not been executed.
+     */
+    public <T extends IPlugin> MethodExecutionResult tryExecutePluginMethod(Class<T> pluginInterface, String pluginName,
+                                                                           String methodName, Object... parameters) {
+        if (!startupState.waitForStartup()) {
+            return MethodExecutionResult.pluginNotFound();
+        }
+        final T plugin = findAndActivate(pluginInterface, pluginName);
+        if (plugin == null) {
+            return MethodExecutionResult.pluginNotFound();
+        }
+        if (pluginRegistry.isMissingMethod(plugin, methodName)) {
+            return MethodExecutionResult.methodNotFound();
+        }
+        try {
+            return MethodExecutionResult.success(invoke(plugin, methodName, () -> plugin.executeMethod(methodName, parameters)));
+        } catch (NoMethodFoundException e) {
+            pluginRegistry.addMissingMethod(plugin, methodName);
+            return MethodExecutionResult.methodNotFound();
+        } catch (MethodInvocationException e) {
+            PluginManagerLogger.debug(this.getClass().getName(), "Method '{}' has failed: {}", methodName, e.getMessage());
+            return MethodExecutionResult.failure(e);
+        }
+    }
+
+    /**
+     * Executes the method of the plugin specified once for each set of parameters.<br>
+     * The plugin is searched only once, and the failures are reported on the result of each execution instead of
+     * being logged one by one. The plugin can handle the whole batch itself overriding
+     * {@link IPlugin#executeMethodBatch(String, List)}.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @param pluginName      name of the plugin.
+     * @param methodName      method to be used.
+     * @param parametersList  parameters of each execution.
+     * @return a result for each set of parameters, in the same order.
+     * @throws NoPluginFoundException
+     * @throws DuplicatedPluginFoundException
+     */
+    public <T extends IPlugin> List<MethodExecutionResult> executePluginMethodBatch(Class<T> pluginInterface, String pluginName,
+                                                                                   String methodName, List<Object[]> parametersList)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        PluginManagerLogger.debug(this.getClass().getName(),
+                "Executing '{}' with '{}' sets of parameters.", methodName, parametersList.size());
+        final T plugin = getPluginToExecute(pluginInterface, pluginName);
+        final List<MethodExecutionResult> results = executeBatch(plugin, methodName, parametersList);
+        int failures = 0;
+        for (MethodExecutionResult result : results) {
+            if (!result.isSuccess()) {
+                failures++;
             }
+        }
+        if (failures > 0) {
+            PluginManagerLogger.warning(this.getClass().getName(),
+                    "Method '{}' has failed on '{}' of '{}' executions.", methodName, failures, results.size());
+        }
+        return results;
+    }
+
+    /**
+     * Executes the method of the plugin specified without blocking the caller. The method is executed by the executor
+     * defined on {@link PluginControllerSettings}, by default on a virtual thread.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @param pluginName      name of the plugin.
+     * @param methodName      method to be used.
+     * @param parameters      parameters of the method.
+     * @return a future with the result of the execution of the plugin method. If the plugin does not exist or the
+     * method fails, the future is completed exceptionally.
+     */
+    public <T extends IPlugin> CompletableFuture<Object> executePluginMethodAsync(Class<T> pluginInterface, String pluginName,
+                                                                                 String methodName, Object... parameters) {
+        logExecution(methodName, parameters);
+        final T plugin;
+        try {
+            plugin = getPluginToExecute(pluginInterface, pluginName);
         } catch (NoPluginFoundException | DuplicatedPluginFoundException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return executeAsync(plugin, methodName, parameters);
+    }
+
+    /**
+     * Executes the same method on all the plugins that implement an interface, in parallel.
+     *
+     * @param pluginInterface interface of the plugins.
+     * @param methodName      method to be used.
+     * @param parameters      parameters of the method.
+     * @return a future completed when all the executions have finished, with the result of each plugin by plugin name.
+     */
+    public <T extends IPlugin> CompletableFuture<Map<String, MethodExecutionResult>> executePluginsMethodAsync(
+            Class<T> pluginInterface, String methodName, Object... parameters) {
+        logExecution(methodName, parameters);
+        final List<T> plugins;
+        try {
+            plugins = getPlugins(pluginInterface);
+        } catch (NoPluginFoundException | DuplicatedPluginFoundException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        final Map<String, CompletableFuture<MethodExecutionResult>> executions = new LinkedHashMap<>();
+        for (T plugin : plugins) {
+            executions.putIfAbsent(plugin.getPluginName(), executeAsync(plugin, methodName, parameters)
+                    .handle((value, error) -> error == null
+                            ? MethodExecutionResult.success(value)
+                            : MethodExecutionResult.failure((MethodInvocationException) error)));
+        }
+        return CompletableFuture.allOf(executions.values().toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            final Map<String, MethodExecutionResult> results = new LinkedHashMap<>();
+            executions.forEach((pluginName, execution) -> results.put(pluginName, execution.join()));
+            return results;
+        });
+    }
+
+    private CompletableFuture<Object> executeAsync(IPlugin plugin, String methodName, Object... parameters) {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        try {
+            asyncExecutor.execute(() -> {
+                try {
+                    future.complete(invoke(plugin, methodName, () -> plugin.executeMethod(methodName, parameters)));
+                } catch (MethodInvocationException e) {
+                    logExecutionError(methodName, e, parameters);
+                    future.completeExceptionally(e);
+                } catch (Throwable e) {
+                    //Also errors, as a NoClassDefFoundError of a plugin being reloaded, or the future never completes.
+                    PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+                    future.completeExceptionally(new MethodInvocationException(
+                            "Exception invoking method '" + methodName + "' on plugin '" + plugin.getPluginName() + "'.", e));
+                }
+            });
+        } catch (RuntimeException e) {
+            //Executor rejected or shut down.
+            future.completeExceptionally(new MethodInvocationException(
+                    "Method '" + methodName + "' of plugin '" + plugin.getPluginName() + "' cannot be executed.", e));
+        }
+        return future;
+    }
+
+    private List<MethodExecutionResult> executeBatch(IPlugin plugin, String methodName, List<Object[]> parametersList) {
+        //The whole batch is counted as one execution.
+        try {
+            return invoke(plugin, methodName, () -> plugin.executeMethodBatch(methodName, parametersList));
+        } catch (MethodInvocationException e) {
+            //The whole batch is rejected.
+            final List<MethodExecutionResult> results = new ArrayList<>(parametersList.size());
+            for (int i = 0; i < parametersList.size(); i++) {
+                results.add(MethodExecutionResult.failure(e));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Executes a method of a plugin, applying its execution policy and recording its metrics. The execution is
+     * counted as running on the plugin, so the plugin is not stopped meanwhile.
+     *
+     * @param plugin     the plugin executed.
+     * @param methodName method to be used.
+     * @param invocation the execution of the method on the plugin.
+     * @return the result of the invocation.
+     * @throws MethodInvocationException if the plugin is being stopped, the policy rejects the execution or the method
+     *                                   fails.
+     */
+    private <R> R invoke(IPlugin plugin, String methodName, PluginCall<R> invocation) throws MethodInvocationException {
+        final MethodMetrics methodMetrics = metrics.get(plugin.getPluginName(), methodName);
+        final long start = methodMetrics.start();
+        try {
+            final InFlightCalls calls = inFlightCalls.get(plugin);
+            final ExecutionPolicy policy = executionPolicies.get(plugin.getPluginName(), methodName);
+            if (policy.isUnrestricted()) {
+                return calls.execute(plugin, invocation);
+            }
+            //Counted inside the policy, so an execution that times out is counted until the method really ends.
+            return policy.execute(() -> calls.execute(plugin, invocation));
+        } catch (MethodInvocationException e) {
+            methodMetrics.failed(e);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            methodMetrics.failed(null);
+            throw e;
+        } finally {
+            methodMetrics.finish(start);
+        }
+    }
+
+    private <T extends IPlugin> T getPluginToExecute(Class<T> pluginInterface, String pluginName)
+            throws NoPluginFoundException, DuplicatedPluginFoundException {
+        try {
+            startupState.checkFinished();
+            //The indexed instance, whatever the scope is.
+            final T plugin = findAndActivate(pluginInterface, pluginName);
+            if (plugin == null) {
+                PluginManagerLogger.warning(this.getClass().getName(), "No plugin exists with name '{}'.", pluginName);
+                throw new NoPluginFoundException("No plugin exists with name '" + pluginName + "'.");
+            }
+            return plugin;
+        } catch (NoPluginFoundException e) {
             PluginManagerLogger.errorMessage(this.getClass().getName(), e);
             throw e;
         }
-        return null;
+    }
+
+    private void logExecution(String methodName, Object... parameters) {
+        //The array is shown with its content.
+        PluginManagerLogger.debug(this.getClass().getName(), "Executing '{}' with parameters '{}'.", methodName, parameters);
+    }
+
+    private void logExecutionError(String methodName, MethodInvocationException e, Object... parameters) {
+        final StringBuilder sb = new StringBuilder();
+        if (parameters != null) {
+            for (Object parameter : parameters) {
+                sb.append(parameter).append(" (").append(parameter != null ? parameter.getClass().getName() : null).append(")");
+            }
+        }
+        if (e instanceof NoMethodFoundException) {
+            PluginManagerLogger.severe(this.getClass().getName(),
+                    "No plugin method found '{}' with parameters '{}'.", methodName, sb);
+        } else if (e instanceof MethodTimeoutException) {
+            PluginManagerLogger.severe(this.getClass().getName(),
+                    "Timeout executing '{}' with parameters '{}'.", methodName, sb);
+        } else if (e instanceof PluginUnavailableException) {
+            PluginManagerLogger.warning(this.getClass().getName(),
+                    "Plugin stopping while executing '{}' with parameters '{}'.", methodName, sb);
+        } else if (e instanceof BulkheadFullException) {
+            PluginManagerLogger.severe(this.getClass().getName(),
+                    "Too many concurrent executions of '{}' with parameters '{}'.", methodName, sb);
+        } else if (e instanceof InvalidMethodParametersException) {
+            PluginManagerLogger.severe(this.getClass().getName(),
+                    "Invalid parameters on '{}' with parameters '{}'.", methodName, sb);
+        } else {
+            PluginManagerLogger.severe(this.getClass().getName(),
+                    "Exception invoking method '{}' with parameters '{}'.", methodName, sb);
+        }
+        PluginManagerLogger.errorMessage(this.getClass().getName(), e);
     }
 
     public boolean existsPlugins() {
@@ -0,0 +1,370 @@
+package com.biit.plugins;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.activation.PluginActivator;
+import com.biit.plugins.execution.ExecutionPolicy;
+import com.biit.plugins.execution.ExecutionPolicyRegistry;
+import com.biit.plugins.execution.InFlightCalls;
+import com.biit.plugins.execution.InFlightCallsRegistry;
+import com.biit.plugins.interfaces.IPlugin;
+import com.biit.plugins.interfaces.MethodExecutionResult;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.NoMethodFoundException;
+import com.biit.plugins.interfaces.exceptions.NoPluginFoundException;
+import com.biit.plugins.logger.PluginManagerLogger;
+import com.biit.plugins.methods.PluginMethodGroup;
+import com.biit.plugins.methods.PluginMethodTable;
+import com.biit.plugins.metrics.MethodMetrics;
+import com.biit.plugins.metrics.PluginMetricsRegistry;
+import com.biit.plugins.registry.PluginRegistry;
+import com.biit.plugins.startup.PluginStartupState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Executes always the same method of the same plugin. The plugin and the method are searched only once, and are
+ * searched again only if the plugins are reloaded. Useful when a rule executes a plugin method each time it is fired.
+ * <br>
+ * Use {@link PluginController#getPluginInvoker(Class, String, String)} to obtain one.
+ */
+public class PluginInvoker<T extends IPlugin> {
+    private final PluginRegistry pluginRegistry;
+    private final ExecutionPolicyRegistry executionPolicies;
+    private final PluginMetricsRegistry metrics;
+    private final InFlightCallsRegistry inFlightCalls;
+    private final PluginStartupState startupState;
+    private final PluginActivator pluginActivator;
+    private final Class<T> pluginInterface;
+    private final String pluginName;
+    private final String methodName;
+    private volatile Binding<T> binding;
+
+    PluginInvoker(PluginRegistry pluginRegistry, ExecutionPolicyRegistry executionPolicies, PluginMetricsRegistry metrics,
+                  InFlightCallsRegistry inFlightCalls, PluginStartupState startupState, PluginActivator pluginActivator,
+                  Class<T> pluginInterface, String pluginName, String methodName) {
+        this.pluginRegistry = pluginRegistry;
+        this.executionPolicies = executionPolicies;
+        this.metrics = metrics;
+        this.inFlightCalls = inFlightCalls;
+        this.startupState = startupState;
+        this.pluginActivator = pluginActivator;
+        this.pluginInterface = pluginInterface;
+        this.pluginName = pluginName;
+        this.methodName = methodName;
+    }
+
+    public Class<T> getPluginInterface() {
+        return pluginInterface;
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Gets the plugin currently bound to this invoker.
+     *
+     * @return the plugin.
+     * @throws NoPluginFoundException if the plugin does not exist.
+     */
+    public T getPlugin() throws NoPluginFoundException {
+        return getBoundPlugin().plugin;
+    }
+
+    /**
+     * Gets the plugin currently bound to this invoker, without throwing any exception if it does not exist.
+     *
+     * @return the plugin, or empty if it does not exist.
+     */
+    public Optional<T> findPlugin() {
+        if (!startupState.waitForStartup()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getBinding().plugin);
+    }
+
+    /**
+     * Executes the method of the plugin.
+     *
+     * @param parameters parameters of the method.
+     * @return the result of the execution of the plugin method.
+     * @throws NoPluginFoundException    if the plugin does not exist.
+     * @throws MethodInvocationException if the method does not exist, the parameters are invalid or the method fails.
+     */
+    public Object invoke(Object... parameters) throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> invoke(currentBinding, parameters));
+    }
+
+    /**
+     * Executes the method of the plugin without throwing any exception. If the plugin or the method do not exist,
+     * it is remembered until the plugins change, and next executions return immediately.
+     *
+     * @param parameters parameters of the method.
+     * @return the value returned by the method, or the reason because it has not been executed.
+     */
+    public MethodExecutionResult tryInvoke(Object... parameters) {
+        if (!startupState.waitForStartup()) {
+            return MethodExecutionResult.pluginNotFound();
+        }
+        final Binding<T> currentBinding = getBinding();
+        if (currentBinding.plugin == null) {
+            return MethodExecutionResult.pluginNotFound();
+        }
+        if (currentBinding.isMethodMissing()) {
+            return MethodExecutionResult.methodNotFound();
+        }
+        try {
+            return MethodExecutionResult.success(execute(currentBinding, binding -> invoke(binding, parameters)));
+        } catch (NoMethodFoundException e) {
+            currentBinding.methodMissing = true;
+            return MethodExecutionResult.methodNotFound();
+        } catch (MethodInvocationException e) {
+            return MethodExecutionResult.failure(e);
+        }
+    }
+
+    /**
+     * Executes the method without parameters. This and the next methods with a fixed number of parameters do not
+     * create any array if the plugin uses the default {@code executeMethod}.
+     *
+     * @return the result of the execution of the plugin method.
+     * @throws NoPluginFoundException    if the plugin does not exist.
+     * @throws MethodInvocationException if the method does not exist, the parameters are invalid or the method fails.
+     */
+    public Object invoke() throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> currentBinding.direct
+                ? currentBinding.requireMethods().execute(currentBinding.plugin)
+                : currentBinding.plugin.executeMethod(methodName));
+    }
+
+    public Object invoke(Object parameter) throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> currentBinding.direct
+                ? currentBinding.requireMethods().execute(currentBinding.plugin, parameter)
+                : currentBinding.plugin.executeMethod(methodName, parameter));
+    }
+
+    public Object invoke(Object parameter1, Object parameter2) throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> currentBinding.direct
+                ? currentBinding.requireMethods().execute(currentBinding.plugin, parameter1, parameter2)
+                : currentBinding.plugin.executeMethod(methodName, parameter1, parameter2));
+    }
+
+    public Object invoke(Object parameter1, Object parameter2, Object parameter3) throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> currentBinding.direct
+                ? currentBinding.requireMethods().execute(currentBinding.plugin, parameter1, parameter2, parameter3)
+                : currentBinding.plugin.executeMethod(methodName, parameter1, parameter2, parameter3));
+    }
+
+    public Object invoke(Object parameter1, Object parameter2, Object parameter3, Object parameter4)
+            throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> currentBinding.direct
+                ? currentBinding.requireMethods().execute(currentBinding.plugin, parameter1, parameter2, parameter3, parameter4)
+                : currentBinding.plugin.executeMethod(methodName, parameter1, parameter2, parameter3, parameter4));
+    }
+
+    /**
+     * Executes the method with a primitive parameter. The value is not boxed if the plugin method receives a primitive.
+     *
+     * @param parameter parameter of the method.
+     * @return the result of the execution of the plugin method.
+     * @throws NoPluginFoundException    if the plugin does not exist.
+     * @throws MethodInvocationException if the method does not exist, the parameter is invalid or the method fails.
+     */
+    public Object invokeInt(int parameter) throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> currentBinding.direct
+                ? currentBinding.requireMethods().executeInt(currentBinding.plugin, parameter)
+                : currentBinding.plugin.executeMethodInt(methodName, parameter));
+    }
+
+    public Object invokeLong(long parameter) throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> currentBinding.direct
+                ? currentBinding.requireMethods().executeLong(currentBinding.plugin, parameter)
+                : currentBinding.plugin.executeMethodLong(methodName, parameter));
+    }
+
+    public Object invokeDouble(double parameter) throws NoPluginFoundException, MethodInvocationException {
+        return execute(getBoundPlugin(), currentBinding -> currentBinding.direct
+                ? currentBinding.requireMethods().executeDouble(currentBinding.plugin, parameter)
+                : currentBinding.plugin.executeMethodDouble(methodName, parameter));
+    }
+
+    /**
+     * Executes the invocation on the bound plugin, applying the execution policy and recording the metrics.
+     */
+    private <R> R execute(Binding<T> currentBinding, Invocation<T, R> invocation) throws MethodInvocationException {
+        final long start = currentBinding.metrics.start();
+        try {
+            if (currentBinding.policy.isUnrestricted()) {
+                return currentBinding.call(invocation);
+            }
+            //Counted inside the policy, so an execution that times out is counted until the method really ends.
+            return currentBinding.policy.execute(() -> currentBinding.call(invocation));
+        } catch (MethodInvocationException e) {
+            currentBinding.metrics.failed(e);
+            throw e;
+        } finally {
+            currentBinding.metrics.finish(start);
+        }
+    }
+
+    /**
+     * Executes the method once for each set of parameters.
+     *
+     * @param parametersList parameters of each execution.
+     * @return a result for each set of parameters, in the same order.
+     * @throws NoPluginFoundException if the plugin does not exist.
+     * @see IPlugin#executeMethodBatch(String, List)
+     */
+    public List<MethodExecutionResult> invokeBatch(List<Object[]> parametersList) throws NoPluginFoundException {
+        final Binding<T> currentBinding = getBoundPlugin();
+        try {
+            return execute(currentBinding, binding -> binding.plugin.executeMethodBatch(methodName, parametersList));
+        } catch (MethodInvocationException e) {
+            //The whole batch is rejected.
+            final List<MethodExecutionResult> results = new ArrayList<>(parametersList.size());
+            for (int i = 0; i < parametersList.size(); i++) {
+                results.add(MethodExecutionResult.failure(e));
+            }
+            return results;
+        }
+    }
+
+    private Object invoke(Binding<T> currentBinding, Object[] parameters) throws MethodInvocationException {
+        if (!currentBinding.direct) {
+            return currentBinding.plugin.executeMethod(methodName, parameters);
+        }
+        return PluginMethodTable.execute(currentBinding.plugin, methodName, currentBinding.methods, parameters);
+    }
+
+    /**
+     * Returns the current binding, checking that the plugins are started and the plugin exists.
+     */
+    private Binding<T> getBoundPlugin() throws NoPluginFoundException {
+        startupState.checkFinished();
+        final Binding<T> currentBinding = getBinding();
+        if (currentBinding.plugin == null) {
+            throw new NoPluginFoundException("No plugin exists with name '" + pluginName + "'.");
+        }
+        return currentBinding;
+    }
+
+    /**
+     * Returns the current binding, or binds again the invoker if the plugins have changed. A plugin not active yet is
+     * started.
+     */
+    private Binding<T> getBinding() {
+        final Binding<T> currentBinding = binding;
+        long generation = pluginRegistry.getGeneration();
+        final long policiesGeneration = executionPolicies.getGeneration();
+        if (currentBinding != null && currentBinding.generation == generation
+                && currentBinding.policiesGeneration == policiesGeneration) {
+            return currentBinding;
+        }
+        PluginManagerLogger.debug(this.getClass().getName(), "Binding method '{}' of plugin '{}'.", methodName, pluginName);
+        T plugin = pluginRegistry.find(pluginInterface, pluginName);
+        if (plugin == null && pluginActivator.activate(pluginName)) {
+            generation = pluginRegistry.getGeneration();
+            plugin = pluginRegistry.find(pluginInterface, pluginName);
+        }
+        final Binding<T> newBinding = new Binding<>(generation, policiesGeneration, plugin, methodName,
+                plugin != null ? executionPolicies.get(plugin.getPluginName(), methodName) : ExecutionPolicy.UNRESTRICTED,
+                plugin != null ? inFlightCalls.get(plugin) : null,
+                plugin != null ? metrics.get(plugin.getPluginName(), methodName) : MethodMetrics.DISABLED);
+        binding = newBinding;
+        return newBinding;
+    }
+
+    /**
+     * Plugins that are not using the default {@code executeMethod} are always executed by name.
+     */
+    private static PluginMethodTable getMethodsTable(IPlugin plugin) {
+        if (plugin instanceof AbstractBasePlugin && !((AbstractBasePlugin) plugin).isExecutedByName()) {
+            return ((AbstractBasePlugin) plugin).getMethodsTable();
+        }
+        return null;
+    }
+
+    /**
+     * Execution of the method on the plugin of a binding.
+     */
+    @FunctionalInterface
+    private interface Invocation<T extends IPlugin, R> {
+
+        R invoke(Binding<T> binding) throws MethodInvocationException;
+    }
+
+    private static final class Binding<T extends IPlugin> {
+        private final long generation;
+        private final long policiesGeneration;
+        private final T plugin;
+        private final String methodName;
+        private final boolean direct;
+        private final PluginMethodGroup methods;
+        private final ExecutionPolicy policy;
+        //Closed when the plugin is being stopped.
+        private final InFlightCalls calls;
+        private final MethodMetrics metrics;
+        //Set when a plugin that is not executed directly reports that it has not the method.
+        private volatile boolean methodMissing;
+
+        private Binding(long generation, long policiesGeneration, T plugin, String methodName, ExecutionPolicy policy,
+                        InFlightCalls calls, MethodMetrics metrics) {
+            this.generation = generation;
+            this.policiesGeneration = policiesGeneration;
+            this.plugin = plugin;
+            this.methodName = methodName;
+            this.policy = policy;
+            this.calls = calls;
+            this.metrics = metrics;
+            final PluginMethodTable methodsTable = plugin != null ? getMethodsTable(plugin) : null;
+            this.direct = methodsTable != null;
+            this.methods = methodsTable != null ? methodsTable.get(methodName) : null;
+        }
+
+        /**
+         * Executes the invocation counting it as running on the plugin, so the plugin is not stopped meanwhile.
+         */
+        private <R> R call(Invocation<T, R> invocation) throws MethodInvocationException {
+            calls.enter(plugin);
+            try {
+                return invocation.invoke(this);
+            } finally {
+                calls.exit();
+            }
+        }
+
+        private PluginMethodGroup requireMethods() throws NoMethodFoundException {
+            return PluginMethodTable.require(methodName, methods);
+        }
+
+        private boolean isMethodMissing() {
+            return (direct && methods == null) || methodMissing;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.biit.plugins.activation;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Failed activations of the plugins registered with {@link com.biit.plugins.configuration.PluginActivation#LAZY}. A
+ * plugin that cannot be started is started again when it is used, but not before a delay that is doubled on each
+ * consecutive failure, up to a maximum. The failures are forgotten once the plugin is started.
+ */
+public class ActivationBackoff {
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    //Next time each plugin can be started, by plugin id.
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+
+    /**
+     * @param initialDelayMillis milliseconds after the first failure before starting the plugin again.
+     * @param maxDelayMillis     maximum milliseconds between two attempts.
+     */
+    public ActivationBackoff(long initialDelayMillis, long maxDelayMillis) {
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, initialDelayMillis));
+        this.maxDelayNanos = Math.max(initialDelayNanos, TimeUnit.MILLISECONDS.toNanos(maxDelayMillis));
+    }
+
+    /**
+     * @param pluginId the id of the plugin.
+     * @return false if the last activation of the plugin has failed and the delay has not elapsed yet.
+     */
+    public boolean canActivate(String pluginId) {
+        final Failure failure = failures.get(pluginId);
+        return failure == null || System.nanoTime() - failure.nextAttempt >= 0;
+    }
+
+    /**
+     * @param pluginId the id of the plugin.
+     * @return true if the last activation of the plugin has failed.
+     */
+    public boolean hasFailed(String pluginId) {
+        return failures.containsKey(pluginId);
+    }
+
+    /**
+     * Registers a failed activation.
+     *
+     * @param pluginId the id of the plugin.
+     * @return the milliseconds until the plugin can be started again.
+     */
+    public long failed(String pluginId) {
+        final Failure failure = failures.compute(pluginId, (id, previous) -> {
+            final long delay = previous == null ? initialDelayNanos : Math.min(previous.delay * 2, maxDelayNanos);
+            return new Failure(delay, System.nanoTime() + delay);
+        });
+        return TimeUnit.NANOSECONDS.toMillis(failure.delay);
+    }
+
+    /**
+     * Forgets the failures of a plugin, once it is started or unloaded.
+     *
+     * @param pluginId the id of the plugin.
+     */
+    public void reset(String pluginId) {
+        failures.remove(pluginId);
+    }
+
+    public void clear() {
+        failures.clear();
+    }
+
+    private static final class Failure {
+        private final long delay;
+        private final long nextAttempt;
+
+        private Failure(long delay, long nextAttempt) {
+            this.delay = delay;
+            this.nextAttempt = nextAttempt;
+        }
+    }
+}
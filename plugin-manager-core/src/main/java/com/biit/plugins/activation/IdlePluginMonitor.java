@@ -0,0 +1,107 @@
+package com.biit.plugins.activation;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.execution.InFlightCalls;
+import com.biit.plugins.logger.PluginManagerLogger;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reports the plugins that have not been used for some time. A plugin is used when an execution enters it
+ * (see {@link InFlightCalls#isUsed()}); the plugins are checked periodically, so the executions only set a flag.
+ * The plugins are reported on the thread of the monitor, one by one.
+ */
+public class IdlePluginMonitor implements Closeable {
+    private static final String THREAD_NAME = "plugin-passivation";
+    private static final long MIN_CHECK_PERIOD = 100;
+
+    private final long idleNanos;
+    private final long checkPeriodMillis;
+    private final Supplier<Map<String, InFlightCalls>> pluginsSupplier;
+    private final Consumer<String> idleListener;
+    //Last time each plugin has been seen in use. Only used by the thread of the monitor.
+    private final Map<String, Long> lastUses = new HashMap<>();
+    private final Thread thread;
+
+    /**
+     * @param idleMillis      milliseconds without executions before a plugin is reported.
+     * @param pluginsSupplier the plugins that can be reported, with their executions, by plugin id.
+     * @param idleListener    receives the id of each plugin idle.
+     */
+    public IdlePluginMonitor(long idleMillis, Supplier<Map<String, InFlightCalls>> pluginsSupplier, Consumer<String> idleListener) {
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.checkPeriodMillis = Math.max(MIN_CHECK_PERIOD, idleMillis / 2);
+        this.pluginsSupplier = pluginsSupplier;
+        this.idleListener = idleListener;
+        this.thread = new Thread(this::monitor, THREAD_NAME);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    private void monitor() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(checkPeriodMillis);
+                checkIdlePlugins();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks the plugins once, and reports the ones idle since the previous checks. Called periodically by the thread
+     * of the monitor.
+     */
+    public void checkIdlePlugins() {
+        final long now = System.nanoTime();
+        final Map<String, InFlightCalls> plugins = pluginsSupplier.get();
+        lastUses.keySet().retainAll(plugins.keySet());
+        for (Map.Entry<String, InFlightCalls> plugin : plugins.entrySet()) {
+            final Long lastUse = lastUses.get(plugin.getKey());
+            if (plugin.getValue().resetUsed() || plugin.getValue().getCount() > 0 || lastUse == null) {
+                lastUses.put(plugin.getKey(), now);
+            } else if (now - lastUse >= idleNanos) {
+                lastUses.remove(plugin.getKey());
+                try {
+                    idleListener.accept(plugin.getKey());
+                } catch (RuntimeException e) {
+                    PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,58 @@
+package com.biit.plugins.activation;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A plugin unloaded because it was idle. Only its jar and the ids of its dependencies are kept, so its class loader
+ * can be released, and it can be loaded again when used.
+ */
+public class PassivatedPlugin {
+    private final String pluginId;
+    private final Path pluginPath;
+    private final List<String> dependencies;
+
+    public PassivatedPlugin(String pluginId, Path pluginPath, List<String> dependencies) {
+        this.pluginId = pluginId;
+        this.pluginPath = pluginPath;
+        this.dependencies = List.copyOf(dependencies);
+    }
+
+    public String getPluginId() {
+        return pluginId;
+    }
+
+    public Path getPluginPath() {
+        return pluginPath;
+    }
+
+    /**
+     * Ids of the plugins required or optionally used by this one, that must be loaded before it.
+     *
+     * @return the ids.
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+}
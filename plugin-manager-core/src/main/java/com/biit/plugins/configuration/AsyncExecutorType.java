@@ -0,0 +1,39 @@
+package com.biit.plugins.configuration;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+/**
+ * Threads used by the asynchronous executions of {@link com.biit.plugins.PluginController}.
+ */
+public enum AsyncExecutorType {
+
+    /**
+     * A new virtual thread for each execution. If the JVM has no virtual threads, a pool with a fixed number of threads
+     * is used, as on {@link #FIXED}.
+     */
+    VIRTUAL,
+
+    /**
+     * A pool with a fixed number of threads.
+     */
+    FIXED
+}
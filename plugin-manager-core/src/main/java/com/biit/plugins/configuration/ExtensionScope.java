@@ -0,0 +1,41 @@
+package com.biit.plugins.configuration;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+/**
+ * Defines if the extensions returned by {@link com.biit.plugins.PluginController#getPlugins(Class)},
+ * {@link com.biit.plugins.PluginController#getPlugin(Class, String)} and
+ * {@link com.biit.plugins.PluginController#findPlugin(Class, String)} are shared. The executions of the plugin methods
+ * by name always use the same instance of each extension, until the plugin is stopped.
+ */
+public enum ExtensionScope {
+
+    /**
+     * The extensions are created once when the plugin starts, and reused until the plugin is stopped.
+     */
+    SINGLETON,
+
+    /**
+     * The extensions are obtained again from the plugin manager on each request, that can create new instances.
+     */
+    PROTOTYPE
+}
@@ -0,0 +1,40 @@
+package com.biit.plugins.configuration;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+/**
+ * Defines when the plugins are started by {@link com.biit.plugins.PluginController}.
+ */
+public enum PluginActivation {
+
+    /**
+     * All the plugins are started on startup and stay started.
+     */
+    EAGER,
+
+    /**
+     * The plugins are registered on startup, but each one is started the first time it is searched by name. Plugins
+     * idle for longer than {@link PluginControllerSettings#getIdleTimeout()} are unloaded, and started again when
+     * used.
+     */
+    LAZY
+}
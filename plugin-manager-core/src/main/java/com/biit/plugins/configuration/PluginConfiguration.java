@@ -21,23 +21,45 @@ package com.biit.plugins.configuration;
  * #L%
  */
 
+import com.biit.plugins.interfaces.ISpringPlugin;
+import com.biit.plugins.logger.PluginManagerLogger;
+import com.biit.plugins.web.PluginRequestMappings;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
 import org.pf4j.PluginManager;
+import org.pf4j.PluginState;
+import org.pf4j.PluginStateEvent;
+import org.pf4j.PluginWrapper;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.handler.HandlerExceptionResolverComposite;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Integrates the plugins with the host application. The rest controllers of each {@link ISpringPlugin} are registered
+ * on the request mappings of the host when the plugin starts, and removed when it stops.
+ */
 @Configuration
 public class PluginConfiguration implements BeanFactoryAware {
+    private static final String HANDLER_MAPPING_BEAN = "requestMappingHandlerMapping";
+    private static final String HANDLER_ADAPTER_BEAN = "requestMappingHandlerAdapter";
+    private static final String EXCEPTION_RESOLVER_BEAN = "handlerExceptionResolver";
 
     private final PluginManager pluginManager;
     private final ApplicationContext applicationContext;
     private final ObjectMapper objectMapper;
+    //Null if the host is not a web application.
+    private final PluginRequestMappings requestMappings;
     private BeanFactory beanFactory;
 
     @Autowired
@@ -45,6 +67,90 @@ public class PluginConfiguration implements BeanFactoryAware {
         this.pluginManager = pluginManager;
         this.applicationContext = applicationContext;
         this.objectMapper = objectMapper;
+        this.requestMappings = createRequestMappings(applicationContext);
+        if (requestMappings != null) {
+            pluginManager.addPluginStateListener(this::pluginStateChanged);
+            //Plugins started before this configuration.
+            for (PluginWrapper pluginWrapper : new ArrayList<>(pluginManager.getStartedPlugins())) {
+                registerRestControllers(pluginWrapper);
+            }
+        }
+    }
+
+    private static PluginRequestMappings createRequestMappings(ApplicationContext applicationContext) {
+        if (!applicationContext.containsBean(HANDLER_MAPPING_BEAN)) {
+            return null;
+        }
+        final Object handlerMapping = applicationContext.getBean(HANDLER_MAPPING_BEAN);
+        if (handlerMapping instanceof RequestMappingHandlerMapping) {
+            return new PluginRequestMappings((RequestMappingHandlerMapping) handlerMapping, getHandlerAdapter(applicationContext),
+                    getExceptionResolvers(applicationContext));
+        }
+        return null;
+    }
+
+    private static RequestMappingHandlerAdapter getHandlerAdapter(ApplicationContext applicationContext) {
+        if (applicationContext.containsBean(HANDLER_ADAPTER_BEAN)) {
+            final Object handlerAdapter = applicationContext.getBean(HANDLER_ADAPTER_BEAN);
+            if (handlerAdapter instanceof RequestMappingHandlerAdapter) {
+                return (RequestMappingHandlerAdapter) handlerAdapter;
+            }
+        }
+        return null;
+    }
+
+    private static List<ExceptionHandlerExceptionResolver> getExceptionResolvers(ApplicationContext applicationContext) {
+        final List<ExceptionHandlerExceptionResolver> exceptionResolvers = new ArrayList<>();
+        if (applicationContext.containsBean(EXCEPTION_RESOLVER_BEAN)) {
+            final Object exceptionResolver = applicationContext.getBean(EXCEPTION_RESOLVER_BEAN);
+            //The resolvers of the host are grouped on a composite.
+            if (exceptionResolver instanceof HandlerExceptionResolverComposite) {
+                for (HandlerExceptionResolver resolver : ((HandlerExceptionResolverComposite) exceptionResolver).getExceptionResolvers()) {
+                    if (resolver instanceof ExceptionHandlerExceptionResolver) {
+                        exceptionResolvers.add((ExceptionHandlerExceptionResolver) resolver);
+                    }
+                }
+            } else if (exceptionResolver instanceof ExceptionHandlerExceptionResolver) {
+                exceptionResolvers.add((ExceptionHandlerExceptionResolver) exceptionResolver);
+            }
+        }
+        return exceptionResolvers;
+    }
+
+    /**
+     * Endpoints registered for the plugins.
+     *
+     * @return the request mappings, or null if the host is not a web application.
+     */
+    public PluginRequestMappings getRequestMappings() {
+        return requestMappings;
+    }
+
+    private void pluginStateChanged(PluginStateEvent event) {
+        if (event.getPluginState() == PluginState.STARTED) {
+            registerRestControllers(event.getPlugin());
+        } else {
+            requestMappings.unregister(event.getPlugin().getPluginId());
+        }
+    }
+
+    private void registerRestControllers(PluginWrapper pluginWrapper) {
+        try {
+            final List<Object> controllers = new ArrayList<>();
+            for (ISpringPlugin springPlugin : pluginManager.getExtensions(ISpringPlugin.class, pluginWrapper.getPluginId())) {
+                final List<Object> restControllers = springPlugin.restControllers();
+                if (restControllers != null) {
+                    controllers.addAll(restControllers);
+                }
+            }
+            if (!controllers.isEmpty()) {
+                requestMappings.register(pluginWrapper.getPluginId(), controllers);
+            }
+        } catch (RuntimeException e) {
+            PluginManagerLogger.severe(this.getClass().getName(), "Endpoints of plugin '{}' cannot be registered.",
+                    pluginWrapper.getPluginId());
+            PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+        }
     }
 
     @Override
@@ -26,6 +26,12 @@ import com.biit.plugins.logger.PluginManagerLogger;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.EmbeddedValueResolverAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
@@ -47,16 +53,39 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Settings of the plugins, from the configuration files ({@code *.conf}) and the properties of the application. All of
+ * them are merged on an immutable snapshot, with the keys in lower case, so reading a setting is only a search on a
+ * map. The properties of the application have priority over the files, and are found with the relaxed names of
+ * Spring: an environment variable {@code PLUGINS_PLUGIN_MAX_WAIT} is used for {@code plugins.plugin.max-wait} or
+ * {@code plugins.plugin.max.wait}. Settings not found on the snapshot are searched on the application, including
+ * the property sources that cannot list their properties, and the result is kept until the next refresh.<br>
+ * The snapshot is replaced when the files are loaded again ({@link #loadPluginProperties()}) or with
+ * {@link #refresh()} if the properties of the application change.
+ */
 @Component
-public class PluginConfigurationReader implements EmbeddedValueResolverAware {
+public class PluginConfigurationReader implements EmbeddedValueResolverAware, EnvironmentAware {
     public static final String SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER = "PLUGINS_CONFIG_PATH";
     public static final String PLUGINS_CONFIG_FILES_EXTENSION = "conf";
     protected static final String SETTINGS_FILE = "settings.conf";
+    //Limit of settings searched on the application out of the snapshot, as the keys come from the callers.
+    private static final int MAX_SEARCHED_SETTINGS = 1000;
+    //Kept for the settings searched and not found.
+    private static final String NOT_FOUND = new String();
     private StringValueResolver resolver;
-    private final Map<String, String> properties = new HashMap<>();
+    private volatile Environment environment;
+    //Settings of the configuration files.
+    private volatile Map<String, String> properties = Map.of();
+    //Settings of the files and the application together, with normalized keys.
+    private volatile Map<String, String> snapshot = Map.of();
+    //Settings searched on the application because they are not on the snapshot.
+    private final Map<String, String> searchedSettings = new ConcurrentHashMap<>();
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
     private final String pluginsLocations;
 
     public PluginConfigurationReader(@Value("${plugins.directory:}") String pluginsLocations) {
@@ -64,68 +93,221 @@ public class PluginConfigurationReader implements EmbeddedValueResolverAware {
     }
 
 
+    /**
+     * Only used if the reader has no {@link Environment}, resolving each setting when it is read.
+     */
     @Override
     public void setEmbeddedValueResolver(StringValueResolver resolver) {
         this.resolver = resolver;
     }
 
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+        refresh();
+    }
+
+    /**
+     * Gets a setting. Does not create any object if the key is already in lower case.
+     *
+     * @param propertyId the key of the setting, ignoring case.
+     * @return the value, or null if it is not defined.
+     */
     public String getProperty(String propertyId) {
+        if (propertyId == null) {
+            return null;
+        }
+        if (environment == null && resolver != null) {
+            return resolveProperty(propertyId);
+        }
+        final Map<String, String> currentSnapshot = snapshot;
+        final String value = currentSnapshot.get(propertyId);
+        if (value != null) {
+            return value;
+        }
+        final String key = isNormalized(propertyId) ? propertyId : normalize(propertyId);
+        if (key != propertyId) {
+            final String normalizedValue = currentSnapshot.get(key);
+            if (normalizedValue != null) {
+                return normalizedValue;
+            }
+        }
+        return searchProperty(key);
+    }
+
+    /**
+     * Searches a setting that is not on the snapshot on all the property sources of the application, with the relaxed
+     * names of Spring.
+     */
+    private String searchProperty(String key) {
+        final Environment currentEnvironment = environment;
+        if (currentEnvironment == null) {
+            return null;
+        }
+        final String searchedValue = searchedSettings.get(key);
+        if (searchedValue != null) {
+            return searchedValue != NOT_FOUND ? searchedValue : null;
+        }
+        String value;
         try {
-            return resolver.resolveStringValue("${" + propertyId.toLowerCase(Locale.ROOT) + "}");
+            value = currentEnvironment.getProperty(key);
         } catch (IllegalArgumentException e) {
-            return properties.get(propertyId);
+            PluginManagerLogger.debug(this.getClass().getName(), "Property '{}' cannot be resolved: {}", key, e.getMessage());
+            value = null;
         }
+        if (searchedSettings.size() < MAX_SEARCHED_SETTINGS) {
+            searchedSettings.put(key, value != null ? value : NOT_FOUND);
+        }
+        return value;
     }
 
     public String getPropertyValue(String propertyTag) {
-        //Check if property exists.
+        return getProperty(propertyTag);
+    }
+
+    /**
+     * All the settings currently used.
+     *
+     * @return an immutable map, with the keys in lower case.
+     */
+    public Map<String, String> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Merges again the configuration files already loaded and the properties of the application, and replaces the
+     * snapshot used by {@link #getProperty(String)}. The readings done at the same time use the previous one.
+     */
+    public synchronized void refresh() {
+        final Map<String, String> settings = new HashMap<>();
+        final Environment currentEnvironment = environment;
+        //The application can override the files, also with relaxed names or on sources that cannot be listed.
+        properties.forEach((key, value) -> {
+            final String applicationValue = currentEnvironment != null ? getApplicationProperty(currentEnvironment, key) : null;
+            settings.put(normalize(key), applicationValue != null ? applicationValue : value);
+        });
+        if (currentEnvironment instanceof ConfigurableEnvironment) {
+            for (PropertySource<?> propertySource : ((ConfigurableEnvironment) currentEnvironment).getPropertySources()) {
+                if (propertySource instanceof EnumerablePropertySource) {
+                    addProperties(settings, currentEnvironment, (EnumerablePropertySource<?>) propertySource);
+                }
+            }
+        }
+        snapshot = Map.copyOf(settings);
+        searchedSettings.clear();
+        PluginManagerLogger.debug(this.getClass().getName(), "Plugins configuration updated with '{}' settings.", settings.size());
+        for (Runnable listener : refreshListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Registers an action executed each time the snapshot is replaced, to discard anything created from the previous
+     * settings.
+     *
+     * @param listener the action.
+     */
+    public void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
+    public void removeRefreshListener(Runnable listener) {
+        refreshListeners.remove(listener);
+    }
+
+    private void addProperties(Map<String, String> settings, Environment currentEnvironment,
+                               EnumerablePropertySource<?> propertySource) {
+        final boolean systemEnvironment = propertySource instanceof SystemEnvironmentPropertySource;
+        for (String name : propertySource.getPropertyNames()) {
+            //The value with the highest priority, with its placeholders resolved.
+            final String value = getApplicationProperty(currentEnvironment, name);
+            if (value == null) {
+                continue;
+            }
+            settings.put(normalize(name), value);
+            if (systemEnvironment) {
+                //Other names with hyphens are found by searchProperty.
+                settings.putIfAbsent(normalize(name.replace('_', '.')), value);
+            }
+        }
+    }
+
+    private String getApplicationProperty(Environment currentEnvironment, String name) {
         try {
-            return getProperty(propertyTag);
+            return currentEnvironment.getProperty(name);
         } catch (IllegalArgumentException e) {
+            PluginManagerLogger.debug(this.getClass().getName(), "Property '{}' cannot be resolved: {}", name, e.getMessage());
             return null;
         }
     }
 
+    private String resolveProperty(String propertyId) {
+        try {
+            return resolver.resolveStringValue("${" + normalize(propertyId) + "}");
+        } catch (IllegalArgumentException e) {
+            return snapshot.get(normalize(propertyId));
+        }
+    }
+
+    private static String normalize(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isNormalized(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (Character.isUpperCase(key.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Loads again the configuration files and replaces the snapshot.
+     */
     @PostConstruct
     public void loadPluginProperties() {
+        final Map<String, String> fileProperties = new HashMap<>();
         String settingsFile = getSettingsFileName();
-        PluginManagerLogger.debug(this.getClass(), "Loading plugins settings file for '" + settingsFile + "'.");
+        PluginManagerLogger.debug(this.getClass(), "Loading plugins settings file for '{}'.", settingsFile);
         // Load settings as resource.
         if (settingsFile != null) {
             // using same name as jar file.
             if (resourceExist(settingsFile)) {
-                loadPropertiesFileInResources(settingsFile);
-                PluginManagerLogger.debug(this.getClass(), "Plugin using settings in resource folder '" + settingsFile + "'.");
+                loadPropertiesFileInResources(settingsFile, fileProperties);
+                PluginManagerLogger.debug(this.getClass(), "Plugin using settings in resource folder '{}'.", settingsFile);
             }
         }
         // Load settings as file.
         settingsFile = getJarFolder() + "/" + getSettingsFileName();
-        PluginManagerLogger.debug(this.getClass(), "Searching for plugins configuration file in '" + settingsFile + "'.");
+        PluginManagerLogger.debug(this.getClass(), "Searching for plugins configuration file in '{}'.", settingsFile);
         if (fileExists(settingsFile)) {
-            loadPropertiesFileInResources(settingsFile);
-            PluginManagerLogger.debug(this.getClass(), "Found plugins configuration file '" + settingsFile + "'!");
+            loadPropertiesFileInResources(settingsFile, fileProperties);
+            PluginManagerLogger.debug(this.getClass(), "Found plugins configuration file '{}'!", settingsFile);
         }
         //Load settings in system environment file path
         getConfigurationSettings().forEach(settingsSystemFile -> {
             if (fileExists(settingsSystemFile)) {
-                loadPropertiesFileAbsolutePath(settingsSystemFile);
-                PluginManagerLogger.debug(this.getClass(), "Found plugins configuration file '" + settingsSystemFile + "'!");
+                loadPropertiesFileAbsolutePath(settingsSystemFile, fileProperties);
+                PluginManagerLogger.debug(this.getClass(), "Found plugins configuration file '{}'!", settingsSystemFile);
             }
         });
         getSystemPropertyConfigurationSettings().forEach(settingsSystemFile -> {
             if (fileExists(settingsSystemFile)) {
-                loadPropertiesFileAbsolutePath(settingsSystemFile);
-                PluginManagerLogger.debug(this.getClass(), "Found plugins configuration file '" + settingsSystemFile + "' on folder '"
-                        + System.getProperty(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER) + "'.!");
+                loadPropertiesFileAbsolutePath(settingsSystemFile, fileProperties);
+                PluginManagerLogger.debug(this.getClass(), "Found plugins configuration file '{}' on folder '{}'.!", settingsSystemFile,
+                        System.getProperty(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER));
             }
         });
         getSystemEnvConfigurationSettings().forEach(settingsSystemFile -> {
             if (fileExists(settingsSystemFile)) {
-                loadPropertiesFileAbsolutePath(settingsSystemFile);
-                PluginManagerLogger.debug(this.getClass(), "Found plugins configuration file '" + settingsSystemFile + "' on folder '"
-                        + System.getenv(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER) + "'.!");
+                loadPropertiesFileAbsolutePath(settingsSystemFile, fileProperties);
+                PluginManagerLogger.debug(this.getClass(), "Found plugins configuration file '{}' on folder '{}'.!", settingsSystemFile,
+                        System.getenv(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER));
             }
         });
+        this.properties = Map.copyOf(fileProperties);
+        refresh();
     }
 
     private String getSettingsFileName() {
@@ -145,8 +327,8 @@ public class PluginConfigurationReader implements EmbeddedValueResolverAware {
     }
 
     protected List<String> getConfigurationSettings() {
-        PluginManagerLogger.debug(this.getClass().getName(), "Searching plugins configuration on resources '"
-                + pluginsLocations + "'.");
+        PluginManagerLogger.debug(this.getClass().getName(),
+                "Searching plugins configuration on resources '{}'.", pluginsLocations);
         if (pluginsLocations != null) {
             final Path folder = Paths.get(pluginsLocations);
             if (Files.isDirectory(folder)) {
@@ -160,7 +342,7 @@ public class PluginConfigurationReader implements EmbeddedValueResolverAware {
                                 .collect(Collectors.toList());        // collect all matched to a List
                     }
                 } catch (IOException e) {
-                    PluginManagerLogger.warning(this.getClass().getName(), "Invalid folder '" + folder + "'.");
+                    PluginManagerLogger.warning(this.getClass().getName(), "Invalid folder '{}'.", folder);
                 }
             }
         }
@@ -169,8 +351,8 @@ public class PluginConfigurationReader implements EmbeddedValueResolverAware {
 
     protected List<String> getSystemPropertyConfigurationSettings() {
         if (System.getProperty(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER) != null) {
-            PluginManagerLogger.debug(this.getClass().getName(), "Searching plugins configuration on path defined in system property as '"
-                    + System.getProperty(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER) + "'.");
+            PluginManagerLogger.debug(this.getClass().getName(), "Searching plugins configuration on path defined in system property as '{}'.",
+                    System.getProperty(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER));
             final Path folder = Paths.get(System.getProperty(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER));
             if (Files.isDirectory(folder)) {
                 try {
@@ -180,20 +362,20 @@ public class PluginConfigurationReader implements EmbeddedValueResolverAware {
                                 .filter(p -> !Files.isDirectory(p))   // not a directory
                                 .map(p -> p.toString().toLowerCase()) // convert path to string
                                 .filter(f -> {
-                                    PluginManagerLogger.debug(this.getClass().getName(), "Found configuration file '" + f + "'.");
+                                    PluginManagerLogger.debug(this.getClass().getName(), "Found configuration file '{}'.", f);
                                     return f.endsWith(PLUGINS_CONFIG_FILES_EXTENSION);
                                 })       // check end with
                                 .collect(Collectors.toList());        // collect all matched to a List
                     }
                 } catch (IOException e) {
-                    PluginManagerLogger.warning(this.getClass().getName(), "Invalid folder '" + folder + "'.");
+                    PluginManagerLogger.warning(this.getClass().getName(), "Invalid folder '{}'.", folder);
                 }
             } else {
-                PluginManagerLogger.warning(this.getClass().getName(), "System property '" + folder + "' is not a folder path.");
+                PluginManagerLogger.warning(this.getClass().getName(), "System property '{}' is not a folder path.", folder);
             }
         } else {
-            PluginManagerLogger.debug(this.getClass().getName(), "No system property found for '"
-                    + SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER + "'.");
+            PluginManagerLogger.debug(this.getClass().getName(),
+                    "No system property found for '{}'.", SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER);
         }
         return new ArrayList<>();
     }
@@ -201,8 +383,8 @@ public class PluginConfigurationReader implements EmbeddedValueResolverAware {
 
     protected List<String> getSystemEnvConfigurationSettings() {
         if (System.getenv(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER) != null) {
-            PluginManagerLogger.debug(this.getClass().getName(), "Searching plugins configuration on path defined in system variable as '"
-                    + System.getenv(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER) + "'.");
+            PluginManagerLogger.debug(this.getClass().getName(), "Searching plugins configuration on path defined in system variable as '{}'.",
+                    System.getenv(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER));
             final Path folder = Paths.get(System.getenv(SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER));
             if (Files.isDirectory(folder)) {
                 try {
@@ -211,44 +393,44 @@ public class PluginConfigurationReader implements EmbeddedValueResolverAware {
                                 .filter(p -> !Files.isDirectory(p))   // not a directory
                                 .map(p -> p.toString().toLowerCase()) // convert path to string
                                 .filter(f -> {
-                                    PluginManagerLogger.debug(this.getClass().getName(), "Found configuration file '" + f + "'.");
+                                    PluginManagerLogger.debug(this.getClass().getName(), "Found configuration file '{}'.", f);
                                     return f.endsWith(PLUGINS_CONFIG_FILES_EXTENSION);
                                 })       // check end with
                                 .collect(Collectors.toList());        // collect all matched to a List
                     }
                 } catch (IOException e) {
-                    PluginManagerLogger.warning(this.getClass().getName(), "Invalid folder '" + folder + "'.");
+                    PluginManagerLogger.warning(this.getClass().getName(), "Invalid folder '{}'.", folder);
                 }
             } else {
-                PluginManagerLogger.warning(this.getClass().getName(), "System variable '" + folder + "' is not a folder path.");
+                PluginManagerLogger.warning(this.getClass().getName(), "System variable '{}' is not a folder path.", folder);
             }
         } else {
-            PluginManagerLogger.debug(this.getClass().getName(), "No system variable found for '"
-                    + SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER + "'.");
+            PluginManagerLogger.debug(this.getClass().getName(),
+                    "No system variable found for '{}'.", SYSTEM_VARIABLE_PLUGINS_CONFIG_FOLDER);
         }
         return new ArrayList<>();
     }
 
-    private void loadPropertiesFileInResources(String propertiesFile) {
+    private void loadPropertiesFileInResources(String propertiesFile, Map<String, String> properties) {
         final Resource resource = new ClassPathResource(propertiesFile);
         try {
             final Properties propertiesLoaded = PropertiesLoaderUtils.loadProperties(resource);
             propertiesLoaded.stringPropertyNames().forEach(key -> properties.put(key, propertiesLoaded.getProperty(key)));
         } catch (IOException e) {
-            PluginManagerLogger.warning(this.getClass().getName(), "No settings file found for '" + propertiesFile + "'.");
+            PluginManagerLogger.warning(this.getClass().getName(), "No settings file found for '{}'.", propertiesFile);
         }
     }
 
-    private void loadPropertiesFileAbsolutePath(String propertiesFile) {
+    private void loadPropertiesFileAbsolutePath(String propertiesFile, Map<String, String> properties) {
         try (InputStream input = new FileInputStream(propertiesFile)) {
             final Properties propertiesLoaded = new Properties();
 
             // load a properties file
             propertiesLoaded.load(input);
-            PluginManagerLogger.debug(this.getClass().getName(), "Settings found '" + propertiesLoaded.stringPropertyNames() + "'.");
+            PluginManagerLogger.debug(this.getClass().getName(), "Settings found '{}'.", propertiesLoaded.stringPropertyNames());
             propertiesLoaded.stringPropertyNames().forEach(key -> properties.put(key, propertiesLoaded.getProperty(key)));
         } catch (IOException ex) {
-            PluginManagerLogger.warning(this.getClass().getName(), "No settings file found for '" + propertiesFile + "'.");
+            PluginManagerLogger.warning(this.getClass().getName(), "No settings file found for '{}'.", propertiesFile);
         }
     }
 
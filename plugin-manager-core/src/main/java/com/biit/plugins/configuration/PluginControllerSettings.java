@@ -0,0 +1,236 @@
+package com.biit.plugins.configuration;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.util.concurrent.Executor;
+
+/**
+ * Settings used by {@link com.biit.plugins.PluginController}. Defined as a bean on {@link PluginManagerFactory}.
+ */
+public class PluginControllerSettings {
+    public static final long DEFAULT_HOT_RELOAD_DELAY = 1000;
+    public static final long DEFAULT_DRAIN_TIMEOUT = 10000;
+    public static final int DEFAULT_TIMEOUT_POOL_SIZE = 256;
+    public static final long DEFAULT_ACTIVATION_RETRY_DELAY = 1000;
+    public static final long DEFAULT_ACTIVATION_MAX_RETRY_DELAY = 60000;
+
+    private ExtensionScope extensionScope = ExtensionScope.PROTOTYPE;
+    private AsyncExecutorType asyncExecutorType = AsyncExecutorType.VIRTUAL;
+    private int asyncPoolSize;
+    private int timeoutPoolSize = DEFAULT_TIMEOUT_POOL_SIZE;
+    private Executor asyncExecutor;
+    private boolean hotReload;
+    private long hotReloadDelay = DEFAULT_HOT_RELOAD_DELAY;
+    private long drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+    private boolean asyncStartup;
+    private long startupWaitTimeout;
+    private PluginActivation activation = PluginActivation.EAGER;
+    private long activationRetryDelay = DEFAULT_ACTIVATION_RETRY_DELAY;
+    private long activationMaxRetryDelay = DEFAULT_ACTIVATION_MAX_RETRY_DELAY;
+    private long idleTimeout;
+    private boolean metricsEnabled = true;
+
+    public ExtensionScope getExtensionScope() {
+        return extensionScope;
+    }
+
+    public void setExtensionScope(ExtensionScope extensionScope) {
+        this.extensionScope = extensionScope;
+    }
+
+    public AsyncExecutorType getAsyncExecutorType() {
+        return asyncExecutorType;
+    }
+
+    public void setAsyncExecutorType(AsyncExecutorType asyncExecutorType) {
+        this.asyncExecutorType = asyncExecutorType;
+    }
+
+    /**
+     * Number of threads if {@link AsyncExecutorType#FIXED} is used. Zero for one thread for each processor.
+     *
+     * @return the number of threads.
+     */
+    public int getAsyncPoolSize() {
+        return asyncPoolSize;
+    }
+
+    public void setAsyncPoolSize(int asyncPoolSize) {
+        this.asyncPoolSize = asyncPoolSize;
+    }
+
+    /**
+     * Maximum number of executions with timeout running at the same time, including the ones whose caller has timed
+     * out but have not stopped yet. Executions over this limit fail with
+     * {@link com.biit.plugins.interfaces.exceptions.BulkheadFullException}.
+     *
+     * @return the number of threads.
+     */
+    public int getTimeoutPoolSize() {
+        return timeoutPoolSize;
+    }
+
+    public void setTimeoutPoolSize(int timeoutPoolSize) {
+        this.timeoutPoolSize = timeoutPoolSize;
+    }
+
+    /**
+     * Custom executor for the asynchronous executions. If set, the executor type and the pool size are ignored,
+     * and the executor is not shut down by the controller.
+     *
+     * @return the executor or null if the controller creates its own one.
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * If enabled, the plugins' folders are watched, and each plugin jar added, replaced or deleted is loaded or
+     * unloaded without restarting the application.
+     *
+     * @return true if the folders are watched.
+     */
+    public boolean isHotReload() {
+        return hotReload;
+    }
+
+    public void setHotReload(boolean hotReload) {
+        this.hotReload = hotReload;
+    }
+
+    /**
+     * Milliseconds that a plugin jar must stay without changes before reloading it, so it is not loaded while it
+     * is still being copied.
+     *
+     * @return the delay in milliseconds.
+     */
+    public long getHotReloadDelay() {
+        return hotReloadDelay;
+    }
+
+    public void setHotReloadDelay(long hotReloadDelay) {
+        this.hotReloadDelay = hotReloadDelay;
+    }
+
+    /**
+     * Milliseconds that the executions running on a plugin have to finish before the plugin is stopped, unloaded
+     * or reloaded. New executions are rejected meanwhile.
+     *
+     * @return the timeout in milliseconds.
+     */
+    public long getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    public void setDrainTimeout(long drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * If enabled, the plugins are loaded and started in background, and the application does not wait for them.
+     *
+     * @return true if the plugins are started in background.
+     */
+    public boolean isAsyncStartup() {
+        return asyncStartup;
+    }
+
+    public void setAsyncStartup(boolean asyncStartup) {
+        this.asyncStartup = asyncStartup;
+    }
+
+    /**
+     * Milliseconds that a search or execution of a plugin waits for the plugins started in background. Zero to fail
+     * immediately with a {@link com.biit.plugins.interfaces.exceptions.PluginNotReadyException}.
+     *
+     * @return the timeout in milliseconds.
+     */
+    public long getStartupWaitTimeout() {
+        return startupWaitTimeout;
+    }
+
+    public void setStartupWaitTimeout(long startupWaitTimeout) {
+        this.startupWaitTimeout = startupWaitTimeout;
+    }
+
+    public PluginActivation getActivation() {
+        return activation;
+    }
+
+    public void setActivation(PluginActivation activation) {
+        this.activation = activation;
+    }
+
+    /**
+     * Milliseconds before starting again a plugin that has failed to start, if {@link PluginActivation#LAZY} is used.
+     * The delay is doubled on each consecutive failure, up to {@link #getActivationMaxRetryDelay()}.
+     *
+     * @return the delay in milliseconds.
+     */
+    public long getActivationRetryDelay() {
+        return activationRetryDelay;
+    }
+
+    public void setActivationRetryDelay(long activationRetryDelay) {
+        this.activationRetryDelay = activationRetryDelay;
+    }
+
+    public long getActivationMaxRetryDelay() {
+        return activationMaxRetryDelay;
+    }
+
+    public void setActivationMaxRetryDelay(long activationMaxRetryDelay) {
+        this.activationMaxRetryDelay = activationMaxRetryDelay;
+    }
+
+    /**
+     * Milliseconds without executions before a plugin is unloaded, if {@link PluginActivation#LAZY} is used. Zero to
+     * never unload them.
+     *
+     * @return the timeout in milliseconds.
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * If the executions of each plugin method are counted and timed. See
+     * {@link com.biit.plugins.metrics.PluginMetricsRegistry}.
+     *
+     * @return true by default.
+     */
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+}
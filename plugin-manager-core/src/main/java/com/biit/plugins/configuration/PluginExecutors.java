@@ -0,0 +1,123 @@
+package com.biit.plugins.configuration;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.logger.PluginManagerLogger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors used for the asynchronous executions and the executions with timeout of the plugins.
+ */
+public final class PluginExecutors {
+    private static final String THREADS_PREFIX = "plugin-executor-";
+    private static final String TIMEOUT_THREADS_PREFIX = "plugin-timeout-";
+    private static final long TIMEOUT_THREADS_KEEP_ALIVE_SECONDS = 60;
+
+    private PluginExecutors() {
+    }
+
+    /**
+     * Creates the executor defined on the settings. If {@link AsyncExecutorType#VIRTUAL} is used but the JVM has no
+     * virtual threads, a pool with a fixed number of threads is used instead.
+     *
+     * @param settings the settings of the controller.
+     * @return a new executor.
+     */
+    public static ExecutorService create(PluginControllerSettings settings) {
+        final int poolSize = settings.getAsyncPoolSize() > 0 ? settings.getAsyncPoolSize() : Runtime.getRuntime().availableProcessors();
+        if (settings.getAsyncExecutorType() == AsyncExecutorType.FIXED) {
+            return Executors.newFixedThreadPool(poolSize, createThreadFactory(THREADS_PREFIX));
+        }
+        final ExecutorService executor = getVirtualThreadExecutor();
+        if (executor != null) {
+            return executor;
+        }
+        PluginManagerLogger.warning(PluginExecutors.class.getName(),
+                "Virtual threads not available. Using a pool of '{}' threads for the asynchronous executions.", poolSize);
+        return Executors.newFixedThreadPool(poolSize, createThreadFactory(THREADS_PREFIX));
+    }
+
+    /**
+     * Creates the executor where the executions with timeout are run, separated from the asynchronous executions.
+     * Otherwise, asynchronous executions that call methods with timeout would wait for threads of their own pool, and
+     * a full pool would make all of them time out. A method that ignores the interruption keeps its thread after its
+     * caller has timed out, so the threads are limited to {@link PluginControllerSettings#getTimeoutPoolSize()}, and
+     * no execution is queued: once all of them are busy, new executions are rejected. Virtual threads are used if
+     * available.
+     *
+     * @param settings the settings of the controller.
+     * @return a new executor.
+     */
+    public static ExecutorService createTimeoutExecutor(PluginControllerSettings settings) {
+        final ThreadFactory virtualThreadFactory = getVirtualThreadFactory();
+        return new ThreadPoolExecutor(0, Math.max(1, settings.getTimeoutPoolSize()), TIMEOUT_THREADS_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new SynchronousQueue<>(),
+                virtualThreadFactory != null ? virtualThreadFactory : createThreadFactory(TIMEOUT_THREADS_PREFIX));
+    }
+
+    /**
+     * Executor that starts a virtual thread for each task. Obtained by reflection, as virtual threads are not
+     * available on all the supported versions of Java.
+     *
+     * @return a new executor, or null if the JVM has no virtual threads.
+     */
+    private static ExecutorService getVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Factory of virtual threads. Obtained by reflection, as {@link #getVirtualThreadExecutor()}.
+     *
+     * @return a new factory, or null if the JVM has no virtual threads.
+     */
+    private static ThreadFactory getVirtualThreadFactory() {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Daemon threads, that do not prevent the application from stopping.
+     */
+    private static ThreadFactory createThreadFactory(String threadsPrefix) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, threadsPrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
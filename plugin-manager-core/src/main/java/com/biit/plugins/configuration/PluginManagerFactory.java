@@ -22,13 +22,14 @@ package com.biit.plugins.configuration;
  */
 
 import com.biit.plugins.logger.PluginManagerLogger;
-import org.pf4j.DefaultPluginManager;
+import com.biit.plugins.startup.ParallelPluginManager;
+import com.biit.plugins.startup.ParallelSpringPluginManager;
+import com.biit.plugins.startup.PluginStartupCache;
 import org.pf4j.JarPluginLoader;
 import org.pf4j.ManifestPluginDescriptorFinder;
 import org.pf4j.PluginDescriptorFinder;
 import org.pf4j.PluginLoader;
 import org.pf4j.PluginManager;
-import org.pf4j.spring.SpringPluginManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,6 +39,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Configuration
@@ -50,20 +52,98 @@ public class PluginManagerFactory {
         this.pluginsLocations = pluginsLocations;
     }
 
+    /**
+     * Plugin manager that loads and starts the plugins in parallel.
+     *
+     * @param startupParallelism maximum number of plugins started at the same time. Zero for one thread for each
+     *                           processor.
+     * @param startupCacheFile   file where the descriptors and extensions of the jars are cached between startups.
+     *                           Empty for no cache.
+     * @return the plugin manager.
+     */
+    @Bean
+    public PluginManager pluginManager(@Value("${plugins.startup.parallelism:0}") int startupParallelism,
+                                       @Value("${plugins.startup.cache-file:}") String startupCacheFile) {
+        return getSpringBootPluginManager(startupParallelism, startupCacheFile);
+    }
+
     @Bean
-    public PluginManager pluginManager() {
-        return getSpringBootPluginManager();
+    public PluginControllerSettings pluginControllerSettings(@Value("${plugins.extensions.scope:prototype}") String extensionScope,
+                                                             @Value("${plugins.async.executor:virtual}") String asyncExecutorType,
+                                                             @Value("${plugins.async.pool-size:0}") int asyncPoolSize,
+                                                             @Value("${plugins.async.timeout-pool-size:256}") int timeoutPoolSize,
+                                                             @Value("${plugins.hot-reload.enabled:false}") boolean hotReload,
+                                                             @Value("${plugins.hot-reload.delay:1000}") long hotReloadDelay,
+                                                             @Value("${plugins.drain.timeout:10000}") long drainTimeout,
+                                                             @Value("${plugins.startup.async:false}") boolean asyncStartup,
+                                                             @Value("${plugins.startup.wait-timeout:0}") long startupWaitTimeout,
+                                                             @Value("${plugins.activation:eager}") String activation,
+                                                             @Value("${plugins.activation-retry.delay:1000}") long activationRetryDelay,
+                                                             @Value("${plugins.activation-retry.max-delay:60000}") long activationMaxRetryDelay,
+                                                             @Value("${plugins.passivation.idle-timeout:0}") long idleTimeout,
+                                                             @Value("${plugins.metrics.enabled:true}") boolean metricsEnabled) {
+        final PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setExtensionScope(getExtensionScope(extensionScope));
+        settings.setAsyncExecutorType(getAsyncExecutorType(asyncExecutorType));
+        settings.setAsyncPoolSize(asyncPoolSize);
+        settings.setTimeoutPoolSize(timeoutPoolSize);
+        settings.setHotReload(hotReload);
+        settings.setHotReloadDelay(hotReloadDelay);
+        settings.setDrainTimeout(drainTimeout);
+        settings.setAsyncStartup(asyncStartup);
+        settings.setStartupWaitTimeout(startupWaitTimeout);
+        settings.setActivation(getActivation(activation));
+        settings.setActivationRetryDelay(activationRetryDelay);
+        settings.setActivationMaxRetryDelay(activationMaxRetryDelay);
+        settings.setIdleTimeout(idleTimeout);
+        settings.setMetricsEnabled(metricsEnabled);
+        return settings;
+    }
+
+    private ExtensionScope getExtensionScope(String extensionScope) {
+        try {
+            return ExtensionScope.valueOf(extensionScope.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            PluginManagerLogger.warning(this.getClass().getName(),
+                    "Invalid extension scope '{}'. Using '{}'.", extensionScope, ExtensionScope.PROTOTYPE);
+            return ExtensionScope.PROTOTYPE;
+        }
+    }
+
+    private AsyncExecutorType getAsyncExecutorType(String asyncExecutorType) {
+        try {
+            return AsyncExecutorType.valueOf(asyncExecutorType.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            PluginManagerLogger.warning(this.getClass().getName(),
+                    "Invalid executor type '{}'. Using '{}'.", asyncExecutorType, AsyncExecutorType.VIRTUAL);
+            return AsyncExecutorType.VIRTUAL;
+        }
     }
 
-    private PluginManager getSpringBootPluginManager() {
+    private PluginActivation getActivation(String activation) {
+        try {
+            return PluginActivation.valueOf(activation.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            PluginManagerLogger.warning(this.getClass().getName(),
+                    "Invalid plugin activation '{}'. Using '{}'.", activation, PluginActivation.EAGER);
+            return PluginActivation.EAGER;
+        }
+    }
+
+    private PluginManager getSpringBootPluginManager(int startupParallelism, String startupCacheFile) {
         //Default configuration from application.properties.
         final Set<String> pluginsPaths = new HashSet<>(Arrays.asList(pluginsLocations));
         //Getting from system environment.
         addSystemVariablePath(pluginsPaths);
-        PluginManagerLogger.debug(this.getClass().getName(), "Scanning folder '" + pluginsPaths + "' for plugins.");
+        PluginManagerLogger.debug(this.getClass().getName(), "Scanning folder '{}' for plugins.", pluginsPaths);
         System.setProperty("pf4j.pluginsDir", String.join(",", pluginsPaths));
-        final PluginManager pluginManager = new SpringPluginManager();
-        PluginManagerLogger.info(this.getClass().getName(), "Folders for searching are '" + pluginManager.getPluginsRoots() + "'.");
+        final ParallelSpringPluginManager pluginManager = new ParallelSpringPluginManager(startupParallelism);
+        if (startupCacheFile != null && !startupCacheFile.isBlank()) {
+            PluginManagerLogger.info(this.getClass().getName(), "Using startup cache '{}'.", startupCacheFile);
+            pluginManager.setStartupCache(new PluginStartupCache(Paths.get(startupCacheFile.trim())));
+        }
+        PluginManagerLogger.info(this.getClass().getName(),
+                "Folders for searching are '{}'.", pluginManager.getPluginsRoots());
         return pluginManager;
     }
 
@@ -72,13 +152,13 @@ public class PluginManagerFactory {
      *
      * @return
      */
-    private PluginManager getDefaultPluginManager() {
+    private PluginManager getDefaultPluginManager(int startupParallelism) {
         // create the plugin manager
         final Set<String> pluginsPaths = new HashSet<>(Arrays.asList(pluginsLocations));
         addSystemVariablePath(pluginsPaths);
-        PluginManagerLogger.debug(this.getClass().getName(), "Scanning folders '" + pluginsPaths + "' for plugins.");
+        PluginManagerLogger.debug(this.getClass().getName(), "Scanning folders '{}' for plugins.", pluginsPaths);
         final Path[] paths = pluginsPaths.stream().map(Paths::get).toArray(Path[]::new);
-        final PluginManager pluginManager = new DefaultPluginManager(paths) {
+        final PluginManager pluginManager = new ParallelPluginManager(startupParallelism, paths) {
 
             @Override
             protected PluginLoader createPluginLoader() {
@@ -96,9 +176,9 @@ public class PluginManagerFactory {
         // start and load all plugins of application
         pluginManager.loadPlugins();
         pluginManager.startPlugins();
-        PluginManagerLogger.debug(this.getClass().getName(), "Plugins found '" + pluginManager.getPlugins() + "'.");
-        PluginManagerLogger.debug(this.getClass().getName(), "Resolved Plugins '" + pluginManager.getResolvedPlugins() + "'.");
-        PluginManagerLogger.debug(this.getClass().getName(), "Started plugins '" + pluginManager.getStartedPlugins() + "'.");
+        PluginManagerLogger.debug(this.getClass().getName(), "Plugins found '{}'.", pluginManager.getPlugins());
+        PluginManagerLogger.debug(this.getClass().getName(), "Resolved Plugins '{}'.", pluginManager.getResolvedPlugins());
+        PluginManagerLogger.debug(this.getClass().getName(), "Started plugins '{}'.", pluginManager.getStartedPlugins());
 
         return pluginManager;
     }
@@ -106,24 +186,23 @@ public class PluginManagerFactory {
     private void addSystemVariablePath(Set<String> pluginsPaths) {
         final String systemVariable = System.getenv(SYSTEM_VARIABLE_PLUGINS_FOLDER);
         if (systemVariable != null) {
-            PluginManagerLogger.debug(this.getClass().getName(), "Env variable '" + SYSTEM_VARIABLE_PLUGINS_FOLDER
-                    + "' set as '" + systemVariable + "'.");
+            PluginManagerLogger.debug(this.getClass().getName(),
+                    "Env variable '{}' set as '{}'.", SYSTEM_VARIABLE_PLUGINS_FOLDER, systemVariable);
             final String[] paths = systemVariable.split(",");
             for (String path : paths) {
                 final Path folder = Paths.get(path);
                 if (Files.isDirectory(folder)) {
-                    PluginManagerLogger.info(this.getClass().getName(), "Directory '"
-                            + folder + "' obtained from env variable '" + SYSTEM_VARIABLE_PLUGINS_FOLDER
-                            + "' added as plugin folder!");
+                    PluginManagerLogger.info(this.getClass().getName(),
+                            "Directory '{}' obtained from env variable '{}' added as plugin folder!", folder, SYSTEM_VARIABLE_PLUGINS_FOLDER);
                     pluginsPaths.add(folder.toString());
                 } else {
-                    PluginManagerLogger.warning(this.getClass().getName(), "Directory '"
-                            + folder.toString() + "' defined on env variable '" + SYSTEM_VARIABLE_PLUGINS_FOLDER + "' is invalid.");
+                    PluginManagerLogger.warning(this.getClass().getName(),
+                            "Directory '{}' defined on env variable '{}' is invalid.", folder, SYSTEM_VARIABLE_PLUGINS_FOLDER);
                 }
             }
         } else {
-            PluginManagerLogger.debug(this.getClass().getName(), "No system variable found for plugins directory '"
-                    + SYSTEM_VARIABLE_PLUGINS_FOLDER + "'.");
+            PluginManagerLogger.debug(this.getClass().getName(),
+                    "No system variable found for plugins directory '{}'.", SYSTEM_VARIABLE_PLUGINS_FOLDER);
         }
     }
 }
@@ -0,0 +1,116 @@
+package com.biit.plugins.context;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.logger.PluginManagerLogger;
+import org.pf4j.PluginWrapper;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the application context of a Spring plugin. The context uses the class loader of the plugin, and has the
+ * {@link PluginParentContext} of its plugin manager as parent, so it only contains the beans of the plugin, and the
+ * common ones are obtained from the parent.
+ * <pre>
+ * PluginContextBuilder.forPlugin(getWrapper()).register(MyPluginConfiguration.class).build();
+ * </pre>
+ */
+public final class PluginContextBuilder {
+    private static final String CONTEXT_ID_PREFIX = "plugin-";
+
+    private final PluginWrapper pluginWrapper;
+    private final List<Class<?>> componentClasses = new ArrayList<>();
+    private final List<String> basePackages = new ArrayList<>();
+    private ApplicationContext parent;
+
+    private PluginContextBuilder(PluginWrapper pluginWrapper) {
+        this.pluginWrapper = pluginWrapper;
+        this.parent = PluginParentContext.get(pluginWrapper.getPluginManager());
+    }
+
+    public static PluginContextBuilder forPlugin(PluginWrapper pluginWrapper) {
+        return new PluginContextBuilder(pluginWrapper);
+    }
+
+    /**
+     * Adds configuration or component classes of the plugin.
+     *
+     * @param classes the classes.
+     * @return this builder.
+     */
+    public PluginContextBuilder register(Class<?>... classes) {
+        componentClasses.addAll(Arrays.asList(classes));
+        return this;
+    }
+
+    /**
+     * Adds packages of the plugin where the components are searched. Registering the classes is faster.
+     *
+     * @param packages the packages.
+     * @return this builder.
+     */
+    public PluginContextBuilder scan(String... packages) {
+        basePackages.addAll(Arrays.asList(packages));
+        return this;
+    }
+
+    /**
+     * Replaces the parent of the context. By default, the {@link PluginParentContext} of the plugin manager.
+     *
+     * @param parentContext the parent, or null for none.
+     * @return this builder.
+     */
+    public PluginContextBuilder parent(ApplicationContext parentContext) {
+        this.parent = parentContext;
+        return this;
+    }
+
+    /**
+     * Creates and refreshes the context.
+     *
+     * @return the context.
+     */
+    public AnnotationConfigApplicationContext build() {
+        final long start = System.nanoTime();
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setId(CONTEXT_ID_PREFIX + pluginWrapper.getPluginId());
+        context.setClassLoader(pluginWrapper.getPluginClassLoader());
+        if (parent != null) {
+            context.setParent(parent);
+        }
+        if (!componentClasses.isEmpty()) {
+            context.register(componentClasses.toArray(new Class<?>[0]));
+        }
+        if (!basePackages.isEmpty()) {
+            context.scan(basePackages.toArray(new String[0]));
+        }
+        context.refresh();
+        PluginManagerLogger.debug(this.getClass().getName(), "Context of plugin '{}' refreshed in '{}' ms.", pluginWrapper.getPluginId(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return context;
+    }
+}
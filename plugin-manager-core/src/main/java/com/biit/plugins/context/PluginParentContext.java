@@ -0,0 +1,100 @@
+package com.biit.plugins.context;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.configuration.PluginConfigurationReader;
+import com.biit.plugins.logger.PluginManagerLogger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.pf4j.PluginManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Application context shared as parent by the contexts of all the Spring plugins. It has the infrastructure that all
+ * the plugins need, so each plugin context only defines its own beans: the {@link ObjectMapper}, the
+ * {@link PluginConfigurationReader} and the {@link Executor} of the asynchronous executions. It is created by
+ * {@link com.biit.plugins.PluginController} before starting the plugins and kept by the plugin manager, if it is a
+ * {@link PluginParentContextAware}. It is exposed only as a read-only {@link ApplicationContext}.
+ */
+public final class PluginParentContext {
+    public static final String OBJECT_MAPPER_BEAN = "objectMapper";
+    public static final String CONFIGURATION_READER_BEAN = "pluginConfigurationReader";
+    public static final String EXECUTOR_BEAN = "pluginExecutor";
+    private static final String CONTEXT_ID = "plugins-parent";
+
+    private PluginParentContext() {
+    }
+
+    /**
+     * Creates a new parent context with the beans of the host. The beans are not closed with the context.
+     *
+     * @param objectMapper              the mapper of the host. If null, a new one is used.
+     * @param pluginConfigurationReader the configuration of the plugins. Can be null.
+     * @param executor                  the executor of the asynchronous executions. Can be null.
+     * @return the context already refreshed.
+     */
+    public static ApplicationContext create(ObjectMapper objectMapper, PluginConfigurationReader pluginConfigurationReader,
+                                            Executor executor) {
+        final GenericApplicationContext context = new GenericApplicationContext();
+        context.setId(CONTEXT_ID);
+        final ObjectMapper mapper = objectMapper != null ? objectMapper : new ObjectMapper();
+        context.registerBean(OBJECT_MAPPER_BEAN, ObjectMapper.class, () -> mapper);
+        if (pluginConfigurationReader != null) {
+            context.registerBean(CONFIGURATION_READER_BEAN, PluginConfigurationReader.class, () -> pluginConfigurationReader);
+        }
+        if (executor != null) {
+            context.registerBean(EXECUTOR_BEAN, Executor.class, () -> executor);
+        }
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * Gets the context used as parent by {@link PluginContextBuilder}.
+     *
+     * @param pluginManager the plugin manager of the plugin.
+     * @return the context, or null if the plugin manager does not keep one.
+     */
+    public static ApplicationContext get(PluginManager pluginManager) {
+        if (pluginManager instanceof PluginParentContextAware) {
+            return ((PluginParentContextAware) pluginManager).getParentContext();
+        }
+        return null;
+    }
+
+    /**
+     * Sets the parent context of the plugins of a plugin manager.
+     *
+     * @param pluginManager the plugin manager.
+     * @param parentContext the context.
+     */
+    public static void set(PluginManager pluginManager, ApplicationContext parentContext) {
+        if (pluginManager instanceof PluginParentContextAware) {
+            ((PluginParentContextAware) pluginManager).setParentContext(parentContext);
+        } else {
+            PluginManagerLogger.debug(PluginParentContext.class.getName(),
+                    "Plugin manager '{}' does not keep a parent context.", pluginManager.getClass().getName());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.biit.plugins.context;
+
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Plugin manager that keeps the {@link PluginParentContext} of its plugins, so each manager has its own parent and the
+ * plugins find it through their {@link org.pf4j.PluginWrapper}.
+ */
+public interface PluginParentContextAware {
+
+    /**
+     * @return the parent of the contexts of the Spring plugins, or null if not set.
+     */
+    ApplicationContext getParentContext();
+
+    void setParentContext(ApplicationContext parentContext);
+}
@@ -0,0 +1,56 @@
+package com.biit.plugins.context;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.pf4j.PluginWrapper;
+import org.pf4j.spring.SpringPlugin;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Spring plugin whose context is a child of the {@link PluginParentContext} of its plugin manager. The context is
+ * refreshed when the plugin starts, instead of when its first extension is created, so the contexts of the plugins are
+ * refreshed in parallel by {@link com.biit.plugins.startup.ParallelPluginStartup}.
+ */
+public abstract class SharedContextSpringPlugin extends SpringPlugin {
+
+    protected SharedContextSpringPlugin(PluginWrapper wrapper) {
+        super(wrapper);
+    }
+
+    @Override
+    public void start() {
+        getApplicationContext();
+    }
+
+    @Override
+    protected ApplicationContext createApplicationContext() {
+        return configureContext(PluginContextBuilder.forPlugin(getWrapper())).build();
+    }
+
+    /**
+     * Defines the beans of the plugin.
+     *
+     * @param contextBuilder a builder for the context of this plugin.
+     * @return the builder with the configuration classes or packages of the plugin.
+     */
+    protected abstract PluginContextBuilder configureContext(PluginContextBuilder contextBuilder);
+}
@@ -0,0 +1,102 @@
+package com.biit.plugins.execution;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.exceptions.BulkheadFullException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of concurrent executions on a plugin or a plugin method. If the limit is reached, the execution
+ * waits up to the maximum time defined, or is rejected immediately if no time is defined.
+ */
+public final class Bulkhead {
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitMillis;
+    private final Semaphore semaphore;
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrentCalls, long maxWaitMillis) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitMillis = maxWaitMillis;
+        this.semaphore = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Takes a place for an execution.
+     *
+     * @throws BulkheadFullException if no place is free after the maximum wait.
+     */
+    public void acquire() throws BulkheadFullException {
+        boolean acquired;
+        if (maxWaitMillis > 0) {
+            try {
+                acquired = semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+        } else {
+            acquired = semaphore.tryAcquire();
+        }
+        if (!acquired) {
+            rejectedCalls.increment();
+            throw new BulkheadFullException("Maximum of '" + maxConcurrentCalls + "' concurrent executions reached on '" + name + "'.");
+        }
+    }
+
+    /**
+     * Frees the place taken by {@link #acquire()}.
+     */
+    public void release() {
+        semaphore.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public int getAvailableCalls() {
+        return semaphore.availablePermits();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + maxConcurrentCalls + ")";
+    }
+}
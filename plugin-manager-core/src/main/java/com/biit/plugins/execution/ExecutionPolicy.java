@@ -0,0 +1,162 @@
+package com.biit.plugins.execution;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.exceptions.BulkheadFullException;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.MethodTimeoutException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Restrictions applied when executing a method of a plugin. The bulkhead of the plugin is shared by all its methods,
+ * and each method can have its own one. If a timeout is defined, the method is executed on another thread, and is
+ * cancelled if it does not finish on time.
+ */
+public final class ExecutionPolicy {
+    public static final ExecutionPolicy UNRESTRICTED = new ExecutionPolicy(null, null);
+
+    private final String name;
+    private final Bulkhead pluginBulkhead;
+    private final Bulkhead methodBulkhead;
+    private final long timeoutMillis;
+    private final Executor executor;
+    private final LongAdder timedOutCalls = new LongAdder();
+
+    public ExecutionPolicy(Bulkhead pluginBulkhead, Bulkhead methodBulkhead) {
+        this(null, pluginBulkhead, methodBulkhead, 0, null);
+    }
+
+    /**
+     * @param name           the plugin and method, used on the messages.
+     * @param pluginBulkhead the bulkhead shared by all the methods of the plugin, or null.
+     * @param methodBulkhead the bulkhead of the method, or null.
+     * @param timeoutMillis  maximum time of an execution, or zero if there is no limit.
+     * @param executor       where the executions with timeout are run.
+     */
+    public ExecutionPolicy(String name, Bulkhead pluginBulkhead, Bulkhead methodBulkhead, long timeoutMillis, Executor executor) {
+        this.name = name;
+        this.pluginBulkhead = pluginBulkhead;
+        this.methodBulkhead = methodBulkhead;
+        this.timeoutMillis = executor != null ? timeoutMillis : 0;
+        this.executor = executor;
+    }
+
+    /**
+     * If no restriction is defined, the method can be executed directly.
+     *
+     * @return true if {@link #execute(PluginCall)} does nothing else than executing the call.
+     */
+    public boolean isUnrestricted() {
+        return pluginBulkhead == null && methodBulkhead == null && timeoutMillis <= 0;
+    }
+
+    public Bulkhead getPluginBulkhead() {
+        return pluginBulkhead;
+    }
+
+    public Bulkhead getMethodBulkhead() {
+        return methodBulkhead;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public long getTimedOutCalls() {
+        return timedOutCalls.sum();
+    }
+
+    /**
+     * Executes the call applying the restrictions.
+     *
+     * @param call the execution of the method.
+     * @return the result of the call.
+     * @throws BulkheadFullException    if too many executions are running, or all the threads for the executions
+     *                                   with timeout are busy.
+     * @throws MethodTimeoutException    if the call does not finish on time.
+     * @throws MethodInvocationException if the call fails.
+     */
+    public <R> R execute(PluginCall<R> call) throws MethodInvocationException {
+        if (timeoutMillis <= 0) {
+            return executeOnBulkheads(call);
+        }
+        //The bulkheads are released when the execution really ends, even if the caller is not waiting anymore.
+        final FutureTask<R> task = new FutureTask<>(() -> executeOnBulkheads(call));
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            //All the threads are busy, probably with executions that have timed out but do not stop.
+            throw new BulkheadFullException("Execution of '" + name + "' cannot be started. Too many executions with timeout running.");
+        }
+        try {
+            return task.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            timedOutCalls.increment();
+            throw new MethodTimeoutException("Execution of '" + name + "' has not finished in '" + timeoutMillis + "' ms.");
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MethodInvocationException("Interrupted while waiting for the execution of '" + name + "'.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MethodInvocationException) {
+                throw (MethodInvocationException) e.getCause();
+            }
+            throw new MethodInvocationException("Exception on the execution of '" + name + "'.", e.getCause());
+        }
+    }
+
+    private <R> R executeOnBulkheads(PluginCall<R> call) throws MethodInvocationException {
+        //The method first, so executions waiting for a method do not take the places of the other methods.
+        if (methodBulkhead != null) {
+            methodBulkhead.acquire();
+        }
+        try {
+            if (pluginBulkhead != null) {
+                pluginBulkhead.acquire();
+            }
+            try {
+                return call.call();
+            } finally {
+                if (pluginBulkhead != null) {
+                    pluginBulkhead.release();
+                }
+            }
+        } finally {
+            if (methodBulkhead != null) {
+                methodBulkhead.release();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
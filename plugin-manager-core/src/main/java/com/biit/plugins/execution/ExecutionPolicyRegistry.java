@@ -0,0 +1,288 @@
+package com.biit.plugins.execution;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.configuration.PluginConfigurationReader;
+import com.biit.plugins.logger.PluginManagerLogger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the {@link ExecutionPolicy} of each plugin method from the plugins' configuration, and keeps it for the
+ * next executions until the configuration is refreshed. The settings are:
+ * <ul>
+ *     <li>{@code plugins.<plugin>.bulkhead.max-concurrent-calls}: concurrent executions allowed on all the methods of
+ *     the plugin.</li>
+ *     <li>{@code plugins.<plugin>.<method>.bulkhead.max-concurrent-calls}: concurrent executions allowed on the
+ *     method.</li>
+ *     <li>{@code plugins.<plugin>.bulkhead.max-wait} and {@code plugins.<plugin>.<method>.bulkhead.max-wait}:
+ *     milliseconds that an execution waits if the limit is reached. By default, it is rejected immediately.</li>
+ *     <li>{@code plugins.<plugin>.timeout} and {@code plugins.<plugin>.<method>.timeout}: milliseconds that an
+ *     execution can last. The value of the method has priority over the value of the plugin.</li>
+ * </ul>
+ */
+public class ExecutionPolicyRegistry {
+    private static final String PROPERTIES_PREFIX = "plugins.";
+    private static final String MAX_CONCURRENT_CALLS = ".bulkhead.max-concurrent-calls";
+    private static final String MAX_WAIT = ".bulkhead.max-wait";
+    private static final String TIMEOUT = ".timeout";
+    //Limit of methods with their own policy for each plugin, as the names come from the callers.
+    private static final int MAX_METHODS = 1000;
+
+    private final PluginConfigurationReader configurationReader;
+    private final Executor executor;
+    private final Map<String, PluginPolicies> policies = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Runnable refreshListener = this::clear;
+
+    /**
+     * @param configurationReader where the settings are read. If null, no restriction is applied.
+     * @param executor            where the executions with timeout are run.
+     */
+    public ExecutionPolicyRegistry(PluginConfigurationReader configurationReader, Executor executor) {
+        this.configurationReader = configurationReader;
+        this.executor = executor;
+        if (configurationReader != null) {
+            //New settings are used by the next executions.
+            configurationReader.addRefreshListener(refreshListener);
+        }
+    }
+
+    /**
+     * Stops following the changes of the settings.
+     */
+    public void close() {
+        if (configurationReader != null) {
+            configurationReader.removeRefreshListener(refreshListener);
+        }
+    }
+
+    /**
+     * Discards all the policies, that are created again from the current settings. The executions already running
+     * release the places of the old bulkheads, and the counters of the old policies are lost.
+     */
+    public void clear() {
+        policies.clear();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Changed each time the policies are discarded.
+     *
+     * @return the number of times that the policies have been discarded.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Gets the policy for executing a method.
+     *
+     * @param pluginName the name of the plugin.
+     * @param methodName the name of the method.
+     * @return the policy, never null.
+     */
+    public ExecutionPolicy get(String pluginName, String methodName) {
+        if (configurationReader == null || pluginName == null || methodName == null) {
+            return ExecutionPolicy.UNRESTRICTED;
+        }
+        PluginPolicies pluginPolicies = policies.get(pluginName);
+        if (pluginPolicies == null) {
+            pluginPolicies = policies.computeIfAbsent(pluginName, PluginPolicies::new);
+        }
+        return pluginPolicies.get(methodName);
+    }
+
+    /**
+     * Number of executions rejected on the plugin, by any of its bulkheads.
+     *
+     * @param pluginName the name of the plugin.
+     * @return the number of executions rejected.
+     */
+    public long getRejectedCalls(String pluginName) {
+        final PluginPolicies pluginPolicies = policies.get(pluginName);
+        if (pluginPolicies == null) {
+            return 0;
+        }
+        long rejectedCalls = pluginPolicies.pluginBulkhead != null ? pluginPolicies.pluginBulkhead.getRejectedCalls() : 0;
+        for (ExecutionPolicy policy : pluginPolicies.methods.values()) {
+            if (policy.getMethodBulkhead() != null) {
+                rejectedCalls += policy.getMethodBulkhead().getRejectedCalls();
+            }
+        }
+        return rejectedCalls;
+    }
+
+    /**
+     * Number of executions of a method rejected by its own bulkhead.
+     *
+     * @param pluginName the name of the plugin.
+     * @param methodName the name of the method.
+     * @return the number of executions rejected.
+     */
+    public long getRejectedCalls(String pluginName, String methodName) {
+        final PluginPolicies pluginPolicies = policies.get(pluginName);
+        if (pluginPolicies == null) {
+            return 0;
+        }
+        final ExecutionPolicy policy = pluginPolicies.methods.get(methodName);
+        if (policy == null || policy.getMethodBulkhead() == null) {
+            return 0;
+        }
+        return policy.getMethodBulkhead().getRejectedCalls();
+    }
+
+    /**
+     * Number of executions cancelled on the plugin because they have not finished on time.
+     *
+     * @param pluginName the name of the plugin.
+     * @return the number of executions cancelled on any method of the plugin.
+     */
+    public long getTimedOutCalls(String pluginName) {
+        final PluginPolicies pluginPolicies = policies.get(pluginName);
+        if (pluginPolicies == null) {
+            return 0;
+        }
+        long timedOutCalls = pluginPolicies.defaultPolicy.getTimedOutCalls();
+        for (ExecutionPolicy policy : pluginPolicies.methods.values()) {
+            timedOutCalls += policy.getTimedOutCalls();
+        }
+        return timedOutCalls;
+    }
+
+    /**
+     * Number of executions of a method cancelled because they have not finished on time.
+     *
+     * @param pluginName the name of the plugin.
+     * @param methodName the name of the method.
+     * @return the number of executions cancelled.
+     */
+    public long getTimedOutCalls(String pluginName, String methodName) {
+        final PluginPolicies pluginPolicies = policies.get(pluginName);
+        if (pluginPolicies == null) {
+            return 0;
+        }
+        final ExecutionPolicy policy = pluginPolicies.methods.get(methodName);
+        return policy != null ? policy.getTimedOutCalls() : 0;
+    }
+
+    /**
+     * All the bulkheads created, by name.
+     *
+     * @return the bulkheads of the plugins and the methods.
+     */
+    public Map<String, Bulkhead> getBulkheads() {
+        final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+        for (PluginPolicies pluginPolicies : policies.values()) {
+            if (pluginPolicies.pluginBulkhead != null) {
+                bulkheads.put(pluginPolicies.pluginBulkhead.getName(), pluginPolicies.pluginBulkhead);
+            }
+            for (ExecutionPolicy policy : pluginPolicies.methods.values()) {
+                if (policy.getMethodBulkhead() != null) {
+                    bulkheads.put(policy.getMethodBulkhead().getName(), policy.getMethodBulkhead());
+                }
+            }
+        }
+        return bulkheads;
+    }
+
+    private Bulkhead createBulkhead(String name) {
+        final Integer maxConcurrentCalls = getNumber(PROPERTIES_PREFIX + name + MAX_CONCURRENT_CALLS);
+        if (maxConcurrentCalls == null || maxConcurrentCalls <= 0) {
+            return null;
+        }
+        final Integer maxWait = getNumber(PROPERTIES_PREFIX + name + MAX_WAIT);
+        PluginManagerLogger.info(this.getClass().getName(),
+                "Bulkhead of '{}' concurrent executions defined for '{}'.", maxConcurrentCalls, name);
+        return new Bulkhead(name, maxConcurrentCalls, maxWait != null ? maxWait : 0);
+    }
+
+    private Integer getNumber(String property) {
+        final String value = configurationReader.getPropertyValue(property);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            PluginManagerLogger.warning(this.getClass().getName(), "Invalid value '{}' for property '{}'.", value, property);
+            return null;
+        }
+    }
+
+    /**
+     * Policies of the methods of one plugin, sharing the bulkhead of the plugin. Only {@link #MAX_METHODS} methods
+     * have their own policy. The next ones use only the settings of the plugin.
+     */
+    private final class PluginPolicies {
+        private final String pluginName;
+        private final Bulkhead pluginBulkhead;
+        private final Integer pluginTimeout;
+        private final ExecutionPolicy defaultPolicy;
+        private final Map<String, ExecutionPolicy> methods = new ConcurrentHashMap<>();
+        private volatile boolean limitReached;
+
+        private PluginPolicies(String pluginName) {
+            this.pluginName = pluginName;
+            this.pluginBulkhead = createBulkhead(pluginName);
+            this.pluginTimeout = getNumber(PROPERTIES_PREFIX + pluginName + TIMEOUT);
+            final int timeout = pluginTimeout != null ? pluginTimeout : 0;
+            this.defaultPolicy = pluginBulkhead == null && timeout <= 0 ? ExecutionPolicy.UNRESTRICTED
+                    : new ExecutionPolicy(pluginName, pluginBulkhead, null, timeout, executor);
+        }
+
+        private ExecutionPolicy get(String methodName) {
+            final ExecutionPolicy policy = methods.get(methodName);
+            if (policy != null) {
+                return policy;
+            }
+            if (methods.size() >= MAX_METHODS) {
+                if (!limitReached) {
+                    limitReached = true;
+                    PluginManagerLogger.warning(this.getClass().getName(),
+                            "Policies of '{}' methods created for plugin '{}'. Next methods use only the settings of the plugin.",
+                            MAX_METHODS, pluginName);
+                }
+                return defaultPolicy;
+            }
+            return methods.computeIfAbsent(methodName, this::createPolicy);
+        }
+
+        private ExecutionPolicy createPolicy(String methodName) {
+            final String name = pluginName + "." + methodName;
+            final Bulkhead methodBulkhead = createBulkhead(name);
+            final Integer methodTimeout = getNumber(PROPERTIES_PREFIX + name + TIMEOUT);
+            final int timeout = methodTimeout != null ? methodTimeout : (pluginTimeout != null ? pluginTimeout : 0);
+            if (pluginBulkhead == null && methodBulkhead == null && timeout <= 0) {
+                return ExecutionPolicy.UNRESTRICTED;
+            }
+            if (timeout > 0) {
+                PluginManagerLogger.info(this.getClass().getName(), "Timeout of '{}' ms defined for '{}'.", timeout, name);
+            }
+            return new ExecutionPolicy(name, pluginBulkhead, methodBulkhead, timeout, executor);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.biit.plugins.execution;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.IPlugin;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.PluginUnavailableException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Number of executions running on a plugin. Before stopping the plugin, it is closed for new executions, and the
+ * running ones are given some time to finish.
+ */
+public final class InFlightCalls {
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile boolean closed;
+    //Set by each execution, and cleared by the idle checks.
+    private volatile boolean used;
+
+    /**
+     * Registers a new execution, that must call {@link #exit()} when it finishes.
+     *
+     * @return false if the plugin is being stopped and the execution must not start.
+     */
+    public boolean tryEnter() {
+        calls.incrementAndGet();
+        markUsed();
+        if (closed) {
+            exit();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Registers a new execution, that must call {@link #exit()} when it finishes.
+     *
+     * @param plugin the plugin executed.
+     * @throws PluginUnavailableException if the plugin is being stopped.
+     */
+    public void enter(IPlugin plugin) throws PluginUnavailableException {
+        if (!tryEnter()) {
+            throw new PluginUnavailableException("Plugin '" + plugin.getPluginName() + "' is being stopped.");
+        }
+    }
+
+    /**
+     * Executes a call counted as running on the plugin. When it is run under an {@link ExecutionPolicy} with timeout,
+     * it must be the call given to the policy, so the execution is counted until the method really ends, even if
+     * the caller has stopped waiting for it.
+     *
+     * @param plugin the plugin executed.
+     * @param call   the execution of the method.
+     * @return the result of the call.
+     * @throws PluginUnavailableException if the plugin is being stopped.
+     * @throws MethodInvocationException  if the call fails.
+     */
+    public <R> R execute(IPlugin plugin, PluginCall<R> call) throws MethodInvocationException {
+        enter(plugin);
+        try {
+            return call.call();
+        } finally {
+            exit();
+        }
+    }
+
+    public void exit() {
+        if (calls.decrementAndGet() == 0 && closed) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    public int getCount() {
+        return calls.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Records that the plugin is being used. Only written if not already set, so frequent executions do not write it.
+     */
+    public void markUsed() {
+        if (!used) {
+            used = true;
+        }
+    }
+
+    /**
+     * Whether any execution has entered since the last {@link #resetUsed()}.
+     *
+     * @return true if used.
+     */
+    public boolean isUsed() {
+        return used;
+    }
+
+    /**
+     * Clears the usage flag.
+     *
+     * @return true if the plugin has been used since the last reset.
+     */
+    public boolean resetUsed() {
+        if (!used) {
+            return false;
+        }
+        used = false;
+        return true;
+    }
+
+    /**
+     * Rejects any new execution and waits until the running ones finish.
+     *
+     * @param timeoutMillis maximum time waiting.
+     * @return true if no execution is running, false if the time has finished before.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public synchronized boolean drain(long timeoutMillis) throws InterruptedException {
+        closed = true;
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (calls.get() > 0) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package com.biit.plugins.execution;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.IPlugin;
+import com.biit.plugins.interfaces.exceptions.PluginUnavailableException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Executions running on each plugin. The plugins are identified by their class loader, so all the extensions of a
+ * plugin share the same counter, and a reloaded plugin has a new one.
+ */
+public class InFlightCallsRegistry {
+    private final Map<ClassLoader, InFlightCalls> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the executions running on the plugin of an extension.
+     *
+     * @param plugin the extension.
+     * @return the counter of its plugin.
+     */
+    public InFlightCalls get(IPlugin plugin) {
+        return get(plugin.getClass().getClassLoader());
+    }
+
+    /**
+     * Gets the executions running on a plugin.
+     *
+     * @param classLoader the class loader of the plugin.
+     * @return the counter of the plugin.
+     */
+    public InFlightCalls get(ClassLoader classLoader) {
+        final InFlightCalls pluginCalls = calls.get(classLoader);
+        if (pluginCalls != null) {
+            return pluginCalls;
+        }
+        return calls.computeIfAbsent(classLoader, key -> new InFlightCalls());
+    }
+
+    /**
+     * Registers a new execution on a plugin.
+     *
+     * @param plugin the extension executed.
+     * @return the counter where {@link InFlightCalls#exit()} must be called when the execution finishes.
+     * @throws PluginUnavailableException if the plugin is being stopped.
+     */
+    public InFlightCalls enter(IPlugin plugin) throws PluginUnavailableException {
+        final InFlightCalls pluginCalls = get(plugin);
+        pluginCalls.enter(plugin);
+        return pluginCalls;
+    }
+
+    /**
+     * Rejects new executions on a plugin and waits until the running ones finish.
+     *
+     * @param pluginClassLoader the class loader of the plugin.
+     * @param timeoutMillis     maximum time waiting.
+     * @return true if no execution is running, false if the time has finished before.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean drain(ClassLoader pluginClassLoader, long timeoutMillis) throws InterruptedException {
+        return calls.computeIfAbsent(pluginClassLoader, key -> new InFlightCalls()).drain(timeoutMillis);
+    }
+
+    /**
+     * Number of executions running on a plugin.
+     *
+     * @param pluginClassLoader the class loader of the plugin.
+     * @return the number of executions.
+     */
+    public int getCount(ClassLoader pluginClassLoader) {
+        final InFlightCalls pluginCalls = calls.get(pluginClassLoader);
+        return pluginCalls != null ? pluginCalls.getCount() : 0;
+    }
+
+    /**
+     * Discards the counter of a plugin unloaded, so its class loader is not retained, or of a plugin started again,
+     * so new executions are accepted.
+     *
+     * @param pluginClassLoader the class loader of the plugin.
+     */
+    public void remove(ClassLoader pluginClassLoader) {
+        calls.remove(pluginClassLoader);
+    }
+}
@@ -24,8 +24,13 @@ package com.biit.plugins.logger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Supplier;
+
 /**
  * Defines basic log behavior. Uses log4j.properties.
+ * <p>
+ * Messages can contain a {@code {}} placeholder for each argument, or be obtained from a {@link Supplier}. In both
+ * cases, the message is only built if the level is enabled.
  */
 public final class PluginManagerLogger {
     private static final Logger LOGGER = LoggerFactory.getLogger(PluginManagerLogger.class);
@@ -51,7 +56,34 @@ public final class PluginManagerLogger {
      * @param message   message to be shown.
      */
     public static void info(String className, String message) {
-        info(className + ": " + message);
+        if (LOGGER.isInfoEnabled()) {
+            info(className + ": " + message);
+        }
+    }
+
+    /**
+     * Events that have business meaning.
+     *
+     * @param className class to be logged.
+     * @param message   message with a {@code {}} placeholder for each argument.
+     * @param arguments values of the placeholders.
+     */
+    public static void info(String className, String message, Object... arguments) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info(className + ": " + message, arguments);
+        }
+    }
+
+    /**
+     * Events that have business meaning.
+     *
+     * @param className class to be logged.
+     * @param message   creates the message.
+     */
+    public static void info(String className, Supplier<String> message) {
+        if (LOGGER.isInfoEnabled()) {
+            info(className + ": " + message.get());
+        }
     }
 
     /**
@@ -72,7 +104,34 @@ public final class PluginManagerLogger {
      * @param message   message to be shown.
      */
     public static void warning(String className, String message) {
-        warning(className + ": " + message);
+        if (LOGGER.isWarnEnabled()) {
+            warning(className + ": " + message);
+        }
+    }
+
+    /**
+     * Shows not critical errors.
+     *
+     * @param className class to be logged.
+     * @param message   message with a {@code {}} placeholder for each argument.
+     * @param arguments values of the placeholders.
+     */
+    public static void warning(String className, String message, Object... arguments) {
+        if (LOGGER.isWarnEnabled()) {
+            LOGGER.warn(className + ": " + message, arguments);
+        }
+    }
+
+    /**
+     * Shows not critical errors.
+     *
+     * @param className class to be logged.
+     * @param message   creates the message.
+     */
+    public static void warning(String className, Supplier<String> message) {
+        if (LOGGER.isWarnEnabled()) {
+            warning(className + ": " + message.get());
+        }
     }
 
     /**
@@ -95,7 +154,54 @@ public final class PluginManagerLogger {
      * @param message   message logged.
      */
     public static void debug(String className, String message) {
-        debug(className + ": " + message);
+        if (isDebugEnabled()) {
+            debug(className + ": " + message);
+        }
+    }
+
+    /**
+     * For following the trace of the execution. This and the next method with a fixed number of arguments do not
+     * create any array.
+     *
+     * @param className class to be logged.
+     * @param message   message with a {@code {}} placeholder for the argument.
+     * @param argument  value of the placeholder. Arrays are shown with their content.
+     */
+    public static void debug(String className, String message, Object argument) {
+        if (isDebugEnabled()) {
+            LOGGER.debug(className + ": " + message, argument);
+        }
+    }
+
+    public static void debug(String className, String message, Object argument1, Object argument2) {
+        if (isDebugEnabled()) {
+            LOGGER.debug(className + ": " + message, argument1, argument2);
+        }
+    }
+
+    /**
+     * For following the trace of the execution.
+     *
+     * @param className class to be logged.
+     * @param message   message with a {@code {}} placeholder for each argument.
+     * @param arguments values of the placeholders.
+     */
+    public static void debug(String className, String message, Object... arguments) {
+        if (isDebugEnabled()) {
+            LOGGER.debug(className + ": " + message, arguments);
+        }
+    }
+
+    /**
+     * For following the trace of the execution.
+     *
+     * @param className class to be logged.
+     * @param message   creates the message.
+     */
+    public static void debug(String className, Supplier<String> message) {
+        if (isDebugEnabled()) {
+            LOGGER.debug(className + ": " + message.get());
+        }
     }
 
     /**
@@ -115,7 +221,34 @@ public final class PluginManagerLogger {
      * @param message   message logged.
      */
     public static void severe(String className, String message) {
-        severe(className + ": " + message);
+        if (LOGGER.isErrorEnabled()) {
+            severe(className + ": " + message);
+        }
+    }
+
+    /**
+     * To log any not expected error that can cause application malfuncionality.
+     *
+     * @param className class to be logged.
+     * @param message   message with a {@code {}} placeholder for each argument.
+     * @param arguments values of the placeholders.
+     */
+    public static void severe(String className, String message, Object... arguments) {
+        if (LOGGER.isErrorEnabled()) {
+            LOGGER.error(className + ": " + message, arguments);
+        }
+    }
+
+    /**
+     * To log any not expected error that can cause application malfuncionality.
+     *
+     * @param className class to be logged.
+     * @param message   creates the message.
+     */
+    public static void severe(String className, Supplier<String> message) {
+        if (LOGGER.isErrorEnabled()) {
+            severe(className + ": " + message.get());
+        }
     }
 
     /**
@@ -125,7 +258,7 @@ public final class PluginManagerLogger {
      * @param method    method logged.
      */
     public static void entering(String className, String method) {
-        debug(className, "ENTRY (" + method + ")");
+        debug(className, "ENTRY ({})", method);
     }
 
     /**
@@ -135,7 +268,7 @@ public final class PluginManagerLogger {
      * @param method    method logged.
      */
     public static void exiting(String className, String method) {
-        debug(className, "RETURN (" + method + ")");
+        debug(className, "RETURN ({})", method);
     }
 
     /**
@@ -145,6 +278,9 @@ public final class PluginManagerLogger {
      * @param throwable exception to be logged.
      */
     public static void errorMessage(String className, Throwable throwable) {
+        if (!LOGGER.isErrorEnabled()) {
+            return;
+        }
         final String error = stackTraceToString(throwable);
         severe(className, error);
     }
@@ -163,7 +299,15 @@ public final class PluginManagerLogger {
     }
 
     public static void debug(Class<?> clazz, String message) {
-        debug(clazz.getName(), message);
+        if (isDebugEnabled()) {
+            debug(clazz.getName(), message);
+        }
+    }
+
+    public static void debug(Class<?> clazz, String message, Object... arguments) {
+        if (isDebugEnabled()) {
+            debug(clazz.getName(), message, arguments);
+        }
     }
 
     public static void info(Class<?> clazz, String message) {
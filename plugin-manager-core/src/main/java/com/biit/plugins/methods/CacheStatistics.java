@@ -0,0 +1,92 @@
+package com.biit.plugins.methods;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+/**
+ * Usage of the cache of a plugin method at some moment.
+ */
+public final class CacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    public CacheStatistics(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * Executions that have used a cached result.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Executions that have invoked the method.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Results discarded because the cache was full.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Results currently cached.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Fraction of the executions that have used a cached result.
+     *
+     * @return a value between 0 and 1.
+     */
+    public double getHitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Adds the statistics of two caches, as the overloads of a method.
+     *
+     * @param other the other statistics.
+     * @return the sum of both.
+     */
+    public CacheStatistics plus(CacheStatistics other) {
+        return new CacheStatistics(hits + other.hits, misses + other.misses, evictions + other.evictions, size + other.size);
+    }
+
+    @Override
+    public String toString() {
+        return "Hits: " + hits + ", misses: " + misses + ", evictions: " + evictions + ", size: " + size;
+    }
+}
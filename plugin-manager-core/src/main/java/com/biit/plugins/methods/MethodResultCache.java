@@ -0,0 +1,215 @@
+package com.biit.plugins.methods;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the results of a plugin method, by parameters. The entries are split into segments, each one with
+ * its own lock and discarding its least recently used entries, so concurrent executions rarely wait for each other.
+ * The method is not invoked while holding any lock; if several threads miss the same parameters at once, the method
+ * can be invoked more than once.
+ */
+public final class MethodResultCache {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+    private static final float LOAD_FACTOR = 0.75f;
+    //Stored instead of null results.
+    private static final Object NULL_RESULT = new Object();
+    private static final Object NO_PARAMETERS_KEY = new Object();
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize   maximum number of results.
+     * @param ttlMillis milliseconds that a result is valid, or zero if results do not expire.
+     */
+    public MethodResultCache(int maxSize, long ttlMillis) {
+        final int size = Math.max(1, maxSize);
+        final int segmentsCount = Math.max(1, Math.min(MAX_SEGMENTS, size / MIN_SEGMENT_SIZE));
+        this.segments = new Segment[segmentsCount];
+        for (int i = 0; i < segmentsCount; i++) {
+            //The first segments take the remainder, so the total size is exactly the maximum.
+            segments[i] = new Segment(size / segmentsCount + (i < size % segmentsCount ? 1 : 0));
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+    }
+
+    /**
+     * Creates the key for a set of parameters.
+     *
+     * @param parameters the parameters of the execution. The array must not be modified later.
+     * @return an object with the equality of the parameters.
+     */
+    public static Object key(Object[] parameters) {
+        if (parameters.length == 0) {
+            return NO_PARAMETERS_KEY;
+        }
+        if (parameters.length == 1 && parameters[0] != null && !parameters[0].getClass().isArray()) {
+            return parameters[0];
+        }
+        return new ParametersKey(parameters);
+    }
+
+    /**
+     * Gets the cached result, or invokes the method and caches its result.
+     *
+     * @param key    the key of the parameters, from {@link #key(Object[])}.
+     * @param loader the invocation of the method.
+     * @return the result of the method.
+     * @throws MethodInvocationException if the method fails. The failure is not cached.
+     */
+    public Object get(Object key, Loader loader) throws MethodInvocationException {
+        final Segment segment = segmentFor(key);
+        final Object cached = segment.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached == NULL_RESULT ? null : cached;
+        }
+        misses.increment();
+        final Object result = loader.load();
+        segment.put(key, result != null ? result : NULL_RESULT);
+        return result;
+    }
+
+    /**
+     * Discards all the results.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    private Segment segmentFor(Object key) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        return segments[(key.hashCode() & Integer.MAX_VALUE) % segments.length];
+    }
+
+    /**
+     * Invocation of the method when the result is not cached.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws MethodInvocationException;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiration;
+
+        private Entry(Object value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+    }
+
+    private final class Segment {
+        private final Map<Object, Entry> entries;
+
+        private Segment(int maxSize) {
+            //Access order: the eldest entry is the least recently used.
+            this.entries = new LinkedHashMap<>(MIN_SEGMENT_SIZE, LOAD_FACTOR, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                    if (size() > maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private synchronized Object get(Object key) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (ttlNanos > 0 && System.nanoTime() - entry.expiration > 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        private synchronized void put(Object key, Object value) {
+            entries.put(key, new Entry(value, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0));
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Several parameters, or a parameter that is null or an array.
+     */
+    private static final class ParametersKey {
+        private final Object[] parameters;
+        private final int hash;
+
+        private ParametersKey(Object[] parameters) {
+            this.parameters = parameters;
+            this.hash = Arrays.deepHashCode(parameters);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ParametersKey && hash == ((ParametersKey) o).hash
+                    && Arrays.deepEquals(parameters, ((ParametersKey) o).parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.biit.plugins.methods;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.util.Map;
+
+/**
+ * Checks which methods with the same name can be executed with some arguments, and which one is the most specific,
+ * following the overload resolution of the JLS (15.12.2). The methods are searched in three phases, and the first
+ * phase that finds any method is used:
+ * <ol>
+ * <li>Strict invocation: identity, primitive widening and subtyping, without boxing.</li>
+ * <li>Loose invocation: also boxing and unboxing.</li>
+ * <li>Variable arity invocation: the trailing arguments are passed on the array of the last parameter.</li>
+ * </ol>
+ * The types of the arguments are the classes of the values, so a boxed value is an argument of its wrapper class. Only
+ * the executions with a primitive value, as {@code executeMethod(String, int)}, have primitive arguments.
+ */
+final class ParameterConversions {
+
+    enum Phase {
+        STRICT, LOOSE, VARIABLE_ARITY
+    }
+
+    //Primitives ordered by the widening conversions allowed (JLS 5.1.2). Char and boolean are handled separately.
+    private static final Map<Class<?>, Integer> NUMERIC_RANK = Map.of(byte.class, 0, short.class, 1, int.class, 2,
+            long.class, 3, float.class, 4, double.class, 5);
+
+    private static final Map<Class<?>, Class<?>> PRIMITIVES = Map.of(Boolean.class, boolean.class, Byte.class, byte.class,
+            Character.class, char.class, Short.class, short.class, Integer.class, int.class, Long.class, long.class,
+            Float.class, float.class, Double.class, double.class);
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(boolean.class, Boolean.class, byte.class, Byte.class,
+            char.class, Character.class, short.class, Short.class, int.class, Integer.class, long.class, Long.class,
+            float.class, Float.class, double.class, Double.class);
+
+    private ParameterConversions() {
+    }
+
+    /**
+     * Checks if a method can be executed with arguments of these types on a phase.
+     *
+     * @param method        the method.
+     * @param argumentTypes the types of the arguments, with null for null values.
+     * @param phase         the phase of the resolution.
+     * @return true if the method is applicable.
+     */
+    static boolean isApplicable(PluginMethod method, Class<?>[] argumentTypes, Phase phase) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        if (phase == Phase.VARIABLE_ARITY) {
+            if (!method.isVarArgs() || argumentTypes.length < parameterTypes.length - 1) {
+                return false;
+            }
+        } else if (parameterTypes.length != argumentTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < argumentTypes.length; i++) {
+            final Class<?> parameterType = getParameterType(method, i, phase);
+            if (phase == Phase.STRICT ? !isStrictConvertible(parameterType, argumentTypes[i])
+                    : !isLooseConvertible(parameterType, argumentTypes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a method is more specific than another for a number of arguments (JLS 15.12.2.5): each parameter type
+     * is a subtype of the parameter of the other method on the same position. Both methods must be applicable on the
+     * phase.
+     *
+     * @param method    the method.
+     * @param other     the other method.
+     * @param arguments the number of arguments.
+     * @param phase     the phase where both methods are applicable.
+     * @return true if the method is at least as specific as the other.
+     */
+    static boolean isMoreSpecific(PluginMethod method, PluginMethod other, int arguments, Phase phase) {
+        for (int i = 0; i < arguments; i++) {
+            if (!isSubtype(getParameterType(method, i, phase), getParameterType(other, i, phase))) {
+                return false;
+            }
+        }
+        //The variable arity parameter of the other method is empty, but it is also compared.
+        if (phase == Phase.VARIABLE_ARITY && other.getParameterCount() == arguments + 1) {
+            return isSubtype(getParameterType(method, arguments, phase), getParameterType(other, arguments, phase));
+        }
+        return true;
+    }
+
+    private static Class<?> getParameterType(PluginMethod method, int index, Phase phase) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        if (phase == Phase.VARIABLE_ARITY && index >= parameterTypes.length - 1) {
+            return parameterTypes[parameterTypes.length - 1].getComponentType();
+        }
+        return parameterTypes[index];
+    }
+
+    private static boolean isStrictConvertible(Class<?> parameterType, Class<?> argumentType) {
+        if (argumentType == null) {
+            return !parameterType.isPrimitive();
+        }
+        if (argumentType.isPrimitive() || parameterType.isPrimitive()) {
+            return argumentType.isPrimitive() && parameterType.isPrimitive() && isSubtype(argumentType, parameterType);
+        }
+        return parameterType.isAssignableFrom(argumentType);
+    }
+
+    private static boolean isLooseConvertible(Class<?> parameterType, Class<?> argumentType) {
+        if (isStrictConvertible(parameterType, argumentType)) {
+            return true;
+        }
+        if (argumentType == null) {
+            return false;
+        }
+        if (argumentType.isPrimitive()) {
+            //Boxing and then subtyping.
+            return !parameterType.isPrimitive() && parameterType.isAssignableFrom(WRAPPERS.get(argumentType));
+        }
+        //Unboxing and then primitive widening.
+        final Class<?> primitive = PRIMITIVES.get(argumentType);
+        return primitive != null && parameterType.isPrimitive() && isSubtype(primitive, parameterType);
+    }
+
+    /**
+     * Subtyping of the JLS (4.10), where a primitive is a subtype of the primitives that it can be widened to.
+     */
+    private static boolean isSubtype(Class<?> type, Class<?> superType) {
+        if (type == superType) {
+            return true;
+        }
+        if (type.isPrimitive() || superType.isPrimitive()) {
+            return type.isPrimitive() && superType.isPrimitive() && isWidening(type, superType);
+        }
+        return superType.isAssignableFrom(type);
+    }
+
+    private static boolean isWidening(Class<?> from, Class<?> to) {
+        if (from == char.class) {
+            //Char can be widened as an int.
+            return to == int.class || isWidening(int.class, to);
+        }
+        final Integer fromRank = NUMERIC_RANK.get(from);
+        final Integer toRank = NUMERIC_RANK.get(to);
+        return fromRank != null && toRank != null && toRank > fromRank;
+    }
+}
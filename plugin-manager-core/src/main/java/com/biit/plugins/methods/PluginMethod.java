@@ -0,0 +1,306 @@
+package com.biit.plugins.methods;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.CacheableMethod;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+/**
+ * A plugin method compiled into a {@link MethodHandle}. The handle and the parameter types are obtained only once, and
+ * are reused on each execution. Methods with up to four parameters can be executed without creating an array, and
+ * methods with a single {@code int}, {@code long} or {@code double} parameter also without boxing the value.
+ * Methods annotated with {@link CacheableMethod} keep the results of the previous executions.
+ */
+public final class PluginMethod {
+    private static final MethodHandle REFLECTIVE_INVOKER;
+
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+    //(Object target, Object... parameters)Object, with one Object for each parameter.
+    private final MethodHandle invoker;
+    //(Object target, Object[] parameters)Object
+    private final MethodHandle spreadInvoker;
+    //(Object target, primitive parameter)Object, or null if the method cannot receive this primitive.
+    private final MethodHandle intInvoker;
+    private final MethodHandle longInvoker;
+    private final MethodHandle doubleInvoker;
+    //Null if the method is not cacheable.
+    private final MethodResultCache cache;
+
+    static {
+        try {
+            REFLECTIVE_INVOKER = MethodHandles.lookup().findVirtual(Method.class, "invoke",
+                    MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public PluginMethod(Method method) {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+        final MethodHandle handle = createHandle(method);
+        if (handle != null) {
+            this.invoker = handle.asType(MethodType.genericMethodType(parameterTypes.length + 1));
+        } else {
+            //Not accessible from here. Use standard reflection that will report the same error.
+            this.invoker = REFLECTIVE_INVOKER.bindTo(method).asCollector(Object[].class, parameterTypes.length);
+        }
+        this.spreadInvoker = invoker.asSpreader(Object[].class, parameterTypes.length);
+        this.intInvoker = createPrimitiveInvoker(handle, int.class);
+        this.longInvoker = createPrimitiveInvoker(handle, long.class);
+        this.doubleInvoker = createPrimitiveInvoker(handle, double.class);
+        final CacheableMethod cacheable = method.getAnnotation(CacheableMethod.class);
+        this.cache = cacheable != null ? new MethodResultCache(cacheable.maxSize(), cacheable.ttlMillis()) : null;
+    }
+
+    /**
+     * Creates a handle with the target as first parameter, also for static methods.
+     */
+    private static MethodHandle createHandle(Method method) {
+        final MethodHandle handle;
+        try {
+            //Variable arity methods receive the array already created.
+            handle = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            return MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle;
+    }
+
+    private MethodHandle createPrimitiveInvoker(MethodHandle handle, Class<?> primitiveType) {
+        if (handle == null || parameterTypes.length != 1) {
+            return null;
+        }
+        try {
+            return handle.asType(MethodType.methodType(Object.class, Object.class, primitiveType));
+        } catch (WrongMethodTypeException e) {
+            //The primitive value must be boxed.
+            return null;
+        }
+    }
+
+    public String getName() {
+        return method.getName();
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public int getParameterCount() {
+        return parameterTypes.length;
+    }
+
+    /**
+     * Cache of the results, for methods annotated with {@link CacheableMethod}.
+     *
+     * @return the cache or null if the method is not cacheable.
+     */
+    public MethodResultCache getCache() {
+        return cache;
+    }
+
+    //Not copied, only used for resolving the overloads.
+    Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    public boolean isVarArgs() {
+        return method.isVarArgs();
+    }
+
+    /**
+     * Puts the trailing parameters of a variable arity execution on an array for the last parameter of the method.
+     *
+     * @param parameters the parameters of the execution.
+     * @return the parameters of the method.
+     */
+    Object[] collectVariableArguments(Object... parameters) {
+        final int fixedParameters = parameterTypes.length - 1;
+        final Object[] collected = Arrays.copyOf(parameters, parameterTypes.length);
+        final Object variableArguments = Array.newInstance(parameterTypes[fixedParameters].getComponentType(),
+                parameters.length - fixedParameters);
+        for (int i = fixedParameters; i < parameters.length; i++) {
+            Array.set(variableArguments, i - fixedParameters, parameters[i]);
+        }
+        collected[fixedParameters] = variableArguments;
+        return collected;
+    }
+
+    /**
+     * Executes the method. The parameters must be already checked by {@link PluginMethodGroup}.
+     *
+     * @param target     the object where the method is executed.
+     * @param parameters the parameters of the method.
+     * @return the result of the method.
+     * @throws MethodInvocationException if the method throws any exception.
+     */
+    public Object invoke(Object target, Object[] parameters) throws MethodInvocationException {
+        if (cache != null) {
+            //The caller can reuse its array.
+            return invokeCached(target, parameters.clone());
+        }
+        return invokeSpread(target, parameters);
+    }
+
+    private Object invokeSpread(Object target, Object[] parameters) throws MethodInvocationException {
+        try {
+            return (Object) spreadInvoker.invokeExact(target, parameters);
+        } catch (Throwable e) {
+            throw invocationException(e, parameters);
+        }
+    }
+
+    /**
+     * Executes a method without parameters.
+     *
+     * @param target the object where the method is executed.
+     * @return the result of the method.
+     * @throws MethodInvocationException if the method throws any exception.
+     */
+    public Object invoke(Object target) throws MethodInvocationException {
+        if (cache != null) {
+            return invokeCached(target, new Object[0]);
+        }
+        try {
+            return (Object) invoker.invokeExact(target);
+        } catch (Throwable e) {
+            throw invocationException(e);
+        }
+    }
+
+    public Object invoke(Object target, Object parameter) throws MethodInvocationException {
+        if (cache != null) {
+            return invokeCached(target, new Object[]{parameter});
+        }
+        try {
+            return (Object) invoker.invokeExact(target, parameter);
+        } catch (Throwable e) {
+            throw invocationException(e, parameter);
+        }
+    }
+
+    public Object invoke(Object target, Object parameter1, Object parameter2) throws MethodInvocationException {
+        if (cache != null) {
+            return invokeCached(target, new Object[]{parameter1, parameter2});
+        }
+        try {
+            return (Object) invoker.invokeExact(target, parameter1, parameter2);
+        } catch (Throwable e) {
+            throw invocationException(e, parameter1, parameter2);
+        }
+    }
+
+    public Object invoke(Object target, Object parameter1, Object parameter2, Object parameter3) throws MethodInvocationException {
+        if (cache != null) {
+            return invokeCached(target, new Object[]{parameter1, parameter2, parameter3});
+        }
+        try {
+            return (Object) invoker.invokeExact(target, parameter1, parameter2, parameter3);
+        } catch (Throwable e) {
+            throw invocationException(e, parameter1, parameter2, parameter3);
+        }
+    }
+
+    public Object invoke(Object target, Object parameter1, Object parameter2, Object parameter3, Object parameter4)
+            throws MethodInvocationException {
+        if (cache != null) {
+            return invokeCached(target, new Object[]{parameter1, parameter2, parameter3, parameter4});
+        }
+        try {
+            return (Object) invoker.invokeExact(target, parameter1, parameter2, parameter3, parameter4);
+        } catch (Throwable e) {
+            throw invocationException(e, parameter1, parameter2, parameter3, parameter4);
+        }
+    }
+
+    /**
+     * Executes a method with a single parameter. If the method receives a primitive, the value is not boxed.
+     *
+     * @param target    the object where the method is executed.
+     * @param parameter the parameter of the method.
+     * @return the result of the method.
+     * @throws MethodInvocationException if the method throws any exception.
+     */
+    public Object invokeInt(Object target, int parameter) throws MethodInvocationException {
+        if (intInvoker == null || cache != null) {
+            return invoke(target, (Object) parameter);
+        }
+        try {
+            return (Object) intInvoker.invokeExact(target, parameter);
+        } catch (Throwable e) {
+            throw invocationException(e, parameter);
+        }
+    }
+
+    public Object invokeLong(Object target, long parameter) throws MethodInvocationException {
+        if (longInvoker == null || cache != null) {
+            return invoke(target, (Object) parameter);
+        }
+        try {
+            return (Object) longInvoker.invokeExact(target, parameter);
+        } catch (Throwable e) {
+            throw invocationException(e, parameter);
+        }
+    }
+
+    public Object invokeDouble(Object target, double parameter) throws MethodInvocationException {
+        if (doubleInvoker == null || cache != null) {
+            return invoke(target, (Object) parameter);
+        }
+        try {
+            return (Object) doubleInvoker.invokeExact(target, parameter);
+        } catch (Throwable e) {
+            throw invocationException(e, parameter);
+        }
+    }
+
+    /**
+     * Uses the cached result or invokes the method.
+     */
+    private Object invokeCached(Object target, Object[] parameters) throws MethodInvocationException {
+        return cache.get(MethodResultCache.key(parameters), () -> invokeSpread(target, parameters));
+    }
+
+    private MethodInvocationException invocationException(Throwable e, Object... parameters) {
+        return new MethodInvocationException(
+                "Exception invoking the method '" + getName() + "' with parameters '" + Arrays.toString(parameters) + "'.", e);
+    }
+
+    @Override
+    public String toString() {
+        return method.toString();
+    }
+}
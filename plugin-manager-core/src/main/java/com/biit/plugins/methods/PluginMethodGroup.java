@@ -0,0 +1,440 @@
+package com.biit.plugins.methods;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.exceptions.InvalidMethodParametersException;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.methods.ParameterConversions.Phase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * All the methods of a plugin with the same name (overloads), grouped by number of parameters. The method executed is
+ * chosen as the Java compiler does (see {@link ParameterConversions}), using the classes of the parameters. The method
+ * chosen is cached by the classes of the parameters, so next executions with the same classes do not need to compare
+ * the methods again.
+ */
+public final class PluginMethodGroup {
+    //Different combinations of classes cached by group. Enough for any reasonable number of overloads.
+    private static final int MAX_RESOLUTIONS_CACHED = 32;
+    private static final PluginMethod[] NO_METHODS = new PluginMethod[0];
+    //Executions with up to this number of parameters do not need an array.
+    private static final int MAX_FIXED_PARAMETERS = 4;
+
+    private final String name;
+    private final List<PluginMethod> methods;
+    private final PluginMethod[][] methodsByArity;
+    private final PluginMethod[] variableArityMethods;
+    private volatile Resolution[] resolutions = new Resolution[0];
+
+    PluginMethodGroup(String name, List<PluginMethod> methods) {
+        this.name = name;
+        this.methods = Collections.unmodifiableList(new ArrayList<>(methods));
+        int maxArity = 0;
+        for (PluginMethod method : methods) {
+            maxArity = Math.max(maxArity, method.getParameterCount());
+        }
+        this.methodsByArity = new PluginMethod[maxArity + 1][];
+        for (int arity = 0; arity <= maxArity; arity++) {
+            final List<PluginMethod> methodsWithArity = new ArrayList<>();
+            for (PluginMethod method : methods) {
+                if (method.getParameterCount() == arity) {
+                    methodsWithArity.add(method);
+                }
+            }
+            methodsByArity[arity] = methodsWithArity.toArray(NO_METHODS);
+        }
+        final List<PluginMethod> methodsWithVarArgs = new ArrayList<>();
+        for (PluginMethod method : methods) {
+            if (method.isVarArgs()) {
+                methodsWithVarArgs.add(method);
+            }
+        }
+        this.variableArityMethods = methodsWithVarArgs.toArray(NO_METHODS);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<PluginMethod> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Searches the most specific method that can be executed with these parameters.
+     *
+     * @param parameters the parameters of the execution.
+     * @return the resolution, that can have no method if no one matches or several are equally specific.
+     */
+    public Resolution resolve(Object[] parameters) {
+        for (Resolution resolution : resolutions) {
+            if (resolution.matches(parameters)) {
+                return resolution;
+            }
+        }
+        final Class<?>[] argumentTypes = new Class<?>[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            argumentTypes[i] = classOf(parameters[i]);
+        }
+        return resolveTypes(argumentTypes);
+    }
+
+    /**
+     * Searches the method for executions without parameters.
+     *
+     * @return the resolution, that can have no method if no one matches.
+     */
+    public Resolution resolve() {
+        return resolve(0, null, null, null, null);
+    }
+
+    public Resolution resolve(Object parameter) {
+        return resolve(1, classOf(parameter), null, null, null);
+    }
+
+    public Resolution resolve(Object parameter1, Object parameter2) {
+        return resolve(2, classOf(parameter1), classOf(parameter2), null, null);
+    }
+
+    public Resolution resolve(Object parameter1, Object parameter2, Object parameter3) {
+        return resolve(MAX_FIXED_PARAMETERS - 1, classOf(parameter1), classOf(parameter2), classOf(parameter3), null);
+    }
+
+    public Resolution resolve(Object parameter1, Object parameter2, Object parameter3, Object parameter4) {
+        return resolve(MAX_FIXED_PARAMETERS, classOf(parameter1), classOf(parameter2), classOf(parameter3), classOf(parameter4));
+    }
+
+    /**
+     * Searches the method for executions with a single parameter of this class. Used for primitive values, that are
+     * resolved as a primitive type without boxing them.
+     *
+     * @param argumentType the class of the parameter, that can be a primitive type.
+     * @return the resolution, that can have no method if no one matches or several are equally specific.
+     */
+    public Resolution resolveByType(Class<?> argumentType) {
+        return resolve(1, argumentType, null, null, null);
+    }
+
+    /**
+     * Fixed number of parameters. The cached resolutions are checked without creating any array.
+     */
+    private Resolution resolve(int arity, Class<?> type1, Class<?> type2, Class<?> type3, Class<?> type4) {
+        for (Resolution resolution : resolutions) {
+            if (resolution.matches(arity, type1, type2, type3, type4)) {
+                return resolution;
+            }
+        }
+        return resolveTypes(Arrays.copyOf(new Class<?>[]{type1, type2, type3, type4}, arity));
+    }
+
+    private Resolution resolveTypes(Class<?>[] argumentTypes) {
+        final Resolution resolution = createResolution(argumentTypes);
+        cache(resolution);
+        return resolution;
+    }
+
+    private static Class<?> classOf(Object parameter) {
+        return parameter != null ? parameter.getClass() : null;
+    }
+
+    private Resolution createResolution(Class<?>[] argumentTypes) {
+        final PluginMethod[] fixedArityMethods = argumentTypes.length < methodsByArity.length
+                ? methodsByArity[argumentTypes.length] : NO_METHODS;
+        Resolution resolution = createResolution(argumentTypes, fixedArityMethods, Phase.STRICT);
+        if (resolution == null) {
+            resolution = createResolution(argumentTypes, fixedArityMethods, Phase.LOOSE);
+        }
+        if (resolution == null) {
+            resolution = createResolution(argumentTypes, variableArityMethods, Phase.VARIABLE_ARITY);
+        }
+        return resolution != null ? resolution : new Resolution(argumentTypes, null, false, false);
+    }
+
+    /**
+     * Selects the most specific method of the ones applicable on a phase.
+     *
+     * @return the resolution, or null if no method is applicable on this phase.
+     */
+    private static Resolution createResolution(Class<?>[] argumentTypes, PluginMethod[] candidates, Phase phase) {
+        final List<PluginMethod> applicableMethods = new ArrayList<>();
+        for (PluginMethod candidate : candidates) {
+            if (ParameterConversions.isApplicable(candidate, argumentTypes, phase)) {
+                applicableMethods.add(candidate);
+            }
+        }
+        if (applicableMethods.isEmpty()) {
+            return null;
+        }
+        PluginMethod mostSpecific = null;
+        for (PluginMethod candidate : applicableMethods) {
+            if (!isMaximallySpecific(candidate, applicableMethods, argumentTypes.length, phase)) {
+                continue;
+            }
+            if (mostSpecific == null || isBridgeOf(mostSpecific, candidate)) {
+                mostSpecific = candidate;
+            } else if (!isBridgeOf(candidate, mostSpecific)) {
+                return new Resolution(argumentTypes, null, true, false);
+            }
+        }
+        //None is more specific than all the others.
+        if (mostSpecific == null) {
+            return new Resolution(argumentTypes, null, true, false);
+        }
+        return new Resolution(argumentTypes, mostSpecific, false, phase == Phase.VARIABLE_ARITY);
+    }
+
+    private static boolean isMaximallySpecific(PluginMethod candidate, List<PluginMethod> applicableMethods, int arguments,
+                                               Phase phase) {
+        for (PluginMethod other : applicableMethods) {
+            if (other != candidate && !ParameterConversions.isMoreSpecific(candidate, other, arguments, phase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The compiler adds bridge methods with the same parameters when a method is overridden with a covariant return
+     * type. They are not real overloads.
+     */
+    private static boolean isBridgeOf(PluginMethod bridge, PluginMethod method) {
+        return bridge.getMethod().isBridge() && !method.getMethod().isBridge()
+                && Arrays.equals(bridge.getParameterTypes(), method.getParameterTypes());
+    }
+
+    /**
+     * Executes the most specific method for the parameters.
+     *
+     * @param target     the object where the method is executed.
+     * @param parameters the parameters of the method.
+     * @return the result of the method.
+     * @throws InvalidMethodParametersException if no method can be executed with the parameters, or several methods
+     *                                          are equally specific for them.
+     * @throws MethodInvocationException        if the method throws any exception.
+     */
+    public Object execute(Object target, Object[] parameters) throws MethodInvocationException {
+        final Resolution resolution = resolve(parameters);
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution, parameters);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution, parameters);
+        }
+        return resolution.getMethod().invoke(target, parameters);
+    }
+
+    public Object execute(Object target) throws MethodInvocationException {
+        final Resolution resolution = resolve();
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution);
+        }
+        return resolution.getMethod().invoke(target);
+    }
+
+    public Object execute(Object target, Object parameter) throws MethodInvocationException {
+        final Resolution resolution = resolve(parameter);
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution, parameter);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution, parameter);
+        }
+        return resolution.getMethod().invoke(target, parameter);
+    }
+
+    public Object execute(Object target, Object parameter1, Object parameter2) throws MethodInvocationException {
+        final Resolution resolution = resolve(parameter1, parameter2);
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution, parameter1, parameter2);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution, parameter1, parameter2);
+        }
+        return resolution.getMethod().invoke(target, parameter1, parameter2);
+    }
+
+    public Object execute(Object target, Object parameter1, Object parameter2, Object parameter3) throws MethodInvocationException {
+        final Resolution resolution = resolve(parameter1, parameter2, parameter3);
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution, parameter1, parameter2, parameter3);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution, parameter1, parameter2, parameter3);
+        }
+        return resolution.getMethod().invoke(target, parameter1, parameter2, parameter3);
+    }
+
+    public Object execute(Object target, Object parameter1, Object parameter2, Object parameter3, Object parameter4)
+            throws MethodInvocationException {
+        final Resolution resolution = resolve(parameter1, parameter2, parameter3, parameter4);
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution, parameter1, parameter2, parameter3,
+                    parameter4);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution, parameter1, parameter2, parameter3, parameter4);
+        }
+        return resolution.getMethod().invoke(target, parameter1, parameter2, parameter3, parameter4);
+    }
+
+    /**
+     * Executes the most specific method for a primitive parameter. The value is boxed only if the method does not
+     * receive a primitive.
+     *
+     * @param target    the object where the method is executed.
+     * @param parameter the parameter of the method.
+     * @return the result of the method.
+     * @throws InvalidMethodParametersException if no method can be executed with the parameter.
+     * @throws MethodInvocationException        if the method throws any exception.
+     */
+    public Object executeInt(Object target, int parameter) throws MethodInvocationException {
+        final Resolution resolution = resolveByType(int.class);
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution, parameter);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution, parameter);
+        }
+        return resolution.getMethod().invokeInt(target, parameter);
+    }
+
+    public Object executeLong(Object target, long parameter) throws MethodInvocationException {
+        final Resolution resolution = resolveByType(long.class);
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution, parameter);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution, parameter);
+        }
+        return resolution.getMethod().invokeLong(target, parameter);
+    }
+
+    public Object executeDouble(Object target, double parameter) throws MethodInvocationException {
+        final Resolution resolution = resolveByType(double.class);
+        if (resolution.getMethod() == null) {
+            throw invalidParameters(resolution, parameter);
+        }
+        if (resolution.isVariableArity()) {
+            return invokeVariableArity(target, resolution, parameter);
+        }
+        return resolution.getMethod().invokeDouble(target, parameter);
+    }
+
+    private static Object invokeVariableArity(Object target, Resolution resolution, Object... parameters)
+            throws MethodInvocationException {
+        return resolution.getMethod().invoke(target, resolution.getMethod().collectVariableArguments(parameters));
+    }
+
+    private InvalidMethodParametersException invalidParameters(Resolution resolution, Object... parameters) {
+        if (resolution.isAmbiguous()) {
+            return new InvalidMethodParametersException(
+                    "Ambiguous parameters '" + Arrays.toString(parameters) + "' for the method '" + name + "'");
+        }
+        return new InvalidMethodParametersException(
+                "Invalid parameters '" + Arrays.toString(parameters) + "' for the method '" + name + "'");
+    }
+
+    private synchronized void cache(Resolution resolution) {
+        final Resolution[] cached = resolutions;
+        if (cached.length >= MAX_RESOLUTIONS_CACHED) {
+            return;
+        }
+        final Resolution[] updated = Arrays.copyOf(cached, cached.length + 1);
+        updated[cached.length] = resolution;
+        resolutions = updated;
+    }
+
+    /**
+     * Method selected for some classes of parameters.
+     */
+    public static final class Resolution {
+        private final Class<?>[] argumentTypes;
+        private final PluginMethod method;
+        private final boolean ambiguous;
+        private final boolean variableArity;
+
+        private Resolution(Class<?>[] argumentTypes, PluginMethod method, boolean ambiguous, boolean variableArity) {
+            this.argumentTypes = argumentTypes;
+            this.method = method;
+            this.ambiguous = ambiguous;
+            this.variableArity = variableArity;
+        }
+
+        private boolean matches(Object[] parameters) {
+            if (argumentTypes.length != parameters.length) {
+                return false;
+            }
+            for (int i = 0; i < parameters.length; i++) {
+                if (argumentTypes[i] != classOf(parameters[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(int arity, Class<?> type1, Class<?> type2, Class<?> type3, Class<?> type4) {
+            if (argumentTypes.length != arity) {
+                return false;
+            }
+            //Once all the parameters are compared, the next ones are ignored.
+            int position = 0;
+            return (position == arity || argumentTypes[position++] == type1)
+                    && (position == arity || argumentTypes[position++] == type2)
+                    && (position == arity || argumentTypes[position++] == type3)
+                    && (position == arity || argumentTypes[position] == type4);
+        }
+
+        /**
+         * Gets the method to execute, or null if none can be executed with the parameters.
+         *
+         * @return the method.
+         */
+        public PluginMethod getMethod() {
+            return method;
+        }
+
+        /**
+         * If several methods are equally specific for the parameters, none is selected.
+         *
+         * @return true if the parameters do not select a single method.
+         */
+        public boolean isAmbiguous() {
+            return ambiguous;
+        }
+
+        /**
+         * The trailing parameters must be passed on an array, as the last parameter of the method.
+         *
+         * @return true if the method is executed with variable arity.
+         */
+        public boolean isVariableArity() {
+            return variableArity;
+        }
+    }
+}
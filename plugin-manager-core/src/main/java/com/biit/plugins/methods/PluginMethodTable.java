@@ -0,0 +1,302 @@
+package com.biit.plugins.methods;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.MethodExecutionResult;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.NoMethodFoundException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The methods of a plugin class that can be executed, by name. Methods with the same name are overloads, and the one
+ * executed is selected by the parameters. Tables are immutable and computed only once per class,
+ * and are shared by all the instances of the class. As they are stored in the class itself, they are released with
+ * the class loader of the plugin. Therefore, a reloaded plugin starts always with empty caches.
+ */
+public final class PluginMethodTable {
+    public static final String METHODS_PREFIX_TO_SELECT = "method";
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private static final ClassValue<PluginMethodTable> TABLES = new ClassValue<>() {
+        @Override
+        protected PluginMethodTable computeValue(Class<?> pluginClass) {
+            return new PluginMethodTable(pluginClass, selectMethods(pluginClass));
+        }
+    };
+
+    private final List<Method> pluginMethods;
+    private final Map<String, PluginMethodGroup> methods;
+    private final Class<?> executionClass;
+
+    private PluginMethodTable(Class<?> pluginClass, List<Method> pluginMethods) {
+        final Map<String, List<PluginMethod>> overloads = new LinkedHashMap<>();
+        for (Method method : pluginMethods) {
+            overloads.computeIfAbsent(method.getName(), name -> new ArrayList<>()).add(new PluginMethod(method));
+        }
+        final Map<String, PluginMethodGroup> methodsByName = new HashMap<>();
+        overloads.forEach((name, methodsWithName) -> methodsByName.put(name, new PluginMethodGroup(name, methodsWithName)));
+        this.pluginMethods = Collections.unmodifiableList(new ArrayList<>(pluginMethods));
+        this.methods = Collections.unmodifiableMap(methodsByName);
+        this.executionClass = getExecutionClass(pluginClass);
+    }
+
+    private static List<Method> selectMethods(Class<?> pluginClass) {
+        final List<Method> methodsSelected = new ArrayList<>();
+        for (Method method : pluginClass.getMethods()) {
+            if (method.getName().startsWith(METHODS_PREFIX_TO_SELECT)) {
+                methodsSelected.add(method);
+            }
+        }
+        return methodsSelected;
+    }
+
+    private static Class<?> getExecutionClass(Class<?> pluginClass) {
+        try {
+            return pluginClass.getMethod("executeMethod", String.class, Object[].class).getDeclaringClass();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the table of a plugin class. The class is scanned only the first time.
+     *
+     * @param pluginClass the class of the plugin.
+     * @return the methods of the class.
+     */
+    public static PluginMethodTable of(Class<?> pluginClass) {
+        return TABLES.get(pluginClass);
+    }
+
+    /**
+     * Creates a table with the methods chosen by a plugin instead of the ones selected by their name. The table is not
+     * shared with other instances of the class.
+     *
+     * @param pluginClass   the class of the plugin.
+     * @param pluginMethods the methods that can be executed.
+     * @return the methods of the plugin.
+     */
+    public static PluginMethodTable of(Class<?> pluginClass, List<Method> pluginMethods) {
+        return new PluginMethodTable(pluginClass, pluginMethods);
+    }
+
+    /**
+     * Public methods of the class that start with {@link #METHODS_PREFIX_TO_SELECT}, or the ones chosen by the plugin.
+     *
+     * @return an immutable list.
+     */
+    public List<Method> getPluginMethods() {
+        return pluginMethods;
+    }
+
+    /**
+     * Gets all the methods with a name.
+     *
+     * @param methodName the name of the method.
+     * @return the overloads of the method, or null if no method has this name.
+     */
+    public PluginMethodGroup get(String methodName) {
+        return methods.get(methodName);
+    }
+
+    public Collection<PluginMethodGroup> getMethods() {
+        return methods.values();
+    }
+
+    /**
+     * Class that declares the {@code executeMethod(String, Object...)} used by the plugin. If a plugin overrides it,
+     * its methods must be executed always through it.
+     *
+     * @return the class or null if the plugin class has not this method.
+     */
+    public Class<?> getExecutionClass() {
+        return executionClass;
+    }
+
+    /**
+     * Discards the cached results of all the methods of the class.
+     */
+    public void clearCaches() {
+        for (PluginMethodGroup methodsWithName : methods.values()) {
+            for (PluginMethod method : methodsWithName.getMethods()) {
+                if (method.getCache() != null) {
+                    method.getCache().clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Usage of the caches of the methods annotated with {@link com.biit.plugins.interfaces.CacheableMethod}. The
+     * statistics of the overloads of a method are added.
+     *
+     * @return the statistics by method name.
+     */
+    public Map<String, CacheStatistics> getCacheStatistics() {
+        final Map<String, CacheStatistics> statistics = new HashMap<>();
+        for (PluginMethodGroup methodsWithName : methods.values()) {
+            for (PluginMethod method : methodsWithName.getMethods()) {
+                if (method.getCache() != null) {
+                    statistics.merge(method.getName(), method.getCache().getStatistics(), CacheStatistics::plus);
+                }
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Executes a method of the plugin.
+     *
+     * @param target     the plugin.
+     * @param methodName the name of the method.
+     * @param parameters the parameters of the method.
+     * @return the result of the method.
+     * @throws NoMethodFoundException    if no method exists with this name.
+     * @throws MethodInvocationException if no method can be executed with the parameters, several methods are equally
+     *                                   specific for them, or the method throws any exception.
+     */
+    public Object execute(Object target, String methodName, Object... parameters) throws MethodInvocationException {
+        return execute(target, methodName, get(methodName), parameters);
+    }
+
+    /**
+     * Executes a method without parameters. This and the next methods with a fixed number of parameters do not create
+     * any array.
+     *
+     * @param target     the plugin.
+     * @param methodName the name of the method.
+     * @return the result of the method.
+     * @throws MethodInvocationException if the method does not exist, the parameters are invalid or the method fails.
+     */
+    public Object execute(Object target, String methodName) throws MethodInvocationException {
+        return require(methodName, get(methodName)).execute(target);
+    }
+
+    public Object execute(Object target, String methodName, Object parameter) throws MethodInvocationException {
+        return require(methodName, get(methodName)).execute(target, parameter);
+    }
+
+    public Object execute(Object target, String methodName, Object parameter1, Object parameter2) throws MethodInvocationException {
+        return require(methodName, get(methodName)).execute(target, parameter1, parameter2);
+    }
+
+    public Object execute(Object target, String methodName, Object parameter1, Object parameter2, Object parameter3)
+            throws MethodInvocationException {
+        return require(methodName, get(methodName)).execute(target, parameter1, parameter2, parameter3);
+    }
+
+    public Object execute(Object target, String methodName, Object parameter1, Object parameter2, Object parameter3,
+                          Object parameter4) throws MethodInvocationException {
+        return require(methodName, get(methodName)).execute(target, parameter1, parameter2, parameter3, parameter4);
+    }
+
+    /**
+     * Executes a method with a primitive parameter, that is not boxed if the method receives a primitive.
+     *
+     * @param target     the plugin.
+     * @param methodName the name of the method.
+     * @param parameter  the parameter of the method.
+     * @return the result of the method.
+     * @throws MethodInvocationException if the method does not exist, the parameter is invalid or the method fails.
+     */
+    public Object executeInt(Object target, String methodName, int parameter) throws MethodInvocationException {
+        return require(methodName, get(methodName)).executeInt(target, parameter);
+    }
+
+    public Object executeLong(Object target, String methodName, long parameter) throws MethodInvocationException {
+        return require(methodName, get(methodName)).executeLong(target, parameter);
+    }
+
+    public Object executeDouble(Object target, String methodName, double parameter) throws MethodInvocationException {
+        return require(methodName, get(methodName)).executeDouble(target, parameter);
+    }
+
+    /**
+     * Executes a method once for each set of parameters. The method is searched only once, and the failures are
+     * reported on the result of each execution.
+     *
+     * @param target         the plugin.
+     * @param methodName     the name of the method.
+     * @param parametersList the parameters of each execution.
+     * @return a result for each set of parameters, in the same order.
+     */
+    public List<MethodExecutionResult> executeBatch(Object target, String methodName, List<Object[]> parametersList) {
+        final List<MethodExecutionResult> results = new ArrayList<>(parametersList.size());
+        final PluginMethodGroup methodsFound = get(methodName);
+        if (methodsFound == null) {
+            final MethodExecutionResult notFound = MethodExecutionResult.failure(
+                    new NoMethodFoundException("The method '" + methodName + "' was not found"));
+            for (int i = 0; i < parametersList.size(); i++) {
+                results.add(notFound);
+            }
+            return results;
+        }
+        for (Object[] parameters : parametersList) {
+            try {
+                results.add(MethodExecutionResult.success(methodsFound.execute(target, parameters != null ? parameters : NO_PARAMETERS)));
+            } catch (MethodInvocationException e) {
+                results.add(MethodExecutionResult.failure(e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Executes a method already searched by name.
+     *
+     * @param target       the plugin.
+     * @param methodName   the name of the method.
+     * @param methodsFound the overloads of the method or null if it does not exist.
+     * @param parameters   the parameters of the method.
+     * @return the result of the method.
+     * @throws NoMethodFoundException    if the method does not exist.
+     * @throws MethodInvocationException if no method can be executed with the parameters, several methods are equally
+     *                                   specific for them, or the method throws any exception.
+     */
+    public static Object execute(Object target, String methodName, PluginMethodGroup methodsFound, Object... parameters)
+            throws MethodInvocationException {
+        return require(methodName, methodsFound).execute(target, parameters != null ? parameters : NO_PARAMETERS);
+    }
+
+    /**
+     * Checks that a method already searched by name exists.
+     *
+     * @param methodName   the name of the method.
+     * @param methodsFound the overloads of the method or null if it does not exist.
+     * @return the overloads of the method.
+     * @throws NoMethodFoundException if the method does not exist.
+     */
+    public static PluginMethodGroup require(String methodName, PluginMethodGroup methodsFound) throws NoMethodFoundException {
+        if (methodsFound == null) {
+            throw new NoMethodFoundException("The method '" + methodName + "' was not found");
+        }
+        return methodsFound;
+    }
+}
@@ -0,0 +1,155 @@
+package com.biit.plugins.metrics;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+/**
+ * Executions of a plugin method at some moment. The durations are in milliseconds, and the percentiles are
+ * approximated by the upper bound of the bucket of the {@link LatencyHistogram} where they are.
+ */
+public final class InvocationStatistics {
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    private static final double MICROS_PER_MILLI = 1_000d;
+    private static final double P50 = 0.5;
+    private static final double P90 = 0.9;
+    private static final double P99 = 0.99;
+
+    private final long calls;
+    private final long errors;
+    private final long timeouts;
+    private final long rejected;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] bucketCounts;
+
+    public InvocationStatistics(long calls, long errors, long timeouts, long rejected, long totalNanos, long maxNanos,
+                                long[] bucketCounts) {
+        this.calls = calls;
+        this.errors = errors;
+        this.timeouts = timeouts;
+        this.rejected = rejected;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.bucketCounts = bucketCounts;
+    }
+
+    /**
+     * Executions finished, successful or not.
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Executions that have failed, including the timeouts and the rejected ones.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Executions cancelled because they have not finished on time.
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Executions rejected because the bulkhead was full.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public double getMeanMillis() {
+        return calls == 0 ? 0 : totalNanos / NANOS_PER_MILLI / calls;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos / NANOS_PER_MILLI;
+    }
+
+    public double getP50Millis() {
+        return getPercentileMillis(P50);
+    }
+
+    public double getP90Millis() {
+        return getPercentileMillis(P90);
+    }
+
+    public double getP99Millis() {
+        return getPercentileMillis(P99);
+    }
+
+    /**
+     * Duration that is not exceeded by a fraction of the executions.
+     *
+     * @param fraction a value between 0 and 1.
+     * @return the duration in milliseconds, never greater than the longest execution.
+     */
+    public double getPercentileMillis(double fraction) {
+        long total = 0;
+        for (long count : bucketCounts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(fraction * total));
+        long accumulated = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            accumulated += bucketCounts[i];
+            if (accumulated >= target) {
+                final long upperBound = LatencyHistogram.getUpperBoundMicros(i);
+                return upperBound == Long.MAX_VALUE ? getMaxMillis() : Math.min(upperBound / MICROS_PER_MILLI, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Executions on each bucket of the {@link LatencyHistogram}.
+     */
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    /**
+     * Adds the statistics of two methods, as the methods of a plugin.
+     *
+     * @param other the other statistics.
+     * @return the sum of both.
+     */
+    public InvocationStatistics plus(InvocationStatistics other) {
+        final long[] counts = new long[Math.max(bucketCounts.length, other.bucketCounts.length)];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (i < bucketCounts.length ? bucketCounts[i] : 0) + (i < other.bucketCounts.length ? other.bucketCounts[i] : 0);
+        }
+        return new InvocationStatistics(calls + other.calls, errors + other.errors, timeouts + other.timeouts,
+                rejected + other.rejected, totalNanos + other.totalNanos, Math.max(maxNanos, other.maxNanos), counts);
+    }
+
+    @Override
+    public String toString() {
+        return "Calls: " + calls + ", errors: " + errors + ", timeouts: " + timeouts + ", rejected: " + rejected
+                + ", mean: " + getMeanMillis() + " ms, p99: " + getP99Millis() + " ms, max: " + getMaxMillis() + " ms";
+    }
+}
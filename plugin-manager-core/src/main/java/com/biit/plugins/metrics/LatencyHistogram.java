@@ -0,0 +1,108 @@
+package com.biit.plugins.metrics;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durations of the executions of a method, counted on fixed buckets. Bucket {@code i} has the executions that have
+ * lasted less than {@code 2^i} microseconds (and more than the previous bucket), and the last one all the longer
+ * executions. Recording a duration does not create any object, so it can be always enabled.
+ */
+public final class LatencyHistogram {
+    public static final int BUCKETS = 32;
+    private static final long NANOS_PER_MICRO = 1000;
+    private static final int LONG_BITS = 64;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Adds the duration of an execution.
+     *
+     * @param nanos the duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        counts[getBucket(nanos)].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Bucket where a duration is counted.
+     *
+     * @param nanos the duration in nanoseconds.
+     * @return the index of the bucket.
+     */
+    public static int getBucket(long nanos) {
+        final long micros = nanos / NANOS_PER_MICRO;
+        if (micros <= 0) {
+            return 0;
+        }
+        return Math.min(LONG_BITS - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+    }
+
+    /**
+     * Maximum duration of the executions counted on a bucket.
+     *
+     * @param bucket the index of the bucket.
+     * @return the duration in microseconds (exclusive), or {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long getUpperBoundMicros(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    public long[] getCounts() {
+        final long[] values = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            values[i] = counts[i].sum();
+        }
+        return values;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Discards all the durations. Executions recorded at the same time may be partially kept.
+     */
+    public void reset() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,134 @@
+package com.biit.plugins.metrics;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.exceptions.BulkheadFullException;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.MethodTimeoutException;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executions of a method of a plugin. Use {@link #start()} before the execution, {@link #failed(MethodInvocationException)}
+ * if it fails and {@link #finish(long)} always at the end:
+ * <pre>
+ * final long start = metrics.start();
+ * try {
+ *     return plugin.executeMethod(methodName);
+ * } catch (MethodInvocationException e) {
+ *     metrics.failed(e);
+ *     throw e;
+ * } finally {
+ *     metrics.finish(start);
+ * }
+ * </pre>
+ */
+public final class MethodMetrics {
+    //Used when the metrics are disabled. Records nothing.
+    public static final MethodMetrics DISABLED = new MethodMetrics(null, false);
+
+    private final String name;
+    private final boolean enabled;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public MethodMetrics(String name) {
+        this(name, true);
+    }
+
+    private MethodMetrics(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the beginning of an execution.
+     *
+     * @return the value to pass to {@link #finish(long)}.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Counts a finished execution, successful or not, and its duration.
+     *
+     * @param start the value returned by {@link #start()}.
+     */
+    public void finish(long start) {
+        if (enabled) {
+            calls.increment();
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Counts a failed execution. Timeouts and executions rejected by a bulkhead are also counted as errors.
+     *
+     * @param e the reason of the failure, or null if the plugin has thrown an unexpected exception.
+     */
+    public void failed(MethodInvocationException e) {
+        if (!enabled) {
+            return;
+        }
+        errors.increment();
+        if (e instanceof MethodTimeoutException) {
+            timeouts.increment();
+        } else if (e instanceof BulkheadFullException) {
+            rejected.increment();
+        }
+    }
+
+    /**
+     * Current values, that can be read while the method is being executed.
+     *
+     * @return the statistics of the method.
+     */
+    public InvocationStatistics getStatistics() {
+        return new InvocationStatistics(calls.sum(), errors.sum(), timeouts.sum(), rejected.sum(), latency.getTotalNanos(),
+                latency.getMaxNanos(), latency.getCounts());
+    }
+
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        timeouts.reset();
+        rejected.reset();
+        latency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,142 @@
+package com.biit.plugins.metrics;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.logger.PluginManagerLogger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link MethodMetrics} of each method of each plugin, created on its first execution. The metrics are kept
+ * if the plugin is reloaded, until {@link #reset(String)} is used. Only {@link #MAX_METHODS} methods of each plugin
+ * are measured, as the names come from the callers and can be of methods that do not exist.
+ */
+public class PluginMetricsRegistry {
+    public static final int MAX_METHODS = 1000;
+
+    private final boolean enabled;
+    private final Map<String, Map<String, MethodMetrics>> metrics = new ConcurrentHashMap<>();
+    //Plugins whose limit of methods has been reported.
+    private final Set<String> limitedPlugins = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param enabled if false, nothing is recorded.
+     */
+    public PluginMetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the metrics of a method. Only the first execution creates them.
+     *
+     * @param pluginName the name of the plugin.
+     * @param methodName the name of the method.
+     * @return the metrics, never null. {@link MethodMetrics#DISABLED} if the plugin has already
+     * {@link #MAX_METHODS} methods measured.
+     */
+    public MethodMetrics get(String pluginName, String methodName) {
+        if (!enabled || pluginName == null || methodName == null) {
+            return MethodMetrics.DISABLED;
+        }
+        Map<String, MethodMetrics> pluginMetrics = metrics.get(pluginName);
+        if (pluginMetrics == null) {
+            pluginMetrics = metrics.computeIfAbsent(pluginName, name -> new ConcurrentHashMap<>());
+        }
+        final MethodMetrics methodMetrics = pluginMetrics.get(methodName);
+        if (methodMetrics != null) {
+            return methodMetrics;
+        }
+        if (pluginMetrics.size() >= MAX_METHODS) {
+            if (limitedPlugins.add(pluginName)) {
+                PluginManagerLogger.warning(this.getClass().getName(),
+                        "Metrics of '{}' methods created for plugin '{}'. Next methods are not measured.", MAX_METHODS, pluginName);
+            }
+            return MethodMetrics.DISABLED;
+        }
+        return pluginMetrics.computeIfAbsent(methodName, name -> new MethodMetrics(pluginName + "." + name));
+    }
+
+    /**
+     * Statistics of the methods executed of a plugin.
+     *
+     * @param pluginName the name of the plugin.
+     * @return the statistics by method name.
+     */
+    public Map<String, InvocationStatistics> getStatistics(String pluginName) {
+        final Map<String, InvocationStatistics> statistics = new TreeMap<>();
+        final Map<String, MethodMetrics> pluginMetrics = metrics.get(pluginName);
+        if (pluginMetrics != null) {
+            pluginMetrics.forEach((methodName, methodMetrics) -> statistics.put(methodName, methodMetrics.getStatistics()));
+        }
+        return statistics;
+    }
+
+    /**
+     * Statistics of all the methods executed.
+     *
+     * @return the statistics by plugin name and method name.
+     */
+    public Map<String, Map<String, InvocationStatistics>> getStatistics() {
+        final Map<String, Map<String, InvocationStatistics>> statistics = new TreeMap<>();
+        for (String pluginName : metrics.keySet()) {
+            statistics.put(pluginName, getStatistics(pluginName));
+        }
+        return statistics;
+    }
+
+    /**
+     * Statistics of all the methods of a plugin together.
+     *
+     * @param pluginName the name of the plugin.
+     * @return the sum of the statistics of its methods.
+     */
+    public InvocationStatistics getPluginStatistics(String pluginName) {
+        InvocationStatistics total = new InvocationStatistics(0, 0, 0, 0, 0, 0, new long[LatencyHistogram.BUCKETS]);
+        for (InvocationStatistics statistics : getStatistics(pluginName).values()) {
+            total = total.plus(statistics);
+        }
+        return total;
+    }
+
+    /**
+     * Sets to zero the metrics of a plugin.
+     *
+     * @param pluginName the name of the plugin.
+     */
+    public void reset(String pluginName) {
+        final Map<String, MethodMetrics> pluginMetrics = metrics.get(pluginName);
+        if (pluginMetrics != null) {
+            pluginMetrics.values().forEach(MethodMetrics::reset);
+        }
+    }
+
+    public void reset() {
+        metrics.keySet().forEach(this::reset);
+    }
+}
@@ -0,0 +1,276 @@
+package com.biit.plugins.registry;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.IPlugin;
+import org.pf4j.PluginManager;
+import org.pf4j.PluginWrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the plugins by interface and plugin name. It also keeps the extensions of each interface, that are created
+ * only once while the plugins do not change. The index is built when the plugins are started, and is replaced
+ * by a new one each time that a plugin is loaded, started, stopped or unloaded. Searching a plugin is a hash lookup.
+ * The index also remembers the methods that plugins do not have, until it is replaced.<br>
+ * The index has a single instance of each extension, whatever the {@link com.biit.plugins.configuration.ExtensionScope}
+ * is. The controller applies the scope to the plugins that it returns.
+ * <br>
+ * Each plugin of the index knows the id of the plugin that provides it, so a single plugin can be removed from
+ * or added to the index without obtaining again the extensions of the other plugins.
+ */
+public class PluginRegistry {
+    //Limit of missing methods remembered for each plugin, as the names come from the callers.
+    private static final int MAX_MISSING_METHODS = 1000;
+
+    private final PluginManager pluginManager;
+    private volatile Snapshot snapshot;
+
+    public PluginRegistry(PluginManager pluginManager) {
+        this.pluginManager = pluginManager;
+        this.snapshot = new Snapshot(0);
+    }
+
+    /**
+     * Plugin names are case-insensitive.
+     *
+     * @param pluginName the name of the plugin.
+     * @return the key used on the index.
+     */
+    public static String normalize(String pluginName) {
+        if (pluginName == null) {
+            return null;
+        }
+        return pluginName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Search a plugin that implements the interface and has the name.
+     *
+     * @param pluginInterface interface of the plugin.
+     * @param pluginName      name of the plugin (case-insensitive).
+     * @return the plugin or null if not exists.
+     */
+    public <T extends IPlugin> T find(Class<T> pluginInterface, String pluginName) {
+        if (pluginName == null) {
+            return null;
+        }
+        return pluginInterface.cast(snapshot.getIndex(pluginInterface).get(normalize(pluginName)));
+    }
+
+    /**
+     * Gets all the extensions that implement the interface. The list is obtained from the plugin manager only once
+     * while the plugins do not change.
+     *
+     * @param pluginInterface interface of the extensions.
+     * @return an immutable list.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getExtensions(Class<T> pluginInterface) {
+        return (List<T>) snapshot.getExtensions(pluginInterface);
+    }
+
+    /**
+     * Checks if a method has been already reported as missing on a plugin.
+     *
+     * @param plugin     the plugin.
+     * @param methodName the name of the method.
+     * @return true if {@link #addMissingMethod(IPlugin, String)} has been called for them since the plugins changed.
+     */
+    public boolean isMissingMethod(IPlugin plugin, String methodName) {
+        final Set<String> missingMethods = snapshot.missingMethods.get(plugin);
+        return missingMethods != null && missingMethods.contains(methodName);
+    }
+
+    /**
+     * Remembers that a plugin has not a method, until the plugins change.
+     *
+     * @param plugin     the plugin.
+     * @param methodName the name of the method.
+     */
+    public void addMissingMethod(IPlugin plugin, String methodName) {
+        final Set<String> missingMethods = snapshot.missingMethods.computeIfAbsent(plugin, key -> ConcurrentHashMap.newKeySet());
+        if (missingMethods.size() < MAX_MISSING_METHODS) {
+            missingMethods.add(methodName);
+        }
+    }
+
+    /**
+     * Plugins of the current index, without building it.
+     *
+     * @return the plugins, or an empty list if the index has not been built yet.
+     */
+    public List<IPlugin> getIndexedPlugins() {
+        final List<IPlugin> plugins = snapshot.plugins;
+        return plugins != null ? plugins : Collections.emptyList();
+    }
+
+    /**
+     * Each time the index is replaced, the generation is increased.
+     *
+     * @return the generation of the current index.
+     */
+    public long getGeneration() {
+        return snapshot.generation;
+    }
+
+    /**
+     * Discards the current index. The new one will be built on the first search.
+     */
+    public synchronized void invalidate() {
+        snapshot = new Snapshot(snapshot.generation + 1);
+    }
+
+    /**
+     * Builds a new index from the plugins started and replaces the current one.
+     */
+    public synchronized void rebuild() {
+        final Snapshot newSnapshot = new Snapshot(snapshot.generation + 1);
+        newSnapshot.getPlugins();
+        snapshot = newSnapshot;
+    }
+
+    /**
+     * Replaces the index by a new one without the extensions of a plugin. The other extensions are the same.
+     *
+     * @param pluginId the id of the plugin.
+     */
+    public synchronized void removePlugin(String pluginId) {
+        final Snapshot current = snapshot;
+        final List<IPlugin> plugins = new ArrayList<>();
+        final List<String> owners = new ArrayList<>();
+        for (int i = 0; i < current.getPlugins().size(); i++) {
+            if (!pluginId.equals(current.owners.get(i))) {
+                plugins.add(current.plugins.get(i));
+                owners.add(current.owners.get(i));
+            }
+        }
+        snapshot = new Snapshot(current.generation + 1, plugins, owners);
+    }
+
+    /**
+     * Replaces the index by a new one that also has the extensions of a plugin already started. The other extensions
+     * are the same.
+     *
+     * @param pluginId the id of the plugin.
+     */
+    public synchronized void addPlugin(String pluginId) {
+        final Snapshot current = snapshot;
+        final List<IPlugin> plugins = new ArrayList<>(current.getPlugins());
+        final List<String> owners = new ArrayList<>(current.owners);
+        for (IPlugin plugin : pluginManager.getExtensions(IPlugin.class, pluginId)) {
+            plugins.add(plugin);
+            owners.add(pluginId);
+        }
+        snapshot = new Snapshot(current.generation + 1, plugins, owners);
+    }
+
+    /**
+     * Immutable view of the plugins. The index of each interface is computed only once.
+     */
+    private final class Snapshot {
+        private final long generation;
+        private final Map<Class<?>, Map<String, IPlugin>> indexes = new ConcurrentHashMap<>();
+        private final Map<Class<?>, List<?>> extensions = new ConcurrentHashMap<>();
+        private final Map<IPlugin, Set<String>> missingMethods = new ConcurrentHashMap<>();
+        private volatile List<IPlugin> plugins;
+        //Id of the plugin of each extension, or null if it is not provided by a plugin. Assigned before the plugins.
+        private List<String> owners;
+
+        private Snapshot(long generation) {
+            this.generation = generation;
+        }
+
+        private Snapshot(long generation, List<IPlugin> plugins, List<String> owners) {
+            this.generation = generation;
+            this.owners = owners;
+            this.plugins = Collections.unmodifiableList(plugins);
+        }
+
+        private List<IPlugin> getPlugins() {
+            if (plugins == null) {
+                synchronized (this) {
+                    if (plugins == null) {
+                        final List<IPlugin> pluginsFound = new ArrayList<>(pluginManager.getExtensions(IPlugin.class));
+                        final List<String> ownersFound = new ArrayList<>(pluginsFound.size());
+                        for (IPlugin plugin : pluginsFound) {
+                            final PluginWrapper pluginWrapper = pluginManager.whichPlugin(plugin.getClass());
+                            ownersFound.add(pluginWrapper != null ? pluginWrapper.getPluginId() : null);
+                        }
+                        owners = ownersFound;
+                        plugins = Collections.unmodifiableList(pluginsFound);
+                    }
+                }
+            }
+            return plugins;
+        }
+
+        private List<?> getExtensions(Class<?> pluginInterface) {
+            if (pluginInterface == IPlugin.class) {
+                return getPlugins();
+            }
+            final List<?> extensionsFound = extensions.get(pluginInterface);
+            if (extensionsFound != null) {
+                return extensionsFound;
+            }
+            return extensions.computeIfAbsent(pluginInterface, this::createExtensions);
+        }
+
+        private List<?> createExtensions(Class<?> pluginInterface) {
+            if (!IPlugin.class.isAssignableFrom(pluginInterface)) {
+                return Collections.unmodifiableList(new ArrayList<>(pluginManager.getExtensions(pluginInterface)));
+            }
+            //Same instances for all the plugin interfaces.
+            final List<IPlugin> pluginsFound = new ArrayList<>();
+            for (IPlugin plugin : getPlugins()) {
+                if (pluginInterface.isInstance(plugin)) {
+                    pluginsFound.add(plugin);
+                }
+            }
+            return Collections.unmodifiableList(pluginsFound);
+        }
+
+        private Map<String, IPlugin> getIndex(Class<?> pluginInterface) {
+            final Map<String, IPlugin> index = indexes.get(pluginInterface);
+            if (index != null) {
+                return index;
+            }
+            return indexes.computeIfAbsent(pluginInterface, this::createIndex);
+        }
+
+        private Map<String, IPlugin> createIndex(Class<?> pluginInterface) {
+            final Map<String, IPlugin> index = new LinkedHashMap<>();
+            for (Object plugin : getExtensions(pluginInterface)) {
+                //As previously, if two plugins have the same name, the first one is used.
+                index.putIfAbsent(normalize(((IPlugin) plugin).getPluginName()), (IPlugin) plugin);
+            }
+            return Collections.unmodifiableMap(index);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.biit.plugins.reload;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.logger.PluginManagerLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the plugins' folders and reports each plugin jar added, replaced or deleted. As copying a jar produces
+ * several events, a jar is reported only when it has not changed during some time. The changes are reported on the
+ * thread of the watcher, one by one.
+ */
+public class PluginDirectoryWatcher implements Closeable {
+    private static final String PLUGIN_EXTENSION = ".jar";
+    private static final String THREAD_NAME = "plugin-watcher";
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final long delayNanos;
+    private final Consumer<Path> changeListener;
+    //Jars changed and time of their last event. Only used by the thread of the watcher.
+    private final Map<Path, Long> pendingChanges = new HashMap<>();
+    private final Thread thread;
+
+    /**
+     * @param folders        the folders watched. Folders that do not exist are ignored.
+     * @param delayMillis    milliseconds without changes on a jar before reporting it.
+     * @param changeListener receives the path of each jar changed. If the file does not exist, it has been deleted.
+     * @throws IOException if the folders cannot be watched.
+     */
+    public PluginDirectoryWatcher(Collection<Path> folders, long delayMillis, Consumer<Path> changeListener) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        this.changeListener = changeListener;
+        for (Path folder : folders) {
+            if (Files.isDirectory(folder)) {
+                final WatchKey key = folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, folder);
+                PluginManagerLogger.info(this.getClass().getName(), "Watching folder '{}' for plugin changes.", folder);
+            }
+        }
+        this.thread = new Thread(this::watch, THREAD_NAME);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                final WatchKey key = pendingChanges.isEmpty() ? watchService.take()
+                        : watchService.poll(delayNanos, TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    registerEvents(key);
+                }
+                reportChanges();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            //Closed.
+        }
+    }
+
+    private void registerEvents(WatchKey key) {
+        final Path folder = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || folder == null) {
+                continue;
+            }
+            final Path file = folder.resolve((Path) event.context());
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(PLUGIN_EXTENSION)) {
+                pendingChanges.put(file, System.nanoTime());
+            }
+        }
+        key.reset();
+    }
+
+    private void reportChanges() {
+        final long now = System.nanoTime();
+        final Iterator<Map.Entry<Path, Long>> iterator = pendingChanges.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Path, Long> change = iterator.next();
+            if (now - change.getValue() >= delayNanos) {
+                iterator.remove();
+                try {
+                    changeListener.accept(change.getKey());
+                } catch (RuntimeException e) {
+                    PluginManagerLogger.errorMessage(this.getClass().getName(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.pf4j.LegacyExtensionFinder;
+import org.pf4j.PluginManager;
+import org.pf4j.PluginState;
+import org.pf4j.PluginStateEvent;
+import org.pf4j.PluginWrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the extensions' index of each plugin from the {@link PluginStartupCache} when the jar has not changed, instead
+ * of opening the jar. If any plugin is not on the cache, all the indexes are read as usual and stored on the cache.
+ * Unloaded plugins are removed from the cache, so a jar replaced while running is checked again when it is loaded.
+ */
+public class CachedExtensionFinder extends LegacyExtensionFinder {
+    private final PluginStartupCache startupCache;
+
+    public CachedExtensionFinder(PluginManager pluginManager, PluginStartupCache startupCache) {
+        super(pluginManager);
+        this.startupCache = startupCache;
+    }
+
+    @Override
+    public Map<String, Set<String>> readPluginsStorages() {
+        final Map<String, Set<String>> cachedStorages = new LinkedHashMap<>();
+        for (PluginWrapper plugin : pluginManager.getPlugins()) {
+            final Set<String> extensions = startupCache.getExtensions(plugin.getPluginPath());
+            if (extensions == null) {
+                return readAndCachePluginsStorages();
+            }
+            cachedStorages.put(plugin.getPluginId(), extensions);
+        }
+        return cachedStorages;
+    }
+
+    @Override
+    public void pluginStateChanged(PluginStateEvent event) {
+        if (event.getPluginState() == PluginState.UNLOADED) {
+            startupCache.remove(event.getPlugin().getPluginPath());
+        }
+        super.pluginStateChanged(event);
+    }
+
+    private Map<String, Set<String>> readAndCachePluginsStorages() {
+        final Map<String, Set<String>> storages = super.readPluginsStorages();
+        for (PluginWrapper plugin : pluginManager.getPlugins()) {
+            final Set<String> extensions = storages.get(plugin.getPluginId());
+            if (extensions != null) {
+                startupCache.putExtensions(plugin.getPluginPath(), extensions);
+            }
+        }
+        return storages;
+    }
+}
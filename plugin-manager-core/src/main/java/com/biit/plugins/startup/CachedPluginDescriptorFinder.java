@@ -0,0 +1,59 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.pf4j.PluginDescriptor;
+import org.pf4j.PluginDescriptorFinder;
+
+import java.nio.file.Path;
+
+/**
+ * Returns the descriptors stored on the {@link PluginStartupCache} for the jars that have not changed. Other
+ * descriptors are read by the original finder and stored on the cache.
+ */
+public class CachedPluginDescriptorFinder implements PluginDescriptorFinder {
+    private final PluginDescriptorFinder finder;
+    private final PluginStartupCache startupCache;
+
+    public CachedPluginDescriptorFinder(PluginDescriptorFinder finder, PluginStartupCache startupCache) {
+        this.finder = finder;
+        this.startupCache = startupCache;
+    }
+
+    @Override
+    public boolean isApplicable(Path pluginPath) {
+        return finder.isApplicable(pluginPath);
+    }
+
+    @Override
+    public PluginDescriptor find(Path pluginPath) {
+        final PluginDescriptor cachedDescriptor = startupCache.getDescriptor(pluginPath);
+        if (cachedDescriptor != null) {
+            return cachedDescriptor;
+        }
+        final PluginDescriptor descriptor = finder.find(pluginPath);
+        if (descriptor != null) {
+            startupCache.putDescriptor(pluginPath, descriptor);
+        }
+        return descriptor;
+    }
+}
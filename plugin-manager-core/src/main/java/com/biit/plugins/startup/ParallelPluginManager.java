@@ -0,0 +1,100 @@
+package com.biit.plugins.startup;
+
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.context.PluginParentContextAware;
+import org.pf4j.DefaultPluginManager;
+import org.springframework.context.ApplicationContext;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * {@link DefaultPluginManager} that reads the descriptors of the plugins in parallel and starts them in parallel, respecting the
+ * dependencies between them. The class loaders of the plugins are still created one after another.
+ * See {@link ParallelPluginStartup}.
+ */
+public class ParallelPluginManager extends DefaultPluginManager implements PluginParentContextAware {
+    private final ParallelPluginManagerSupport support;
+
+    /**
+     * @param parallelism  maximum number of descriptors read or plugins started at the same time. Zero for one thread
+     *                     for each processor.
+     * @param pluginsRoots the plugins' folders.
+     */
+    public ParallelPluginManager(int parallelism, Path... pluginsRoots) {
+        super(pluginsRoots);
+        this.support = new ParallelPluginManagerSupport(this, parallelism, pluginDescriptorFinder,
+                plugin -> startedPlugins.add(plugin), this::firePluginStateEvent);
+        this.pluginDescriptorFinder = support.getDescriptorFinder();
+    }
+
+    public PluginStartupCache getStartupCache() {
+        return support.getStartupCache();
+    }
+
+    /**
+     * Uses a cache for the descriptors and the extensions' indexes of the jars that have not changed since the last
+     * startup. Must be set before loading the plugins.
+     *
+     * @param startupCache the cache.
+     */
+    public void setStartupCache(PluginStartupCache startupCache) {
+        extensionFinder = support.setStartupCache(startupCache, extensionFinder);
+    }
+
+    /**
+     * The descriptors of all the plugins are read in parallel before loading them.
+     */
+    @Override
+    public void loadPlugins() {
+        support.loadPlugins(pluginRepository, super::loadPlugins);
+    }
+
+    /**
+     * The plugins are started in waves, each one after all its dependencies.
+     */
+    @Override
+    public void startPlugins() {
+        support.startPlugins(resolvedPlugins);
+    }
+
+    /**
+     * Plugins that have failed on the last {@link #startPlugins()}.
+     *
+     * @return the error of each plugin by plugin id.
+     */
+    public Map<String, Throwable> getStartFailures() {
+        return support.getStartFailures();
+    }
+
+    @Override
+    public ApplicationContext getParentContext() {
+        return support.getParentContext();
+    }
+
+    @Override
+    public void setParentContext(ApplicationContext parentContext) {
+        support.setParentContext(parentContext);
+    }
+}
@@ -0,0 +1,155 @@
+package com.biit.plugins.startup;
+
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.logger.PluginManagerLogger;
+import org.pf4j.ExtensionFinder;
+import org.pf4j.PluginDescriptorFinder;
+import org.pf4j.PluginManager;
+import org.pf4j.PluginRepository;
+import org.pf4j.PluginState;
+import org.pf4j.PluginStateEvent;
+import org.pf4j.PluginStateListener;
+import org.pf4j.PluginWrapper;
+import org.springframework.context.ApplicationContext;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Parallel startup shared by {@link ParallelPluginManager} and {@link ParallelSpringPluginManager}, that only differ on
+ * their superclass. The managers keep the protected state of pf4j and give access to it with the callbacks.
+ */
+final class ParallelPluginManagerSupport {
+    private final PluginManager pluginManager;
+    private final ParallelPluginStartup startup;
+    private final PrefetchedPluginDescriptorFinder descriptorFinder;
+    private final Consumer<PluginWrapper> startedPlugins;
+    private final Consumer<PluginStateEvent> stateEvents;
+    private final Map<String, Throwable> startFailures = Collections.synchronizedMap(new LinkedHashMap<>());
+    private PluginStartupCache startupCache;
+    private volatile ApplicationContext parentContext;
+
+    /**
+     * @param pluginManager    the manager that uses it.
+     * @param parallelism      maximum number of descriptors read or plugins started at the same time.
+     * @param descriptorFinder the original descriptor finder of the manager.
+     * @param startedPlugins   adds a plugin to the started plugins of the manager.
+     * @param stateEvents      fires a state event on the manager.
+     */
+    ParallelPluginManagerSupport(PluginManager pluginManager, int parallelism, PluginDescriptorFinder descriptorFinder,
+                                 Consumer<PluginWrapper> startedPlugins, Consumer<PluginStateEvent> stateEvents) {
+        this.pluginManager = pluginManager;
+        this.startup = new ParallelPluginStartup(parallelism);
+        this.descriptorFinder = new PrefetchedPluginDescriptorFinder(descriptorFinder);
+        this.startedPlugins = startedPlugins;
+        this.stateEvents = stateEvents;
+    }
+
+    PluginDescriptorFinder getDescriptorFinder() {
+        return descriptorFinder;
+    }
+
+    ApplicationContext getParentContext() {
+        return parentContext;
+    }
+
+    void setParentContext(ApplicationContext parentContext) {
+        this.parentContext = parentContext;
+    }
+
+    PluginStartupCache getStartupCache() {
+        return startupCache;
+    }
+
+    /**
+     * Replaces the extension finder of the manager by one that uses the cache.
+     *
+     * @param cache           the cache.
+     * @param extensionFinder the current extension finder of the manager.
+     * @return the extension finder to use.
+     */
+    ExtensionFinder setStartupCache(PluginStartupCache cache, ExtensionFinder extensionFinder) {
+        this.startupCache = cache;
+        if (extensionFinder instanceof PluginStateListener) {
+            pluginManager.removePluginStateListener((PluginStateListener) extensionFinder);
+        }
+        final CachedExtensionFinder cachedExtensionFinder = new CachedExtensionFinder(pluginManager, cache);
+        pluginManager.addPluginStateListener(cachedExtensionFinder);
+        return cachedExtensionFinder;
+    }
+
+    /**
+     * Reads the descriptors of all the plugins in parallel and then loads the plugins with them.
+     *
+     * @param pluginRepository the repository of the manager.
+     * @param loadPlugins      the loading of the superclass, that creates the class loader of each plugin in turn.
+     */
+    void loadPlugins(PluginRepository pluginRepository, Runnable loadPlugins) {
+        if (pluginManager.getPluginsRoots().stream().anyMatch(Files::exists)) {
+            final PluginDescriptorFinder finder = startupCache != null
+                    ? new CachedPluginDescriptorFinder(descriptorFinder.getFinder(), startupCache) : descriptorFinder.getFinder();
+            descriptorFinder.prefetch(startup.findDescriptors(pluginRepository.getPluginPaths(), finder));
+        }
+        try {
+            loadPlugins.run();
+        } finally {
+            descriptorFinder.clear();
+        }
+    }
+
+    void startPlugins(List<PluginWrapper> resolvedPlugins) {
+        startFailures.clear();
+        startup.startPlugins(new ArrayList<>(resolvedPlugins), this::pluginStarted);
+        if (startupCache != null) {
+            startupCache.save();
+        }
+    }
+
+    Map<String, Throwable> getStartFailures() {
+        return new LinkedHashMap<>(startFailures);
+    }
+
+    private void pluginStarted(PluginWrapper plugin, Throwable error) {
+        final PluginState pluginState = plugin.getPluginState();
+        if (error == null) {
+            PluginManagerLogger.debug(pluginManager.getClass().getName(), "Plugin '{}' started.", plugin.getPluginId());
+            plugin.setPluginState(PluginState.STARTED);
+            plugin.setFailedException(null);
+            startedPlugins.accept(plugin);
+        } else {
+            PluginManagerLogger.severe(pluginManager.getClass().getName(), "Plugin '{}' cannot be started: {}",
+                    plugin.getPluginId(), error.getMessage());
+            PluginManagerLogger.errorMessage(pluginManager.getClass().getName(), error);
+            plugin.setPluginState(PluginState.FAILED);
+            plugin.setFailedException(error);
+            startFailures.put(plugin.getPluginId(), error);
+        }
+        stateEvents.accept(new PluginStateEvent(pluginManager, plugin, pluginState));
+    }
+}
@@ -0,0 +1,220 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.logger.PluginManagerLogger;
+import org.pf4j.PluginDependency;
+import org.pf4j.PluginDescriptor;
+import org.pf4j.PluginDescriptorFinder;
+import org.pf4j.PluginRuntimeException;
+import org.pf4j.PluginState;
+import org.pf4j.PluginWrapper;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads the descriptors and starts the plugins on a bounded pool of threads. The plugins are started in waves over the
+ * dependency graph: each wave has the plugins whose dependencies are on previous waves, and all the plugins of a wave
+ * are started in parallel. The total time is near the time of the longest chain of dependencies.
+ */
+public class ParallelPluginStartup {
+    private static final String THREADS_PREFIX = "plugin-startup-";
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism maximum number of descriptors read or plugins started at the same time. Zero for one thread
+     *                    for each processor.
+     */
+    public ParallelPluginStartup(int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Groups the plugins by their depth on the dependency graph. Dependencies that are not on the list are ignored.
+     *
+     * @param plugins the plugins, sorted with the dependencies first as the plugin manager does.
+     * @return the waves in starting order.
+     */
+    public static List<List<PluginWrapper>> getWaves(List<PluginWrapper> plugins) {
+        final Map<String, Integer> levels = new HashMap<>();
+        final List<List<PluginWrapper>> waves = new ArrayList<>();
+        for (PluginWrapper plugin : plugins) {
+            int level = 0;
+            for (PluginDependency dependency : plugin.getDescriptor().getDependencies()) {
+                final Integer dependencyLevel = levels.get(dependency.getPluginId());
+                if (dependencyLevel != null) {
+                    level = Math.max(level, dependencyLevel + 1);
+                }
+            }
+            levels.put(plugin.getPluginId(), level);
+            while (waves.size() <= level) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(level).add(plugin);
+        }
+        return waves;
+    }
+
+    /**
+     * Reads the descriptors of the plugins in parallel. Plugins whose descriptor cannot be read are skipped; the
+     * plugin manager reports the error when it tries to load them.
+     *
+     * @param pluginPaths the jars or folders of the plugins.
+     * @param finder      the finder used by the plugin manager.
+     * @return the descriptors found by path.
+     */
+    public Map<Path, PluginDescriptor> findDescriptors(List<Path> pluginPaths, PluginDescriptorFinder finder) {
+        final Map<Path, PluginDescriptor> descriptors = new HashMap<>();
+        if (pluginPaths.isEmpty()) {
+            return descriptors;
+        }
+        final ExecutorService executor = createExecutor(pluginPaths.size());
+        try {
+            final Map<Path, Future<PluginDescriptor>> searches = new LinkedHashMap<>();
+            for (Path pluginPath : pluginPaths) {
+                searches.put(pluginPath, executor.submit(() -> finder.isApplicable(pluginPath) ? finder.find(pluginPath) : null));
+            }
+            for (Map.Entry<Path, Future<PluginDescriptor>> search : searches.entrySet()) {
+                try {
+                    final PluginDescriptor descriptor = search.getValue().get();
+                    if (descriptor != null) {
+                        descriptors.put(search.getKey(), descriptor);
+                    }
+                } catch (ExecutionException e) {
+                    PluginManagerLogger.debug(this.getClass().getName(), "No descriptor read from '{}'.", search.getKey());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return descriptors;
+    }
+
+    /**
+     * Starts the plugins wave by wave. Plugins disabled or already started are skipped. A plugin is not started if
+     * any of its required dependencies has not started.<br>
+     * The result of each plugin is reported on the calling thread, in the same order as the list, once its wave has
+     * finished; the listener must update the state of the plugin, as the next waves depend on it.
+     *
+     * @param plugins  the plugins, sorted with the dependencies first as the plugin manager does.
+     * @param listener receives each plugin started, and the error if it has failed or null if not.
+     */
+    public void startPlugins(List<PluginWrapper> plugins, BiConsumer<PluginWrapper, Throwable> listener) {
+        final Map<String, PluginWrapper> pluginsById = new HashMap<>();
+        for (PluginWrapper plugin : plugins) {
+            pluginsById.put(plugin.getPluginId(), plugin);
+        }
+        final long start = System.currentTimeMillis();
+        final List<List<PluginWrapper>> waves = getWaves(plugins);
+        final ExecutorService executor = createExecutor(getLargestWave(waves));
+        try {
+            for (List<PluginWrapper> wave : waves) {
+                final Map<PluginWrapper, Future<Throwable>> starts = new LinkedHashMap<>();
+                for (PluginWrapper plugin : wave) {
+                    if (plugin.getPluginState() == PluginState.DISABLED || plugin.getPluginState() == PluginState.STARTED) {
+                        continue;
+                    }
+                    final PluginRuntimeException dependencyError = checkDependencies(plugin, pluginsById);
+                    starts.put(plugin, dependencyError != null
+                            ? CompletableFuture.completedFuture(dependencyError)
+                            : executor.submit(() -> start(plugin)));
+                }
+                for (Map.Entry<PluginWrapper, Future<Throwable>> pluginStart : starts.entrySet()) {
+                    listener.accept(pluginStart.getKey(), getResult(pluginStart.getValue()));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        PluginManagerLogger.info(this.getClass().getName(), "Plugins started in '{}' waves in '{}' ms.", waves.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    private Throwable start(PluginWrapper plugin) {
+        try {
+            plugin.getPlugin().start();
+            return null;
+        } catch (Exception | LinkageError e) {
+            return e;
+        }
+    }
+
+    private PluginRuntimeException checkDependencies(PluginWrapper plugin, Map<String, PluginWrapper> pluginsById) {
+        for (PluginDependency dependency : plugin.getDescriptor().getDependencies()) {
+            final PluginWrapper dependencyPlugin = pluginsById.get(dependency.getPluginId());
+            if (!dependency.isOptional() && dependencyPlugin != null && dependencyPlugin.getPluginState() != PluginState.STARTED) {
+                return new PluginRuntimeException("Dependency '{}' of plugin '{}' has not started.", dependency.getPluginId(),
+                        plugin.getPluginId());
+            }
+        }
+        return null;
+    }
+
+    private Throwable getResult(Future<Throwable> pluginStart) {
+        try {
+            return pluginStart.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static int getLargestWave(List<List<PluginWrapper>> waves) {
+        int largest = 0;
+        for (List<PluginWrapper> wave : waves) {
+            largest = Math.max(largest, wave.size());
+        }
+        return largest;
+    }
+
+    private ExecutorService createExecutor(int tasks) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, THREADS_PREFIX + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, tasks)), threadFactory);
+    }
+}
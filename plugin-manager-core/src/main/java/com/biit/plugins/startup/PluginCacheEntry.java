@@ -0,0 +1,195 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.pf4j.DefaultPluginDescriptor;
+import org.pf4j.PluginDependency;
+import org.pf4j.PluginDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Information of a plugin jar stored on the {@link PluginStartupCache}: its descriptor and the classes of its
+ * extensions.
+ */
+public class PluginCacheEntry {
+    private String path;
+    private long size;
+    private long lastModified;
+    private String pluginId;
+    private String pluginDescription;
+    private String pluginClass;
+    private String version;
+    private String requires;
+    private String provider;
+    private String license;
+    private List<String> dependencies = new ArrayList<>();
+    private volatile Set<String> extensions;
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public String getPluginId() {
+        return pluginId;
+    }
+
+    public void setPluginId(String pluginId) {
+        this.pluginId = pluginId;
+    }
+
+    public String getPluginDescription() {
+        return pluginDescription;
+    }
+
+    public void setPluginDescription(String pluginDescription) {
+        this.pluginDescription = pluginDescription;
+    }
+
+    public String getPluginClass() {
+        return pluginClass;
+    }
+
+    public void setPluginClass(String pluginClass) {
+        this.pluginClass = pluginClass;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getRequires() {
+        return requires;
+    }
+
+    public void setRequires(String requires) {
+        this.requires = requires;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public String getLicense() {
+        return license;
+    }
+
+    public void setLicense(String license) {
+        this.license = license;
+    }
+
+    /**
+     * Dependencies with the format of the plugin descriptors, as {@code plugin-id@>=1.0.0} or {@code plugin-id?@*}
+     * for optional ones.
+     *
+     * @return the dependencies.
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<String> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Classes of the extensions of the plugin.
+     *
+     * @return the class names, or null if not known yet.
+     */
+    public Set<String> getExtensions() {
+        return extensions;
+    }
+
+    public void setExtensions(Set<String> extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     * Copies the fields of a descriptor.
+     *
+     * @param descriptor the descriptor read from the jar.
+     */
+    public void setDescriptor(PluginDescriptor descriptor) {
+        this.pluginId = descriptor.getPluginId();
+        this.pluginDescription = descriptor.getPluginDescription();
+        this.pluginClass = descriptor.getPluginClass();
+        this.version = descriptor.getVersion();
+        this.requires = descriptor.getRequires();
+        this.provider = descriptor.getProvider();
+        this.license = descriptor.getLicense();
+        final List<String> pluginDependencies = new ArrayList<>();
+        for (PluginDependency dependency : descriptor.getDependencies()) {
+            pluginDependencies.add(dependency.getPluginId() + (dependency.isOptional() ? "?" : "") + "@" + dependency.getPluginVersionSupport());
+        }
+        this.dependencies = pluginDependencies;
+    }
+
+    /**
+     * Creates the descriptor again.
+     *
+     * @return the descriptor, or null if the entry has no descriptor.
+     */
+    public PluginDescriptor toDescriptor() {
+        if (pluginId == null) {
+            return null;
+        }
+        final DefaultPluginDescriptor descriptor = new DefaultPluginDescriptor(pluginId, pluginDescription, pluginClass, version,
+                requires, provider, license);
+        if (dependencies != null) {
+            for (String dependency : dependencies) {
+                descriptor.addDependency(new PluginDependency(dependency));
+            }
+        }
+        return descriptor;
+    }
+}
@@ -0,0 +1,67 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.pf4j.PluginState;
+
+/**
+ * Whether a plugin can be used.
+ */
+public enum PluginReadiness {
+    /**
+     * Loaded, but not started yet.
+     */
+    STARTING,
+    /**
+     * Started and available.
+     */
+    READY,
+    /**
+     * Its start has failed.
+     */
+    FAILED,
+    /**
+     * Stopped or disabled.
+     */
+    STOPPED,
+    /**
+     * Registered, but not started until it is used. See {@link com.biit.plugins.configuration.PluginActivation#LAZY}.
+     */
+    INACTIVE;
+
+    /**
+     * @param pluginState the state of the plugin on the plugin manager.
+     * @return the readiness of the plugin.
+     */
+    public static PluginReadiness of(PluginState pluginState) {
+        if (pluginState == PluginState.STARTED) {
+            return READY;
+        }
+        if (pluginState == PluginState.FAILED) {
+            return FAILED;
+        }
+        if (pluginState == PluginState.STOPPED || pluginState == PluginState.DISABLED) {
+            return STOPPED;
+        }
+        return STARTING;
+    }
+}
@@ -0,0 +1,278 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.logger.PluginManagerLogger;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.pf4j.PluginDescriptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores on disk what is read from each plugin jar on startup: the descriptor and the classes of the extensions.
+ * Entries are stored by the SHA-256 of the jar, so a jar that has not changed is not scanned again on the next startup,
+ * and any change on the jar discards its entry. A jar with the same path, size and modification date than when it was
+ * last hashed is not hashed again, so a jar replaced while running is hashed again when it is loaded.<br>
+ * Only jar files are cached. Plugins deployed as folders are always read.
+ */
+public class PluginStartupCache {
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path cacheFile;
+    private final ObjectMapper objectMapper;
+    //Entries by hash.
+    private final Map<String, PluginCacheEntry> entries = new ConcurrentHashMap<>();
+    //Hash of each jar found, with the size and date it had when hashed.
+    private final Map<Path, JarHash> hashes = new ConcurrentHashMap<>();
+    private volatile boolean modified = false;
+
+    /**
+     * Creates the cache and reads the file if exists. A file that cannot be read is ignored and written again.
+     *
+     * @param cacheFile the file where the cache is stored.
+     */
+    public PluginStartupCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+        this.objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        read();
+    }
+
+    public Path getCacheFile() {
+        return cacheFile;
+    }
+
+    private void read() {
+        if (!Files.isRegularFile(cacheFile)) {
+            return;
+        }
+        try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+            final Map<String, PluginCacheEntry> storedEntries = objectMapper.readValue(inputStream, new TypeReference<>() {
+            });
+            if (storedEntries != null) {
+                entries.putAll(storedEntries);
+            }
+            PluginManagerLogger.debug(this.getClass().getName(), "Startup cache '{}' has '{}' plugins.", cacheFile, entries.size());
+        } catch (IOException | RuntimeException e) {
+            PluginManagerLogger.warning(this.getClass().getName(), "Startup cache '{}' cannot be read: {}", cacheFile, e.getMessage());
+            modified = true;
+        }
+    }
+
+    /**
+     * Gets the descriptor stored for a jar.
+     *
+     * @param pluginPath the jar.
+     * @return the descriptor, or null if the jar has changed or is not a jar.
+     */
+    public PluginDescriptor getDescriptor(Path pluginPath) {
+        final PluginCacheEntry entry = getEntry(pluginPath);
+        return entry != null ? entry.toDescriptor() : null;
+    }
+
+    public void putDescriptor(Path pluginPath, PluginDescriptor descriptor) {
+        final PluginCacheEntry entry = getOrCreateEntry(pluginPath);
+        if (entry != null) {
+            entry.setDescriptor(descriptor);
+            modified = true;
+        }
+    }
+
+    /**
+     * Gets the classes of the extensions stored for a jar.
+     *
+     * @param pluginPath the jar.
+     * @return the class names, or null if they are not stored.
+     */
+    public Set<String> getExtensions(Path pluginPath) {
+        final PluginCacheEntry entry = getEntry(pluginPath);
+        return entry != null ? entry.getExtensions() : null;
+    }
+
+    public void putExtensions(Path pluginPath, Set<String> extensions) {
+        final PluginCacheEntry entry = getOrCreateEntry(pluginPath);
+        if (entry != null) {
+            entry.setExtensions(new LinkedHashSet<>(extensions));
+            modified = true;
+        }
+    }
+
+    /**
+     * Forgets the hash of a jar, for example when its plugin is unloaded. The jar is checked again the next time it is
+     * loaded.
+     *
+     * @param pluginPath the jar.
+     */
+    public void remove(Path pluginPath) {
+        if (pluginPath != null) {
+            hashes.remove(pluginPath);
+        }
+    }
+
+    /**
+     * Writes the cache to disk if anything has changed. Entries of jars not found on this startup are removed. The file
+     * is replaced atomically, so a failure never leaves a broken cache.
+     */
+    public synchronized void save() {
+        final Set<String> usedHashes = new HashSet<>();
+        for (JarHash jarHash : hashes.values()) {
+            usedHashes.add(jarHash.hash);
+        }
+        if (entries.keySet().retainAll(usedHashes)) {
+            modified = true;
+        }
+        if (!modified) {
+            return;
+        }
+        try {
+            final Path parent = cacheFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            final Path temporalFile = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writeValue(temporalFile.toFile(), new TreeMap<>(entries));
+                Files.move(temporalFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporalFile);
+            }
+            modified = false;
+            PluginManagerLogger.debug(this.getClass().getName(), "Startup cache '{}' saved with '{}' plugins.", cacheFile, entries.size());
+        } catch (IOException e) {
+            PluginManagerLogger.warning(this.getClass().getName(), "Startup cache '{}' cannot be written: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    private PluginCacheEntry getEntry(Path pluginPath) {
+        final String hash = getHash(pluginPath);
+        return hash != null ? entries.get(hash) : null;
+    }
+
+    private PluginCacheEntry getOrCreateEntry(Path pluginPath) {
+        final String hash = getHash(pluginPath);
+        if (hash == null) {
+            return null;
+        }
+        return entries.computeIfAbsent(hash, key -> {
+            final PluginCacheEntry entry = new PluginCacheEntry();
+            setFileAttributes(entry, pluginPath);
+            return entry;
+        });
+    }
+
+    private String getHash(Path pluginPath) {
+        if (pluginPath == null || !Files.isRegularFile(pluginPath)) {
+            return null;
+        }
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(pluginPath, BasicFileAttributes.class);
+        } catch (IOException e) {
+            PluginManagerLogger.warning(this.getClass().getName(), "Plugin '{}' cannot be read: {}", pluginPath, e.getMessage());
+            return null;
+        }
+        final long size = attributes.size();
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        final JarHash jarHash = hashes.get(pluginPath);
+        if (jarHash != null && jarHash.size == size && jarHash.lastModified == lastModified) {
+            return jarHash.hash;
+        }
+        final String hash = computeHash(pluginPath, attributes);
+        if (hash == null) {
+            hashes.remove(pluginPath);
+            return null;
+        }
+        hashes.put(pluginPath, new JarHash(size, lastModified, hash));
+        return hash;
+    }
+
+    private String computeHash(Path pluginPath, BasicFileAttributes attributes) {
+        try {
+            //Jar not changed since the last startup.
+            final String pathName = pluginPath.toAbsolutePath().toString();
+            for (Map.Entry<String, PluginCacheEntry> entry : entries.entrySet()) {
+                if (pathName.equals(entry.getValue().getPath()) && attributes.size() == entry.getValue().getSize()
+                        && attributes.lastModifiedTime().toMillis() == entry.getValue().getLastModified()) {
+                    return entry.getKey();
+                }
+            }
+            final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream inputStream = Files.newInputStream(pluginPath)) {
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            final String hash = HexFormat.of().formatHex(digest.digest());
+            //Same content on another path or with another date.
+            final PluginCacheEntry entry = entries.get(hash);
+            if (entry != null) {
+                setFileAttributes(entry, pluginPath);
+                modified = true;
+            }
+            return hash;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            PluginManagerLogger.warning(this.getClass().getName(), "Plugin '{}' cannot be hashed: {}", pluginPath, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void setFileAttributes(PluginCacheEntry entry, Path pluginPath) {
+        entry.setPath(pluginPath.toAbsolutePath().toString());
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(pluginPath, BasicFileAttributes.class);
+            entry.setSize(attributes.size());
+            entry.setLastModified(attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            entry.setSize(-1);
+        }
+    }
+
+    private static final class JarHash {
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+
+        private JarHash(long size, long lastModified, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.exceptions.PluginNotReadyException;
+import org.pf4j.PluginState;
+import org.pf4j.PluginWrapper;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Progress of the startup of the plugins, that can run in background. Until it finishes, the plugins cannot be
+ * searched, and the callers wait for it or fail immediately.
+ */
+public class PluginStartupState {
+    private final CompletableFuture<Void> startup = new CompletableFuture<>();
+    private final Map<String, PluginReadiness> pluginsReadiness = new ConcurrentHashMap<>();
+    private final long waitTimeoutMillis;
+
+    /**
+     * @param waitTimeoutMillis maximum time that a caller waits for the startup. Zero to fail immediately.
+     */
+    public PluginStartupState(long waitTimeoutMillis) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    public boolean isFinished() {
+        return startup.isDone();
+    }
+
+    /**
+     * Waits until the startup finishes.
+     *
+     * @param timeoutMillis maximum time waiting.
+     * @return true if the startup has finished.
+     */
+    public boolean awaitFinish(long timeoutMillis) {
+        if (startup.isDone()) {
+            return true;
+        }
+        if (timeoutMillis <= 0) {
+            return false;
+        }
+        try {
+            startup.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            //Checked below.
+        }
+        return startup.isDone();
+    }
+
+    /**
+     * Waits for the startup the time defined for the callers.
+     *
+     * @return true if the startup has finished.
+     */
+    public boolean waitForStartup() {
+        return awaitFinish(waitTimeoutMillis);
+    }
+
+    /**
+     * Waits for the startup the time defined for the callers.
+     *
+     * @throws PluginNotReadyException if the startup has not finished.
+     */
+    public void checkFinished() throws PluginNotReadyException {
+        if (!waitForStartup()) {
+            throw new PluginNotReadyException("Plugins are still being started.");
+        }
+    }
+
+    public void finish() {
+        startup.complete(null);
+    }
+
+    /**
+     * Updates the readiness of a plugin when its state changes.
+     *
+     * @param plugin the plugin.
+     */
+    public void update(PluginWrapper plugin) {
+        if (plugin.getPluginState() == PluginState.UNLOADED) {
+            pluginsReadiness.remove(plugin.getPluginId());
+        } else {
+            pluginsReadiness.put(plugin.getPluginId(), PluginReadiness.of(plugin.getPluginState()));
+        }
+    }
+
+    /**
+     * Readiness of each plugin loaded.
+     *
+     * @return the readiness by plugin id.
+     */
+    public Map<String, PluginReadiness> getPluginsReadiness() {
+        return new TreeMap<>(pluginsReadiness);
+    }
+}
@@ -0,0 +1,70 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.pf4j.PluginDescriptor;
+import org.pf4j.PluginDescriptorFinder;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Returns the descriptors already read in parallel by {@link ParallelPluginStartup}, so the plugin manager can load
+ * the plugins without reading each jar again. Paths without a descriptor read are searched by the original finder.
+ */
+public class PrefetchedPluginDescriptorFinder implements PluginDescriptorFinder {
+    private final PluginDescriptorFinder finder;
+    private final Map<Path, PluginDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    public PrefetchedPluginDescriptorFinder(PluginDescriptorFinder finder) {
+        this.finder = finder;
+    }
+
+    public PluginDescriptorFinder getFinder() {
+        return finder;
+    }
+
+    /**
+     * Adds descriptors already read. Each one is returned only once.
+     *
+     * @param prefetchedDescriptors the descriptors by path.
+     */
+    public void prefetch(Map<Path, PluginDescriptor> prefetchedDescriptors) {
+        descriptors.putAll(prefetchedDescriptors);
+    }
+
+    public void clear() {
+        descriptors.clear();
+    }
+
+    @Override
+    public boolean isApplicable(Path pluginPath) {
+        return descriptors.containsKey(pluginPath) || finder.isApplicable(pluginPath);
+    }
+
+    @Override
+    public PluginDescriptor find(Path pluginPath) {
+        final PluginDescriptor descriptor = descriptors.remove(pluginPath);
+        return descriptor != null ? descriptor : finder.find(pluginPath);
+    }
+}
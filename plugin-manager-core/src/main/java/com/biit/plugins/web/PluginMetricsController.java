@@ -0,0 +1,63 @@
+package com.biit.plugins.web;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.PluginController;
+import com.biit.plugins.metrics.InvocationStatistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Publishes the metrics of the executions of the plugins. Only available if {@code plugins.metrics.endpoint.enabled}
+ * is true. The path is defined by {@code plugins.metrics.endpoint.path}, by default {@code /plugins/metrics}.
+ */
+@RestController
+@ConditionalOnProperty(name = "plugins.metrics.endpoint.enabled", havingValue = "true")
+@RequestMapping("${plugins.metrics.endpoint.path:/plugins/metrics}")
+public class PluginMetricsController {
+    private final PluginController pluginController;
+
+    public PluginMetricsController(PluginController pluginController) {
+        this.pluginController = pluginController;
+    }
+
+    @GetMapping
+    public Map<String, Map<String, InvocationStatistics>> getStatistics() {
+        return pluginController.getMetrics().getStatistics();
+    }
+
+    @GetMapping("/{pluginName}")
+    public Map<String, InvocationStatistics> getStatistics(@PathVariable("pluginName") String pluginName) {
+        return pluginController.getInvocationStatistics(pluginName);
+    }
+
+    @PostMapping("/{pluginName}/reset")
+    public void reset(@PathVariable("pluginName") String pluginName) {
+        pluginController.getMetrics().reset(pluginName);
+    }
+}
@@ -0,0 +1,209 @@
+package com.biit.plugins.web;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.logger.PluginManagerLogger;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registers the rest controllers of the plugins on the {@link RequestMappingHandlerMapping} of the host, and removes
+ * them when the plugin stops. The mapping of each handler method is resolved once when registered, as the host does
+ * with its own controllers on startup, so the endpoints of the plugins are dispatched as the native ones.
+ * <p>
+ * The handler adapter and the exception resolvers of the host keep some metadata of each controller class the first
+ * time it handles a request. These entries are removed when the plugin is unregistered, as otherwise they keep the
+ * class loader of the plugin reachable after it is unloaded.
+ */
+public class PluginRequestMappings {
+    //Protected on the handler mapping. It is the same method used for the controllers of the host.
+    private static final Method GET_MAPPING_FOR_METHOD = findGetMappingForMethod();
+    //Private caches by controller class. Missing ones are skipped.
+    private static final List<Field> HANDLER_ADAPTER_CACHES = findCaches(RequestMappingHandlerAdapter.class,
+            "sessionAttributesHandlerCache", "initBinderCache", "modelAttributeCache");
+    private static final List<Field> EXCEPTION_RESOLVER_CACHES = findCaches(ExceptionHandlerExceptionResolver.class,
+            "exceptionHandlerCache");
+
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final RequestMappingHandlerAdapter handlerAdapter;
+    private final List<ExceptionHandlerExceptionResolver> exceptionResolvers;
+    //Mappings registered by plugin id.
+    private final Map<String, List<RequestMappingInfo>> pluginMappings = new HashMap<>();
+    //Controller classes registered by plugin id.
+    private final Map<String, Set<Class<?>>> pluginControllers = new HashMap<>();
+
+    public PluginRequestMappings(RequestMappingHandlerMapping handlerMapping) {
+        this(handlerMapping, null, Collections.emptyList());
+    }
+
+    /**
+     * @param handlerMapping     where the endpoints are registered.
+     * @param handlerAdapter     the adapter that invokes the endpoints. Its caches are cleaned when a plugin is
+     *                           unregistered. Can be null.
+     * @param exceptionResolvers resolvers of the exceptions thrown by the endpoints. Their caches are cleaned when a
+     *                           plugin is unregistered.
+     */
+    public PluginRequestMappings(RequestMappingHandlerMapping handlerMapping, RequestMappingHandlerAdapter handlerAdapter,
+                                 List<ExceptionHandlerExceptionResolver> exceptionResolvers) {
+        this.handlerMapping = handlerMapping;
+        this.handlerAdapter = handlerAdapter;
+        this.exceptionResolvers = new ArrayList<>(exceptionResolvers);
+    }
+
+    private static Method findGetMappingForMethod() {
+        final Method method = ReflectionUtils.findMethod(RequestMappingHandlerMapping.class, "getMappingForMethod", Method.class,
+                Class.class);
+        if (method != null) {
+            ReflectionUtils.makeAccessible(method);
+        }
+        return method;
+    }
+
+    private static List<Field> findCaches(Class<?> owner, String... names) {
+        final List<Field> caches = new ArrayList<>();
+        for (String name : names) {
+            final Field cache = ReflectionUtils.findField(owner, name, Map.class);
+            if (cache != null) {
+                ReflectionUtils.makeAccessible(cache);
+                caches.add(cache);
+            } else {
+                PluginManagerLogger.warning(PluginRequestMappings.class.getName(), "Cache '{}' of '{}' not found. "
+                        + "The controllers of unregistered plugins can be kept in memory.", name, owner.getSimpleName());
+            }
+        }
+        return caches;
+    }
+
+    /**
+     * Registers the handler methods of the controllers of a plugin. A plugin already registered is not registered
+     * again. Mappings that already exist on the host are skipped.
+     *
+     * @param pluginId    the id of the plugin.
+     * @param controllers the controllers.
+     * @return the number of handler methods registered.
+     */
+    public synchronized int register(String pluginId, Collection<?> controllers) {
+        if (pluginMappings.containsKey(pluginId) || GET_MAPPING_FOR_METHOD == null) {
+            return 0;
+        }
+        final List<RequestMappingInfo> mappings = new ArrayList<>();
+        final Set<Class<?>> controllerClasses = new LinkedHashSet<>();
+        for (Object controller : controllers) {
+            final Class<?> controllerClass = ClassUtils.getUserClass(controller.getClass());
+            controllerClasses.add(controllerClass);
+            final Map<Method, RequestMappingInfo> handlerMethods = MethodIntrospector.selectMethods(controllerClass,
+                    (MethodIntrospector.MetadataLookup<RequestMappingInfo>) method -> getMappingForMethod(method, controllerClass));
+            for (Map.Entry<Method, RequestMappingInfo> handlerMethod : handlerMethods.entrySet()) {
+                try {
+                    handlerMapping.registerMapping(handlerMethod.getValue(), controller,
+                            AopUtils.selectInvocableMethod(handlerMethod.getKey(), controllerClass));
+                    mappings.add(handlerMethod.getValue());
+                } catch (IllegalStateException e) {
+                    //Ambiguous mapping, as a controller of the host or of another plugin.
+                    PluginManagerLogger.warning(this.getClass().getName(), "Endpoint '{}' of plugin '{}' not registered: {}",
+                            handlerMethod.getValue(), pluginId, e.getMessage());
+                }
+            }
+        }
+        pluginMappings.put(pluginId, mappings);
+        pluginControllers.put(pluginId, controllerClasses);
+        PluginManagerLogger.info(this.getClass().getName(), "Registered '{}' endpoints of plugin '{}'.", mappings.size(), pluginId);
+        return mappings.size();
+    }
+
+    /**
+     * Removes all the handler methods of a plugin, and the metadata that the host keeps of its controller classes.
+     *
+     * @param pluginId the id of the plugin.
+     * @return the number of handler methods removed.
+     */
+    public synchronized int unregister(String pluginId) {
+        final List<RequestMappingInfo> mappings = pluginMappings.remove(pluginId);
+        if (mappings == null) {
+            return 0;
+        }
+        for (RequestMappingInfo mapping : mappings) {
+            handlerMapping.unregisterMapping(mapping);
+        }
+        final Set<Class<?>> controllerClasses = pluginControllers.remove(pluginId);
+        if (controllerClasses != null) {
+            removeFromCaches(handlerAdapter, HANDLER_ADAPTER_CACHES, controllerClasses);
+            for (ExceptionHandlerExceptionResolver exceptionResolver : exceptionResolvers) {
+                removeFromCaches(exceptionResolver, EXCEPTION_RESOLVER_CACHES, controllerClasses);
+            }
+        }
+        PluginManagerLogger.info(this.getClass().getName(), "Removed '{}' endpoints of plugin '{}'.", mappings.size(), pluginId);
+        return mappings.size();
+    }
+
+    /**
+     * Mappings currently registered for a plugin.
+     *
+     * @param pluginId the id of the plugin.
+     * @return the mappings, or an empty list if the plugin is not registered.
+     */
+    public synchronized List<RequestMappingInfo> getMappings(String pluginId) {
+        final List<RequestMappingInfo> mappings = pluginMappings.get(pluginId);
+        return mappings != null ? Collections.unmodifiableList(new ArrayList<>(mappings)) : Collections.emptyList();
+    }
+
+    private void removeFromCaches(Object owner, List<Field> caches, Set<Class<?>> controllerClasses) {
+        if (owner == null) {
+            return;
+        }
+        for (Field cache : caches) {
+            final Map<?, ?> entries = (Map<?, ?>) ReflectionUtils.getField(cache, owner);
+            if (entries != null) {
+                entries.keySet().removeAll(controllerClasses);
+            }
+        }
+    }
+
+    private RequestMappingInfo getMappingForMethod(Method method, Class<?> controllerClass) {
+        try {
+            return (RequestMappingInfo) GET_MAPPING_FOR_METHOD.invoke(handlerMapping, method, controllerClass);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            ReflectionUtils.rethrowRuntimeException(e.getTargetException());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.biit.plugins.activation;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.pf4j.Plugin;
+
+/**
+ * Packaged on a plugin jar by the tests. Its start fails while the system property {@link #FAIL_PROPERTY} is true, as
+ * if a resource needed by the plugin was not available.
+ */
+public class FailingStartPlugin extends Plugin {
+    public static final String FAIL_PROPERTY = "plugins.test.fail-start";
+
+    @Override
+    public void start() {
+        if (Boolean.getBoolean(FAIL_PROPERTY)) {
+            throw new IllegalStateException("The plugin cannot be started.");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.biit.plugins.reload;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+/**
+ * Packaged by the tests on a plugin that depends on the plugin of {@link ReloadablePluginExtension}. Its superclass is
+ * loaded from that plugin, so it returns the version of the plugin it depends on.
+ */
+public class DependentPluginExtension extends ReloadablePluginExtension {
+    public static final String DEPENDENT_PLUGIN_NAME = "dependent-plugin";
+
+    @Override
+    public String getPluginName() {
+        return DEPENDENT_PLUGIN_NAME;
+    }
+}
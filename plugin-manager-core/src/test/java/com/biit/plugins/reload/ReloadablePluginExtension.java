@@ -0,0 +1,51 @@
+package com.biit.plugins.reload;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.BasePlugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Packaged on a plugin jar by the tests, together with the resource that defines its version. It is not annotated as
+ * an extension, so it is not found on the classpath of the tests.
+ */
+public class ReloadablePluginExtension extends BasePlugin {
+    public static final String PLUGIN_NAME = "reloadable-plugin";
+    public static final String VERSION_RESOURCE = "version.txt";
+
+    @Override
+    public String getPluginName() {
+        return PLUGIN_NAME;
+    }
+
+    /**
+     * Methods that starts with "method" are selectables.
+     */
+    public String methodGetVersion() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream(VERSION_RESOURCE)) {
+            return inputStream != null ? new String(inputStream.readAllBytes(), StandardCharsets.UTF_8) : null;
+        }
+    }
+}
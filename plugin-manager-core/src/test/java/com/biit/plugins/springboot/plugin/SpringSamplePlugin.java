@@ -22,19 +22,17 @@ package com.biit.plugins.springboot.plugin;
  */
 
 import com.biit.plugins.SpringBasePlugin;
-import com.biit.plugins.configuration.PluginManagerFactory;
+import com.biit.plugins.context.PluginContextBuilder;
+import com.biit.plugins.context.SharedContextSpringPlugin;
 import com.biit.plugins.logger.PluginManagerLogger;
 import org.pf4j.Extension;
 import org.pf4j.PluginWrapper;
-import org.pf4j.spring.SpringPlugin;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class SpringSamplePlugin extends SpringPlugin {
+public class SpringSamplePlugin extends SharedContextSpringPlugin {
 
     public SpringSamplePlugin(PluginWrapper wrapper) {
         super(wrapper);
@@ -53,12 +51,9 @@ public class SpringSamplePlugin extends SpringPlugin {
     }
 
     @Override
-    protected ApplicationContext createApplicationContext() {
-        AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
-        applicationContext.setClassLoader(getWrapper().getPluginClassLoader());
-        applicationContext.register(PluginManagerFactory.class);
-        applicationContext.refresh();
-        return applicationContext;
+    protected PluginContextBuilder configureContext(PluginContextBuilder contextBuilder) {
+        //Common beans are obtained from the parent context.
+        return contextBuilder.register(GreetingsProviderConfiguration.class);
     }
 
     @Extension(ordinal = 1)
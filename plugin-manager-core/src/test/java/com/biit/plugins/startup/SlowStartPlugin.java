@@ -0,0 +1,47 @@
+package com.biit.plugins.startup;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.pf4j.Plugin;
+
+/**
+ * Packaged on a plugin jar by the tests. Its start does not finish while the system property {@link #BLOCK_PROPERTY}
+ * is true, as if the plugin needed a long time to initialize its resources.
+ */
+public class SlowStartPlugin extends Plugin {
+    public static final String BLOCK_PROPERTY = "plugins.test.block-start";
+    private static final long MAX_WAIT = 10000;
+    private static final long POLL_INTERVAL = 20;
+
+    @Override
+    public void start() {
+        final long end = System.currentTimeMillis() + MAX_WAIT;
+        while (Boolean.getBoolean(BLOCK_PROPERTY) && System.currentTimeMillis() < end) {
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
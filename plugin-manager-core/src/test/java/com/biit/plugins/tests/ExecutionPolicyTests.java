@@ -0,0 +1,353 @@
+package com.biit.plugins.tests;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.activation.IdlePluginMonitor;
+import com.biit.plugins.configuration.PluginControllerSettings;
+import com.biit.plugins.configuration.PluginExecutors;
+import com.biit.plugins.configuration.PluginConfigurationReader;
+import com.biit.plugins.execution.Bulkhead;
+import com.biit.plugins.execution.ExecutionPolicy;
+import com.biit.plugins.execution.ExecutionPolicyRegistry;
+import com.biit.plugins.execution.InFlightCalls;
+import com.biit.plugins.generic.MethodsPluginsExtension;
+import com.biit.plugins.interfaces.exceptions.BulkheadFullException;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.MethodTimeoutException;
+import com.biit.plugins.metrics.InvocationStatistics;
+import com.biit.plugins.metrics.LatencyHistogram;
+import com.biit.plugins.metrics.MethodMetrics;
+import com.biit.plugins.metrics.PluginMetricsRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Test(groups = {"executionPolicy"})
+public class ExecutionPolicyTests {
+
+    @Test
+    public void bulkheadRejectsWhenFull() throws MethodInvocationException {
+        Bulkhead pluginBulkhead = new Bulkhead("plugin", 2, 0);
+        Bulkhead methodBulkhead = new Bulkhead("plugin.method", 1, 0);
+        ExecutionPolicy policy = new ExecutionPolicy(pluginBulkhead, methodBulkhead);
+
+        Object result = policy.execute(() -> {
+            try {
+                //Reentrant execution of the same method while the first one is running.
+                return policy.execute(() -> "inner");
+            } catch (BulkheadFullException e) {
+                return "rejected";
+            }
+        });
+        Assert.assertEquals(result, "rejected");
+        Assert.assertEquals(methodBulkhead.getRejectedCalls(), 1);
+        Assert.assertEquals(pluginBulkhead.getRejectedCalls(), 0);
+        //All places are free again.
+        Assert.assertEquals(methodBulkhead.getAvailableCalls(), 1);
+        Assert.assertEquals(pluginBulkhead.getAvailableCalls(), 2);
+        Assert.assertEquals(policy.execute(() -> "free"), "free");
+    }
+
+    @Test(expectedExceptions = BulkheadFullException.class)
+    public void bulkheadWaitsBeforeRejecting() throws MethodInvocationException {
+        Bulkhead bulkhead = new Bulkhead("plugin", 1, 10);
+        bulkhead.acquire();
+        bulkhead.acquire();
+    }
+
+    @Test
+    public void unrestrictedPolicy() throws MethodInvocationException {
+        Assert.assertTrue(ExecutionPolicy.UNRESTRICTED.isUnrestricted());
+        Assert.assertEquals(ExecutionPolicy.UNRESTRICTED.execute(() -> "value"), "value");
+    }
+
+    @Test
+    public void timeoutCancelsExecution() throws MethodInvocationException, InterruptedException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            Bulkhead methodBulkhead = new Bulkhead("plugin.method", 1, 0);
+            ExecutionPolicy policy = new ExecutionPolicy("plugin.method", null, methodBulkhead, 50, executor);
+            Assert.assertFalse(policy.isUnrestricted());
+            CountDownLatch interrupted = new CountDownLatch(1);
+            try {
+                policy.execute(() -> {
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "late";
+                });
+                Assert.fail("Timeout not reached.");
+            } catch (MethodTimeoutException e) {
+                //Expected.
+            }
+            Assert.assertEquals(policy.getTimedOutCalls(), 1);
+            //The execution has been cancelled and the bulkhead released.
+            Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(policy.execute(() -> "on time"), "on time");
+            Assert.assertEquals(methodBulkhead.getAvailableCalls(), 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void timeoutsDoNotUseAsyncThreads() throws Exception {
+        //All the threads of the asynchronous executions are busy.
+        ExecutorService asyncExecutor = Executors.newFixedThreadPool(1);
+        ExecutorService timeoutExecutor = PluginExecutors.createTimeoutExecutor(new PluginControllerSettings());
+        try {
+            ExecutionPolicy policy = new ExecutionPolicy("plugin.method", null, null, 1000, timeoutExecutor);
+            Future<Object> result = asyncExecutor.submit(() -> policy.execute(() -> "on time"));
+            Assert.assertEquals(result.get(5, TimeUnit.SECONDS), "on time");
+            Assert.assertEquals(policy.getTimedOutCalls(), 0);
+        } finally {
+            asyncExecutor.shutdownNow();
+            timeoutExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void timeoutThreadsAreLimited() throws MethodInvocationException {
+        PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setTimeoutPoolSize(2);
+        ExecutorService timeoutExecutor = PluginExecutors.createTimeoutExecutor(settings);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ExecutionPolicy policy = new ExecutionPolicy("plugin.method", null, null, 50, timeoutExecutor);
+            //Each call keeps its thread after timing out, as it ignores the interruption.
+            for (int i = 0; i < 2; i++) {
+                try {
+                    policy.execute(() -> {
+                        awaitUninterruptibly(release);
+                        return "late";
+                    });
+                    Assert.fail("Timeout not reached.");
+                } catch (MethodTimeoutException e) {
+                    //Expected.
+                }
+            }
+            Assert.assertEquals(policy.getTimedOutCalls(), 2);
+            //No more threads are started.
+            for (int i = 0; i < 3; i++) {
+                try {
+                    policy.execute(() -> "rejected");
+                    Assert.fail("Execution not rejected.");
+                } catch (BulkheadFullException e) {
+                    //Expected.
+                }
+            }
+            Assert.assertEquals(policy.getTimedOutCalls(), 2);
+        } finally {
+            release.countDown();
+            timeoutExecutor.shutdownNow();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                //Ignored, as some plugin methods do.
+            }
+        }
+    }
+
+    @Test(expectedExceptions = MethodInvocationException.class, expectedExceptionsMessageRegExp = "failure")
+    public void timeoutKeepsExceptions() throws MethodInvocationException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ExecutionPolicy policy = new ExecutionPolicy("plugin.method", null, null, 1000, executor);
+            policy.execute(() -> {
+                throw new MethodInvocationException("failure");
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void policiesAreLimitedByPlugin() throws IOException {
+        Path folder = Files.createTempDirectory("plugins-policies");
+        Files.write(folder.resolve("plugin." + PluginConfigurationReader.PLUGINS_CONFIG_FILES_EXTENSION),
+                List.of("plugins.plugin.timeout=100", "plugins.plugin.method1.timeout=200"));
+        PluginConfigurationReader reader = new PluginConfigurationReader(folder.toString());
+        reader.loadPluginProperties();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ExecutionPolicyRegistry registry = new ExecutionPolicyRegistry(reader, executor);
+            Assert.assertEquals(registry.get("plugin", "method1").getTimeoutMillis(), 200);
+            for (int i = 0; i < 2000; i++) {
+                registry.get("plugin", "unknown" + i);
+            }
+            //Methods over the limit use the settings of the plugin, and are not kept.
+            ExecutionPolicy policy = registry.get("plugin", "unknown1999");
+            Assert.assertSame(registry.get("plugin", "another"), policy);
+            Assert.assertEquals(policy.getTimeoutMillis(), 100);
+            Assert.assertEquals(registry.get("plugin", "method1").getTimeoutMillis(), 200);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void drainWaitsRunningExecutions() throws Exception {
+        InFlightCalls calls = new InFlightCalls();
+        Assert.assertTrue(calls.tryEnter());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> drained = executor.submit(() -> calls.drain(5000));
+            while (!calls.isClosed()) {
+                Thread.sleep(1);
+            }
+            //New executions are rejected while the running one finishes.
+            Assert.assertFalse(calls.tryEnter());
+            Assert.assertEquals(calls.getCount(), 1);
+            calls.exit();
+            Assert.assertTrue(drained.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(calls.getCount(), 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void drainWaitsTimedOutExecutions() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            InFlightCalls calls = new InFlightCalls();
+            ExecutionPolicy policy = new ExecutionPolicy("plugin.method", null, null, 50, executor);
+            CountDownLatch finish = new CountDownLatch(1);
+            try {
+                policy.execute(() -> calls.execute(new MethodsPluginsExtension(), () -> {
+                    //Ignores the interruption, as a plugin that does not check it.
+                    while (finish.getCount() > 0) {
+                        try {
+                            finish.await();
+                        } catch (InterruptedException e) {
+                            //Keeps running.
+                        }
+                    }
+                    return "late";
+                }));
+                Assert.fail("Timeout not reached.");
+            } catch (MethodTimeoutException e) {
+                //Expected.
+            }
+            //The caller has finished, but the method is still running.
+            Assert.assertEquals(calls.getCount(), 1);
+            Assert.assertFalse(calls.drain(10));
+            finish.countDown();
+            Assert.assertTrue(calls.drain(5000));
+            Assert.assertEquals(calls.getCount(), 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void drainFinishesOnTimeout() throws InterruptedException {
+        InFlightCalls calls = new InFlightCalls();
+        Assert.assertTrue(calls.tryEnter());
+        Assert.assertFalse(calls.drain(10));
+        Assert.assertEquals(calls.getCount(), 1);
+        calls.exit();
+        Assert.assertTrue(calls.drain(10));
+    }
+
+    @Test
+    public void idlePluginsAreReported() throws InterruptedException {
+        InFlightCalls usedCalls = new InFlightCalls();
+        InFlightCalls idleCalls = new InFlightCalls();
+        List<String> idlePlugins = new ArrayList<>();
+        IdlePluginMonitor monitor = new IdlePluginMonitor(20, () -> Map.of("used", usedCalls, "idle", idleCalls), idlePlugins::add);
+        monitor.checkIdlePlugins();
+        Thread.sleep(50);
+        Assert.assertTrue(usedCalls.tryEnter());
+        usedCalls.exit();
+        monitor.checkIdlePlugins();
+        Assert.assertEquals(idlePlugins, List.of("idle"));
+        //Running executions keep the plugin active.
+        Assert.assertTrue(usedCalls.tryEnter());
+        Thread.sleep(50);
+        monitor.checkIdlePlugins();
+        Assert.assertEquals(idlePlugins, List.of("idle"));
+        usedCalls.exit();
+    }
+
+    @Test
+    public void metricsCountExecutions() {
+        PluginMetricsRegistry registry = new PluginMetricsRegistry(true);
+        MethodMetrics metrics = registry.get("plugin", "method");
+        Assert.assertSame(registry.get("plugin", "method"), metrics);
+        for (int i = 0; i < 9; i++) {
+            metrics.finish(metrics.start());
+        }
+        long start = metrics.start();
+        metrics.failed(new MethodTimeoutException("timeout"));
+        metrics.finish(start - TimeUnit.MILLISECONDS.toNanos(100));
+        InvocationStatistics statistics = registry.getStatistics("plugin").get("method");
+        Assert.assertEquals(statistics.getCalls(), 10);
+        Assert.assertEquals(statistics.getErrors(), 1);
+        Assert.assertEquals(statistics.getTimeouts(), 1);
+        Assert.assertEquals(statistics.getRejected(), 0);
+        Assert.assertTrue(statistics.getMaxMillis() >= 100);
+        Assert.assertTrue(statistics.getP50Millis() < 100);
+        Assert.assertEquals(statistics.getP99Millis(), statistics.getMaxMillis());
+        Assert.assertEquals(registry.getPluginStatistics("plugin").getCalls(), 10);
+        registry.reset("plugin");
+        Assert.assertEquals(registry.getStatistics("plugin").get("method").getCalls(), 0);
+        //Disabled metrics record nothing.
+        Assert.assertSame(new PluginMetricsRegistry(false).get("plugin", "method"), MethodMetrics.DISABLED);
+        Assert.assertEquals(LatencyHistogram.getBucket(0), 0);
+        Assert.assertEquals(LatencyHistogram.getBucket(TimeUnit.MICROSECONDS.toNanos(3)), 2);
+        Assert.assertEquals(LatencyHistogram.getBucket(Long.MAX_VALUE), LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    public void metricsAreLimitedByPlugin() {
+        PluginMetricsRegistry registry = new PluginMetricsRegistry(true);
+        MethodMetrics metrics = registry.get("plugin", "method");
+        for (int i = 0; i < 2000; i++) {
+            registry.get("plugin", "unknown" + i);
+        }
+        //Methods over the limit are not measured nor kept.
+        Assert.assertSame(registry.get("plugin", "another"), MethodMetrics.DISABLED);
+        Assert.assertEquals(registry.getStatistics("plugin").size(), PluginMetricsRegistry.MAX_METHODS);
+        Assert.assertSame(registry.get("plugin", "method"), metrics);
+        Assert.assertNotSame(registry.get("otherPlugin", "another"), MethodMetrics.DISABLED);
+    }
+}
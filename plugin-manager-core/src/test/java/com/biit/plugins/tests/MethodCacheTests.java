@@ -0,0 +1,132 @@
+package com.biit.plugins.tests;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.BasePlugin;
+import com.biit.plugins.interfaces.CacheableMethod;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.methods.CacheStatistics;
+import com.biit.plugins.methods.PluginMethodTable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Test(groups = {"methodCache"})
+public class MethodCacheTests {
+
+    public static class CachedPlugin extends BasePlugin {
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public String getPluginName() {
+            return "cached";
+        }
+
+        @CacheableMethod(maxSize = 2)
+        public String methodLabel(Integer code) {
+            invocations.incrementAndGet();
+            return "label" + code;
+        }
+
+        @CacheableMethod(ttlMillis = 1)
+        public String methodExpiring(String value) {
+            invocations.incrementAndGet();
+            return value;
+        }
+
+        @CacheableMethod
+        public String methodFailing(String value) throws Exception {
+            invocations.incrementAndGet();
+            throw new Exception(value);
+        }
+
+        public String methodNotCached(String value) {
+            invocations.incrementAndGet();
+            return value;
+        }
+    }
+
+    @Test
+    public void resultsAreCached() throws MethodInvocationException {
+        CachedPlugin plugin = new CachedPlugin();
+        //Caches are shared by all the instances of the class.
+        PluginMethodTable.of(CachedPlugin.class).clearCaches();
+        CacheStatistics before = PluginMethodTable.of(CachedPlugin.class).getCacheStatistics().get("methodLabel");
+        Assert.assertEquals(plugin.executeMethod("methodLabel", 1), "label1");
+        Assert.assertEquals(plugin.executeMethod("methodLabel", new Object[]{1}), "label1");
+        Assert.assertEquals(plugin.executeMethod("methodLabel", 2), "label2");
+        Assert.assertEquals(plugin.invocations.get(), 2);
+
+        CacheStatistics statistics = PluginMethodTable.of(CachedPlugin.class).getCacheStatistics().get("methodLabel");
+        Assert.assertEquals(statistics.getHits() - before.getHits(), 1);
+        Assert.assertEquals(statistics.getMisses() - before.getMisses(), 2);
+        Assert.assertEquals(statistics.getSize(), 2);
+    }
+
+    @Test
+    public void leastRecentlyUsedIsDiscarded() throws MethodInvocationException {
+        CachedPlugin plugin = new CachedPlugin();
+        PluginMethodTable.of(CachedPlugin.class).clearCaches();
+        plugin.executeMethod("methodLabel", 1);
+        plugin.executeMethod("methodLabel", 2);
+        plugin.executeMethod("methodLabel", 1);
+        //The size is two, so the result of 2 is discarded.
+        plugin.executeMethod("methodLabel", 3);
+        Assert.assertEquals(plugin.invocations.get(), 3);
+        plugin.executeMethod("methodLabel", 1);
+        Assert.assertEquals(plugin.invocations.get(), 3);
+        plugin.executeMethod("methodLabel", 2);
+        Assert.assertEquals(plugin.invocations.get(), 4);
+    }
+
+    @Test
+    public void resultsExpire() throws MethodInvocationException, InterruptedException {
+        CachedPlugin plugin = new CachedPlugin();
+        plugin.executeMethod("methodExpiring", "value");
+        Thread.sleep(10);
+        plugin.executeMethod("methodExpiring", "value");
+        Assert.assertEquals(plugin.invocations.get(), 2);
+    }
+
+    @Test
+    public void failuresAndNotAnnotatedMethodsAreNotCached() {
+        CachedPlugin plugin = new CachedPlugin();
+        for (int i = 0; i < 2; i++) {
+            try {
+                plugin.executeMethod("methodFailing", "error");
+                Assert.fail("Exception not thrown.");
+            } catch (MethodInvocationException e) {
+                //Expected.
+            }
+        }
+        Assert.assertEquals(plugin.invocations.get(), 2);
+        try {
+            plugin.executeMethod("methodNotCached", "value");
+            plugin.executeMethod("methodNotCached", "value");
+        } catch (MethodInvocationException e) {
+            Assert.fail(e.getMessage());
+        }
+        Assert.assertEquals(plugin.invocations.get(), 4);
+        Assert.assertFalse(PluginMethodTable.of(CachedPlugin.class).getCacheStatistics().containsKey("methodNotCached"));
+    }
+}
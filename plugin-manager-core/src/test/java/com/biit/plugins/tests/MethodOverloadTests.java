@@ -0,0 +1,220 @@
+package com.biit.plugins.tests;
+
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.BasePlugin;
+import com.biit.plugins.interfaces.exceptions.InvalidMethodParametersException;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.NoMethodFoundException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+@Test(groups = {"methodOverload"})
+public class MethodOverloadTests {
+
+    public static class OverloadedPlugin extends BasePlugin {
+
+        @Override
+        public String getPluginName() {
+            return "overloaded";
+        }
+
+        public String methodValue(int value) {
+            return "int";
+        }
+
+        public String methodValue(Number value) {
+            return "Number";
+        }
+
+        public String methodWidening(long value) {
+            return "long";
+        }
+
+        public String methodWidening(Integer value) {
+            return "Integer";
+        }
+
+        public String methodUnboxing(long value) {
+            return "long";
+        }
+
+        public String methodAmbiguous(Integer first, Object second) {
+            return "first";
+        }
+
+        public String methodAmbiguous(Object first, Integer second) {
+            return "second";
+        }
+
+        public String methodNull(Object value) {
+            return "Object";
+        }
+
+        public String methodNull(String value) {
+            return "String";
+        }
+
+        public String methodJoin(String first, Object second) {
+            return "fixed";
+        }
+
+        public String methodJoin(String first, String... others) {
+            return first + String.join("", others);
+        }
+
+        public int methodSum(int... values) {
+            int sum = 0;
+            for (int value : values) {
+                sum += value;
+            }
+            return sum;
+        }
+    }
+
+    public static class MatchingPlugin extends BasePlugin {
+        private int matches = 0;
+
+        @Override
+        public String getPluginName() {
+            return "matching";
+        }
+
+        public String methodEcho(String value) {
+            return value;
+        }
+
+        @Override
+        protected boolean areParametersMatching(Method method, Object... parameters) {
+            matches++;
+            return super.areParametersMatching(method, parameters);
+        }
+    }
+
+    public static class SelectedMethodsPlugin extends BasePlugin {
+
+        @Override
+        public String getPluginName() {
+            return "selected";
+        }
+
+        public String methodVisible() {
+            return "visible";
+        }
+
+        public String methodHidden() {
+            return "hidden";
+        }
+
+        public String greetings(String name) {
+            return "Hello " + name;
+        }
+
+        @Override
+        public List<Method> getPluginMethods() {
+            List<Method> methods = new ArrayList<>();
+            try {
+                methods.add(getClass().getMethod("methodVisible"));
+                methods.add(getClass().getMethod("greetings", String.class));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+            return methods;
+        }
+    }
+
+    @Test
+    public void subtypingBeforeUnboxing() throws MethodInvocationException {
+        OverloadedPlugin plugin = new OverloadedPlugin();
+        //A boxed value selects a supertype without unboxing it.
+        Assert.assertEquals(plugin.executeMethod("methodValue", 1), "Number");
+        //A primitive value selects the primitive without boxing it.
+        Assert.assertEquals(plugin.executeMethodInt("methodValue", 1), "int");
+    }
+
+    @Test
+    public void wideningBeforeBoxing() throws MethodInvocationException {
+        OverloadedPlugin plugin = new OverloadedPlugin();
+        Assert.assertEquals(plugin.executeMethodInt("methodWidening", 1), "long");
+        Assert.assertEquals(plugin.executeMethod("methodWidening", 1), "Integer");
+        //Unboxing and widening if there is no other method.
+        Assert.assertEquals(plugin.executeMethod("methodUnboxing", 1), "long");
+    }
+
+    @Test
+    public void mostSpecificMethod() throws MethodInvocationException {
+        OverloadedPlugin plugin = new OverloadedPlugin();
+        Assert.assertEquals(plugin.executeMethod("methodNull", (Object) null), "String");
+        Assert.assertEquals(plugin.executeMethod("methodAmbiguous", "value", 1), "second");
+        Assert.assertEquals(plugin.executeMethod("methodAmbiguous", 1, "value"), "first");
+    }
+
+    @Test
+    public void ambiguousOverloads() {
+        OverloadedPlugin plugin = new OverloadedPlugin();
+        try {
+            plugin.executeMethod("methodAmbiguous", 1, 1);
+            Assert.fail("Exception not thrown.");
+        } catch (InvalidMethodParametersException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Ambiguous parameters"));
+        } catch (MethodInvocationException e) {
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void variableArityAfterFixedArity() throws MethodInvocationException {
+        OverloadedPlugin plugin = new OverloadedPlugin();
+        Assert.assertEquals(plugin.executeMethod("methodJoin", "a", "b"), "fixed");
+        Assert.assertEquals(plugin.executeMethod("methodJoin", "a", "b", "c"), "abc");
+        Assert.assertEquals(plugin.executeMethod("methodJoin", "a"), "a");
+        Assert.assertEquals(plugin.executeMethod("methodSum", 1, 2, 3), 6);
+        Assert.assertEquals(plugin.executeMethod("methodSum"), 0);
+        Assert.assertEquals(plugin.executeMethodInt("methodSum", 2), 2);
+        Assert.assertEquals(plugin.executeMethod("methodSum", new Object[]{new int[]{1, 2}}), 3);
+    }
+
+    @Test
+    public void overriddenResolutionHooksAreUsed() throws MethodInvocationException {
+        MatchingPlugin plugin = new MatchingPlugin();
+        Assert.assertEquals(plugin.executeMethod("methodEcho", "value"), "value");
+        Assert.assertEquals(plugin.executeMethod("methodEcho", new Object[]{"value"}), "value");
+        Assert.assertEquals(plugin.matches, 2);
+    }
+
+    @Test
+    public void overriddenPluginMethodsAreExecuted() throws MethodInvocationException {
+        SelectedMethodsPlugin plugin = new SelectedMethodsPlugin();
+        Assert.assertEquals(plugin.executeMethod("methodVisible"), "visible");
+        Assert.assertEquals(plugin.executeMethod("methodVisible", new Object[0]), "visible");
+        Assert.assertEquals(plugin.executeMethod("greetings", "world"), "Hello world");
+        Assert.assertThrows(NoMethodFoundException.class, () -> plugin.executeMethod("methodHidden"));
+        Assert.assertThrows(NoMethodFoundException.class, () -> plugin.executeMethod("methodHidden", new Object[0]));
+        //Other plugins of the same base class still select the methods by name.
+        Assert.assertEquals(new OverloadedPlugin().executeMethod("methodValue", 1), "Number");
+    }
+}
@@ -0,0 +1,95 @@
+package com.biit.plugins.tests;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.PluginController;
+import com.biit.plugins.activation.FailingStartPlugin;
+import com.biit.plugins.configuration.PluginActivation;
+import com.biit.plugins.configuration.PluginControllerSettings;
+import com.biit.plugins.interfaces.IStandardPlugin;
+import com.biit.plugins.interfaces.MethodExecutionResult;
+import com.biit.plugins.reload.ReloadablePluginExtension;
+import com.biit.plugins.startup.PluginReadiness;
+import org.pf4j.DefaultPluginManager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Test(groups = {"pluginActivation"})
+public class PluginActivationTests {
+    private static final String PLUGIN_ID = ReloadablePluginExtension.PLUGIN_NAME;
+    private static final String PLUGIN_METHOD = "methodGetVersion";
+    private static final String PLUGIN_VERSION = "1";
+    private static final long RETRY_DELAY = 1000;
+    private static final long TIMEOUT = 10000;
+    private static final long POLL_INTERVAL = 50;
+
+    @Test
+    public void failedActivationIsRetried() throws IOException, InterruptedException {
+        Path folder = Files.createTempDirectory("plugins-activation");
+        PluginJars.write(folder.resolve(PLUGIN_ID + ".jar"), PLUGIN_ID, FailingStartPlugin.class, ReloadablePluginExtension.class,
+                Map.of(PluginJars.getResourcePath(ReloadablePluginExtension.class, ReloadablePluginExtension.VERSION_RESOURCE),
+                        PLUGIN_VERSION));
+
+        PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setActivation(PluginActivation.LAZY);
+        settings.setActivationRetryDelay(RETRY_DELAY);
+        PluginController controller = new PluginController(new DefaultPluginManager(folder), settings);
+        System.setProperty(FailingStartPlugin.FAIL_PROPERTY, "true");
+        try {
+            Assert.assertEquals(controller.getPluginsReadiness().get(PLUGIN_ID), PluginReadiness.INACTIVE);
+            Assert.assertEquals(execute(controller).getStatus(), MethodExecutionResult.Status.PLUGIN_NOT_FOUND);
+            Assert.assertEquals(controller.getPluginsReadiness().get(PLUGIN_ID), PluginReadiness.FAILED);
+
+            //Not started again until the delay has elapsed.
+            System.clearProperty(FailingStartPlugin.FAIL_PROPERTY);
+            Assert.assertFalse(controller.activatePlugin(PLUGIN_ID));
+
+            Assert.assertTrue(waitForActivation(controller));
+            Assert.assertEquals(execute(controller).getValue(), PLUGIN_VERSION);
+            Assert.assertEquals(controller.getPluginsReadiness().get(PLUGIN_ID), PluginReadiness.READY);
+        } finally {
+            System.clearProperty(FailingStartPlugin.FAIL_PROPERTY);
+            controller.shutdown();
+        }
+    }
+
+    private static MethodExecutionResult execute(PluginController controller) {
+        return controller.tryExecutePluginMethod(IStandardPlugin.class, PLUGIN_ID, PLUGIN_METHOD);
+    }
+
+    private static boolean waitForActivation(PluginController controller) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT);
+        while (System.nanoTime() < end) {
+            if (controller.activatePlugin(PLUGIN_ID)) {
+                return true;
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        return false;
+    }
+}
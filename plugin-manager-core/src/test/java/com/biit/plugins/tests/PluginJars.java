@@ -0,0 +1,98 @@
+package com.biit.plugins.tests;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.testng.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Packages classes of the tests as plugin jars. The classes are loaded from the jar by the class loader of the plugin.
+ */
+final class PluginJars {
+
+    private PluginJars() {
+    }
+
+    /**
+     * @param jar          the file written.
+     * @param pluginId     the id of the plugin.
+     * @param pluginClass  the class of the plugin, or null for none.
+     * @param extension    the only extension of the plugin.
+     * @param resources    other files of the jar, with their path.
+     * @param dependencies the ids of the plugins required by this one.
+     */
+    static void write(Path jar, String pluginId, Class<?> pluginClass, Class<?> extension, Map<String, String> resources,
+                      String... dependencies) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Plugin-Id", pluginId);
+        manifest.getMainAttributes().putValue("Plugin-Version", "1.0.0");
+        if (pluginClass != null) {
+            manifest.getMainAttributes().putValue("Plugin-Class", pluginClass.getName());
+        }
+        if (dependencies.length > 0) {
+            manifest.getMainAttributes().putValue("Plugin-Dependencies", String.join(",", dependencies));
+        }
+        try (OutputStream outputStream = Files.newOutputStream(jar);
+             JarOutputStream jarOutputStream = new JarOutputStream(outputStream, manifest)) {
+            if (pluginClass != null) {
+                writeClass(jarOutputStream, pluginClass);
+            }
+            writeClass(jarOutputStream, extension);
+            for (Map.Entry<String, String> resource : resources.entrySet()) {
+                jarOutputStream.putNextEntry(new JarEntry(resource.getKey()));
+                jarOutputStream.write(resource.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+            jarOutputStream.putNextEntry(new JarEntry("META-INF/extensions.idx"));
+            jarOutputStream.write((extension.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+            jarOutputStream.closeEntry();
+        }
+    }
+
+    /**
+     * @param type the class.
+     * @param name the name of a resource on the package of the class.
+     * @return the path of the resource inside a jar.
+     */
+    static String getResourcePath(Class<?> type, String name) {
+        return type.getPackageName().replace('.', '/') + "/" + name;
+    }
+
+    private static void writeClass(JarOutputStream jarOutputStream, Class<?> type) throws IOException {
+        try (InputStream classStream = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+            Assert.assertNotNull(classStream);
+            jarOutputStream.putNextEntry(new JarEntry(type.getName().replace('.', '/') + ".class"));
+            classStream.transferTo(jarOutputStream);
+        }
+    }
+}
@@ -23,21 +23,40 @@ package com.biit.plugins.tests;
 
 import com.biit.plugins.PluginController;
 import com.biit.plugins.configuration.PluginConfigurationReader;
+import com.biit.plugins.execution.ExecutionPolicyRegistry;
 import com.biit.plugins.helloworld.Greeting;
 import com.biit.plugins.interfaces.ISpringPlugin;
 import com.biit.plugins.interfaces.IStandardPlugin;
 import com.biit.plugins.springboot.SpringTestPluginApplication;
+import com.biit.plugins.startup.ParallelPluginStartup;
+import com.biit.plugins.startup.ParallelSpringPluginManager;
+import com.biit.plugins.startup.PluginStartupCache;
 import com.biit.plugins.test.interfaces.IStandardPlugin2;
+import org.pf4j.DefaultPluginDescriptor;
+import org.pf4j.PluginDependency;
+import org.pf4j.PluginDescriptor;
 import org.pf4j.PluginManager;
+import org.pf4j.PluginWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
@@ -102,6 +121,154 @@ public class PluginLoaderTests extends AbstractTestNGSpringContextTests {
         }
     }
 
+    @Test
+    public void startPluginsInParallel() {
+        Assert.assertTrue(pluginManager instanceof ParallelSpringPluginManager);
+        Assert.assertTrue(((ParallelSpringPluginManager) pluginManager).getStartFailures().isEmpty());
+        Assert.assertEquals(pluginManager.getStartedPlugins().size(), pluginManager.getResolvedPlugins().size());
+    }
+
+    @Test
+    public void startupWavesFollowDependencies() {
+        PluginWrapper base = createPlugin("base");
+        PluginWrapper other = createPlugin("other");
+        PluginWrapper dependant = createPlugin("dependant", "base");
+        PluginWrapper last = createPlugin("last", "dependant", "other", "not-installed");
+        List<List<PluginWrapper>> waves = ParallelPluginStartup.getWaves(Arrays.asList(base, other, dependant, last));
+        Assert.assertEquals(waves.size(), 3);
+        Assert.assertEquals(waves.get(0), Arrays.asList(base, other));
+        Assert.assertEquals(waves.get(1), List.of(dependant));
+        Assert.assertEquals(waves.get(2), List.of(last));
+    }
+
+    @Test
+    public void startupCacheKeepsUnchangedJars() throws IOException {
+        Path folder = Files.createTempDirectory("plugins-cache");
+        Path jar = Files.write(folder.resolve("cached-plugin.jar"), new byte[]{1, 2, 3});
+        Path cacheFile = folder.resolve("startup-cache.json");
+        PluginWrapper plugin = createPlugin("cached-plugin", "base", "optional?");
+
+        PluginStartupCache cache = new PluginStartupCache(cacheFile);
+        Assert.assertNull(cache.getDescriptor(jar));
+        cache.putDescriptor(jar, plugin.getDescriptor());
+        cache.putExtensions(jar, Set.of("com.biit.plugins.CachedPlugin"));
+        cache.save();
+
+        //Read again on the next startup.
+        cache = new PluginStartupCache(cacheFile);
+        PluginDescriptor descriptor = cache.getDescriptor(jar);
+        Assert.assertNotNull(descriptor);
+        Assert.assertEquals(descriptor.getPluginId(), "cached-plugin");
+        Assert.assertEquals(descriptor.getVersion(), "1.0.0");
+        Assert.assertEquals(descriptor.getDependencies().size(), 2);
+        Assert.assertFalse(descriptor.getDependencies().get(0).isOptional());
+        Assert.assertTrue(descriptor.getDependencies().get(1).isOptional());
+        Assert.assertEquals(cache.getExtensions(jar), Set.of("com.biit.plugins.CachedPlugin"));
+
+        //A changed jar is read again.
+        Files.write(jar, new byte[]{1, 2, 3, 4});
+        Assert.assertNull(new PluginStartupCache(cacheFile).getDescriptor(jar));
+    }
+
+    @Test
+    public void startupCacheChecksReplacedJars() throws IOException {
+        Path folder = Files.createTempDirectory("plugins-cache");
+        Path jar = Files.write(folder.resolve("replaced-plugin.jar"), new byte[]{1, 2, 3});
+        PluginWrapper plugin = createPlugin("replaced-plugin");
+
+        PluginStartupCache cache = new PluginStartupCache(folder.resolve("startup-cache.json"));
+        cache.putDescriptor(jar, plugin.getDescriptor());
+        cache.putExtensions(jar, Set.of("com.biit.plugins.ReplacedPlugin"));
+        Assert.assertNotNull(cache.getDescriptor(jar));
+
+        //Replaced while running, on the same cache.
+        Files.write(jar, new byte[]{1, 2, 3, 4});
+        Assert.assertNull(cache.getDescriptor(jar));
+        Assert.assertNull(cache.getExtensions(jar));
+
+        //Back to the original content, found again once the plugin is unloaded.
+        Files.write(jar, new byte[]{1, 2, 3});
+        cache.remove(jar);
+        Assert.assertEquals(cache.getExtensions(jar), Set.of("com.biit.plugins.ReplacedPlugin"));
+    }
+
+    @Test
+    public void configurationSnapshot() throws IOException {
+        Path folder = Files.createTempDirectory("plugins-config");
+        Files.write(folder.resolve("plugin." + PluginConfigurationReader.PLUGINS_CONFIG_FILES_EXTENSION),
+                List.of("plugins.plugin.timeout=100", "plugins.plugin.bulkhead.max-wait=20"));
+        StandardEnvironment environment = new StandardEnvironment();
+        Map<String, Object> applicationProperties = new HashMap<>();
+        applicationProperties.put("plugins.plugin.timeout", "200");
+        environment.getPropertySources().addFirst(new MapPropertySource("application", applicationProperties));
+
+        PluginConfigurationReader reader = new PluginConfigurationReader(folder.toString());
+        reader.setEnvironment(environment);
+        reader.loadPluginProperties();
+        //The application has priority over the files.
+        Assert.assertEquals(reader.getProperty("plugins.plugin.timeout"), "200");
+        Assert.assertEquals(reader.getProperty("plugins.plugin.bulkhead.max-wait"), "20");
+        Assert.assertEquals(reader.getProperty("PLUGINS.Plugin.Timeout"), "200");
+        Assert.assertNull(reader.getProperty("plugins.plugin.missing"));
+        Assert.assertNull(reader.getPropertyValue("plugins.plugin.missing"));
+
+        //Changes are used after refreshing.
+        Map<String, String> snapshot = reader.getSnapshot();
+        applicationProperties.put("plugins.plugin.timeout", "300");
+        Assert.assertEquals(reader.getProperty("plugins.plugin.timeout"), "200");
+        reader.refresh();
+        Assert.assertEquals(reader.getProperty("plugins.plugin.timeout"), "300");
+        Assert.assertEquals(snapshot.get("plugins.plugin.timeout"), "200");
+    }
+
+    @Test
+    public void configurationRelaxedNames() throws IOException {
+        Path folder = Files.createTempDirectory("plugins-config");
+        Files.write(folder.resolve("plugin." + PluginConfigurationReader.PLUGINS_CONFIG_FILES_EXTENSION),
+                List.of("plugins.plugin.bulkhead.max-wait=20", "plugins.plugin.timeout=100"));
+        StandardEnvironment environment = new StandardEnvironment();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("PLUGINS_PLUGIN_BULKHEAD_MAX_WAIT", "30");
+        variables.put("PLUGINS_PLUGIN_METHOD_BULKHEAD_MAX_CONCURRENT_CALLS", "2");
+        environment.getPropertySources().addFirst(new SystemEnvironmentPropertySource("variables", variables));
+        Map<String, String> dynamicProperties = new HashMap<>();
+        //Cannot list its properties.
+        environment.getPropertySources().addLast(new PropertySource<>("dynamic", dynamicProperties) {
+            @Override
+            public Object getProperty(String name) {
+                return getSource().get(name);
+            }
+        });
+        dynamicProperties.put("plugins.plugin.dynamic", "dynamic");
+
+        PluginConfigurationReader reader = new PluginConfigurationReader(folder.toString());
+        reader.setEnvironment(environment);
+        reader.loadPluginProperties();
+        //Environment variables override the files, also with hyphens.
+        Assert.assertEquals(reader.getProperty("plugins.plugin.bulkhead.max-wait"), "30");
+        Assert.assertEquals(reader.getProperty("plugins.plugin.method.bulkhead.max-concurrent-calls"), "2");
+        Assert.assertEquals(reader.getProperty("Plugins.Plugin.Method.Bulkhead.Max-Concurrent-Calls"), "2");
+        Assert.assertEquals(reader.getProperty("plugins.plugin.dynamic"), "dynamic");
+        Assert.assertNull(reader.getProperty("plugins.plugin.missing"));
+
+        //The policies are created again when the settings change.
+        ExecutionPolicyRegistry policies = new ExecutionPolicyRegistry(reader, Runnable::run);
+        Assert.assertEquals(policies.get("plugin", "method").getTimeoutMillis(), 100);
+        Assert.assertEquals(policies.get("plugin", "method").getMethodBulkhead().getMaxConcurrentCalls(), 2);
+        variables.put("PLUGINS_PLUGIN_TIMEOUT", "200");
+        reader.refresh();
+        Assert.assertEquals(policies.get("plugin", "method").getTimeoutMillis(), 200);
+        policies.close();
+    }
+
+    private PluginWrapper createPlugin(String pluginId, String... dependencies) {
+        DefaultPluginDescriptor descriptor = new DefaultPluginDescriptor(pluginId, "", null, "1.0.0", "", "", "");
+        for (String dependency : dependencies) {
+            descriptor.addDependency(new PluginDependency(dependency));
+        }
+        return new PluginWrapper(pluginManager, descriptor, Paths.get(pluginId), getClass().getClassLoader());
+    }
+
     @AfterClass
     public void stopPlugins() {
         // stop and unload all plugins
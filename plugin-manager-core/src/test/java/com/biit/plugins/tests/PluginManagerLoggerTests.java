@@ -0,0 +1,112 @@
+package com.biit.plugins.tests;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.biit.plugins.logger.PluginManagerLogger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Test(groups = {"pluginLogger"})
+public class PluginManagerLoggerTests {
+    private static final String CLASS_NAME = PluginManagerLoggerTests.class.getName();
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(PluginManagerLogger.class);
+    private ListAppender<ILoggingEvent> appender;
+    private Level level;
+
+    @BeforeMethod
+    public void addAppender() {
+        level = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void removeAppender() {
+        logger.detachAppender(appender);
+        appender.stop();
+        logger.setLevel(level);
+    }
+
+    @Test
+    public void placeholdersAreFormatted() {
+        PluginManagerLogger.debug(CLASS_NAME, "Plugin '{}' searched.", "first");
+        PluginManagerLogger.debug(CLASS_NAME, "Plugin '{}' started in '{}' ms.", "second", 5);
+        PluginManagerLogger.info(CLASS_NAME, "Plugins '{}', '{}' and '{}' started.", "a", "b", "c");
+        PluginManagerLogger.warning(CLASS_NAME, "Plugin '{}' not found.", "third");
+        PluginManagerLogger.severe(CLASS_NAME, "Plugin '{}' failed with '{}'.", "fourth", null);
+        Assert.assertEquals(getMessages(), List.of(
+                CLASS_NAME + ": Plugin 'first' searched.",
+                CLASS_NAME + ": Plugin 'second' started in '5' ms.",
+                CLASS_NAME + ": Plugins 'a', 'b' and 'c' started.",
+                CLASS_NAME + ": Plugin 'third' not found.",
+                CLASS_NAME + ": Plugin 'fourth' failed with 'null'."));
+        Assert.assertEquals(appender.list.get(2).getLevel(), Level.INFO);
+        Assert.assertEquals(appender.list.get(3).getLevel(), Level.WARN);
+        Assert.assertEquals(appender.list.get(4).getLevel(), Level.ERROR);
+    }
+
+    @Test
+    public void arrayArgumentsShowTheirContent() {
+        PluginManagerLogger.debug(CLASS_NAME, "Parameters '{}'.", (Object) new Object[]{1, "text"});
+        PluginManagerLogger.info(CLASS_NAME, "Method '{}' with parameters '{}'.", "methodSum", new int[]{1, 2});
+        PluginManagerLogger.warning(CLASS_NAME, "Method '{}' with parameters '{}'.", "methodJoin", new String[]{"a", "b"});
+        Assert.assertEquals(getMessages(), List.of(
+                CLASS_NAME + ": Parameters '[1, text]'.",
+                CLASS_NAME + ": Method 'methodSum' with parameters '[1, 2]'.",
+                CLASS_NAME + ": Method 'methodJoin' with parameters '[a, b]'."));
+    }
+
+    @Test
+    public void supplierNotEvaluatedIfDisabled() {
+        AtomicInteger evaluations = new AtomicInteger();
+        logger.setLevel(Level.ERROR);
+        PluginManagerLogger.debug(CLASS_NAME, () -> "Debug " + evaluations.incrementAndGet());
+        PluginManagerLogger.info(CLASS_NAME, () -> "Info " + evaluations.incrementAndGet());
+        PluginManagerLogger.warning(CLASS_NAME, () -> "Warning " + evaluations.incrementAndGet());
+        Assert.assertEquals(evaluations.get(), 0);
+        Assert.assertTrue(getMessages().isEmpty());
+
+        PluginManagerLogger.severe(CLASS_NAME, () -> "Error " + evaluations.incrementAndGet());
+        Assert.assertEquals(evaluations.get(), 1);
+        Assert.assertEquals(getMessages(), List.of(CLASS_NAME + ": Error 1"));
+    }
+
+    //Other threads can log while the test runs.
+    private List<String> getMessages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage)
+                .filter(message -> message.startsWith(CLASS_NAME)).collect(Collectors.toList());
+    }
+}
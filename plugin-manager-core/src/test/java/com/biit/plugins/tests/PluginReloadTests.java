@@ -0,0 +1,145 @@
+package com.biit.plugins.tests;
+
+/*-
+ * #%L
+ * Plugin Manager (Core)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.PluginController;
+import com.biit.plugins.configuration.PluginControllerSettings;
+import com.biit.plugins.interfaces.IStandardPlugin;
+import com.biit.plugins.interfaces.MethodExecutionResult;
+import com.biit.plugins.reload.DependentPluginExtension;
+import com.biit.plugins.reload.ReloadablePluginExtension;
+import org.pf4j.DefaultPluginManager;
+import org.pf4j.PluginManager;
+import org.pf4j.PluginState;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Test(groups = {"pluginReload"})
+public class PluginReloadTests {
+    private static final String PLUGIN_ID = ReloadablePluginExtension.PLUGIN_NAME;
+    private static final String DEPENDENT_PLUGIN_ID = DependentPluginExtension.DEPENDENT_PLUGIN_NAME;
+    private static final String PLUGIN_METHOD = "methodGetVersion";
+    private static final long RELOAD_DELAY = 200;
+    private static final long TIMEOUT = 10000;
+    private static final long POLL_INTERVAL = 50;
+
+    @Test
+    public void replacedJarIsReloaded() throws IOException, InterruptedException {
+        Path folder = Files.createTempDirectory("plugins-reload");
+        Path jar = folder.resolve(PLUGIN_ID + ".jar");
+        writePluginJar(jar, "1");
+
+        PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setHotReload(true);
+        settings.setHotReloadDelay(RELOAD_DELAY);
+        PluginManager pluginManager = new DefaultPluginManager(folder);
+        PluginController controller = new PluginController(pluginManager, settings);
+        try {
+            Assert.assertEquals(getVersion(controller, PLUGIN_ID), "1");
+            WeakReference<ClassLoader> oldClassLoader = new WeakReference<>(pluginManager.getPlugin(PLUGIN_ID).getPluginClassLoader());
+
+            replacePluginJar(jar, "2");
+
+            Assert.assertTrue(waitForVersion(controller, PLUGIN_ID, "2"));
+            Assert.assertNotSame(pluginManager.getPlugin(PLUGIN_ID).getPluginClassLoader(), oldClassLoader.get());
+            //Nothing keeps the old plugin once the executions are drained.
+            Assert.assertTrue(isReleased(oldClassLoader));
+        } finally {
+            controller.shutdown();
+        }
+    }
+
+    @Test
+    public void dependentsAreReloaded() throws IOException, InterruptedException {
+        Path folder = Files.createTempDirectory("plugins-reload");
+        Path jar = folder.resolve(PLUGIN_ID + ".jar");
+        writePluginJar(jar, "1");
+        PluginJars.write(folder.resolve(DEPENDENT_PLUGIN_ID + ".jar"), DEPENDENT_PLUGIN_ID, null, DependentPluginExtension.class,
+                Map.of(), PLUGIN_ID);
+
+        PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setHotReload(true);
+        settings.setHotReloadDelay(RELOAD_DELAY);
+        PluginManager pluginManager = new DefaultPluginManager(folder);
+        PluginController controller = new PluginController(pluginManager, settings);
+        try {
+            Assert.assertEquals(getVersion(controller, DEPENDENT_PLUGIN_ID), "1");
+            ClassLoader oldDependentClassLoader = pluginManager.getPlugin(DEPENDENT_PLUGIN_ID).getPluginClassLoader();
+
+            replacePluginJar(jar, "2");
+
+            //The dependent plugin is unloaded with its dependency, and started again using the new one.
+            Assert.assertTrue(waitForVersion(controller, DEPENDENT_PLUGIN_ID, "2"));
+            Assert.assertEquals(getVersion(controller, PLUGIN_ID), "2");
+            Assert.assertEquals(pluginManager.getPlugin(DEPENDENT_PLUGIN_ID).getPluginState(), PluginState.STARTED);
+            Assert.assertNotSame(pluginManager.getPlugin(DEPENDENT_PLUGIN_ID).getPluginClassLoader(), oldDependentClassLoader);
+        } finally {
+            controller.shutdown();
+        }
+    }
+
+    private static String getVersion(PluginController controller, String pluginName) {
+        MethodExecutionResult result = controller.tryExecutePluginMethod(IStandardPlugin.class, pluginName, PLUGIN_METHOD);
+        return result.isSuccess() ? (String) result.getValue() : null;
+    }
+
+    //The plugin is not found while it is being reloaded.
+    private static boolean waitForVersion(PluginController controller, String pluginName, String version) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT);
+        while (System.nanoTime() < end) {
+            if (version.equals(getVersion(controller, pluginName))) {
+                return true;
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        return false;
+    }
+
+    private static boolean isReleased(WeakReference<?> reference) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT);
+        while (reference.get() != null && System.nanoTime() < end) {
+            System.gc();
+            Thread.sleep(POLL_INTERVAL);
+        }
+        return reference.get() == null;
+    }
+
+    //Replaced as a deployment would do.
+    private static void replacePluginJar(Path jar, String version) throws IOException {
+        Path newJar = Files.createTempDirectory("plugins-new").resolve(jar.getFileName());
+        writePluginJar(newJar, version);
+        Files.move(newJar, jar, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writePluginJar(Path jar, String version) throws IOException {
+        PluginJars.write(jar, PLUGIN_ID, null, ReloadablePluginExtension.class,
+                Map.of(PluginJars.getResourcePath(ReloadablePluginExtension.class, ReloadablePluginExtension.VERSION_RESOURCE), version));
+    }
+}
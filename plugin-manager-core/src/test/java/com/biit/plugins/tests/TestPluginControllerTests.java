@@ -22,21 +22,43 @@ package com.biit.plugins.tests;
  */
 
 import com.biit.plugins.PluginController;
+import com.biit.plugins.PluginInvoker;
+import com.biit.plugins.configuration.ExtensionScope;
+import com.biit.plugins.configuration.PluginControllerSettings;
 import com.biit.plugins.exceptions.DuplicatedPluginFoundException;
 import com.biit.plugins.interfaces.IStandardPlugin;
+import com.biit.plugins.interfaces.MethodExecutionResult;
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.NoMethodFoundException;
 import com.biit.plugins.interfaces.exceptions.NoPluginFoundException;
+import com.biit.plugins.interfaces.exceptions.PluginNotReadyException;
+import com.biit.plugins.metrics.InvocationStatistics;
+import com.biit.plugins.reload.ReloadablePluginExtension;
 import com.biit.plugins.springboot.SpringTestPluginApplication;
+import com.biit.plugins.startup.PluginReadiness;
+import com.biit.plugins.startup.SlowStartPlugin;
 import com.biit.plugins.test.interfaces.IStandardPlugin2;
 import com.biit.plugins.test.interfaces.IStandardPlugin3;
+import org.pf4j.DefaultExtensionFactory;
+import org.pf4j.DefaultPluginManager;
+import org.pf4j.ExtensionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
@@ -46,6 +68,12 @@ public class TestPluginControllerTests extends AbstractTestNGSpringContextTests
     private final static String ANOTHER_PLUGIN_ID = "another-plugin";
     private final static String ANOTHER_PLUGIN_METHOD = "methodGetGreeting";
     private final static String ANOTHER_PLUGIN_METHOD_RETURN = "Another greeting";
+    private final static String SLOW_PLUGIN_ID = ReloadablePluginExtension.PLUGIN_NAME;
+    private final static String SLOW_PLUGIN_METHOD = "methodGetVersion";
+    private final static String SLOW_PLUGIN_VERSION = "1";
+    private final static long STARTUP_TIMEOUT = 10000;
+    private final static long STARTUP_RELEASE_DELAY = 500;
+    private final static long POLL_INTERVAL = 20;
 
     @Autowired
     private PluginController pluginController;
@@ -89,4 +117,277 @@ public class TestPluginControllerTests extends AbstractTestNGSpringContextTests
         Method method = pluginInterface.getPluginMethod(ANOTHER_PLUGIN_METHOD);
         Assert.assertEquals(method.invoke(pluginInterface), ANOTHER_PLUGIN_METHOD_RETURN);
     }
+
+    @Test
+    public void searchPluginByNameIgnoringCase() throws NoPluginFoundException, DuplicatedPluginFoundException {
+        IStandardPlugin3 plugin = pluginController.getPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID.toUpperCase());
+        Assert.assertNotNull(plugin);
+        Assert.assertEquals(plugin.getPluginName(), ANOTHER_PLUGIN_ID);
+        Assert.assertEquals(pluginController.getPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID).getClass(), plugin.getClass());
+        Assert.assertNull(pluginController.getPlugin(IStandardPlugin2.class, ANOTHER_PLUGIN_ID));
+        Assert.assertNull(pluginController.getPlugin(IStandardPlugin3.class, "not-existing-plugin"));
+    }
+
+    @Test
+    public void searchPluginWithSingletonScope() throws IOException, NoPluginFoundException, DuplicatedPluginFoundException {
+        PluginController controller = createController(ExtensionScope.SINGLETON);
+        try {
+            IStandardPlugin3 plugin = controller.getPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID);
+            Assert.assertNotNull(plugin);
+            Assert.assertSame(controller.getPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID), plugin);
+            Assert.assertSame(controller.findPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID).orElse(null), plugin);
+        } finally {
+            controller.shutdown();
+        }
+    }
+
+    @Test
+    public void searchPluginWithPrototypeScope() throws IOException, NoPluginFoundException, DuplicatedPluginFoundException {
+        PluginController controller = createController(ExtensionScope.PROTOTYPE);
+        try {
+            IStandardPlugin3 plugin = controller.getPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID);
+            Assert.assertNotNull(plugin);
+            IStandardPlugin3 otherPlugin = controller.getPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID);
+            Assert.assertNotSame(otherPlugin, plugin);
+            Assert.assertEquals(otherPlugin.getClass(), plugin.getClass());
+            Assert.assertNotSame(controller.findPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID).orElse(null), plugin);
+            //The executions are not affected by the scope.
+            Assert.assertEquals(controller.executePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD),
+                    ANOTHER_PLUGIN_METHOD_RETURN);
+        } finally {
+            controller.shutdown();
+        }
+    }
+
+    @Test
+    public void executeWithPrototypeScopeReusesIndexedInstance() throws IOException, NoPluginFoundException,
+            DuplicatedPluginFoundException, MethodInvocationException, ExecutionException, InterruptedException {
+        AtomicInteger creations = new AtomicInteger();
+        PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setExtensionScope(ExtensionScope.PROTOTYPE);
+        PluginController controller = new PluginController(new DefaultPluginManager(Files.createTempDirectory("plugins-scope")) {
+            @Override
+            protected ExtensionFactory createExtensionFactory() {
+                return new DefaultExtensionFactory() {
+                    @Override
+                    public <T> T create(Class<T> extensionClass) {
+                        creations.incrementAndGet();
+                        return super.create(extensionClass);
+                    }
+                };
+            }
+        }, settings);
+        try {
+            Assert.assertEquals(controller.executePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD),
+                    ANOTHER_PLUGIN_METHOD_RETURN);
+            int indexedCreations = creations.get();
+            for (int i = 0; i < 10; i++) {
+                controller.executePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD);
+            }
+            controller.executePluginMethodBatch(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD,
+                    List.of(new Object[0], new Object[0]));
+            controller.executePluginMethodAsync(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD).get();
+            controller.tryExecutePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD);
+            Assert.assertEquals(creations.get(), indexedCreations);
+
+            //Only the searches get new instances.
+            controller.getPlugin(IStandardPlugin3.class, ANOTHER_PLUGIN_ID);
+            Assert.assertEquals(creations.get(), indexedCreations + 1);
+        } finally {
+            controller.shutdown();
+        }
+    }
+
+    //The extensions of the test classes are found without plugins on the folder.
+    private PluginController createController(ExtensionScope extensionScope) throws IOException {
+        PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setExtensionScope(extensionScope);
+        return new PluginController(new DefaultPluginManager(Files.createTempDirectory("plugins-scope")), settings);
+    }
+
+    @Test
+    public void executeMethodWithInvoker() throws NoPluginFoundException, MethodInvocationException {
+        PluginInvoker<IStandardPlugin3> invoker = pluginController.getPluginInvoker(IStandardPlugin3.class, ANOTHER_PLUGIN_ID,
+                ANOTHER_PLUGIN_METHOD);
+        Assert.assertEquals(invoker.invoke(), ANOTHER_PLUGIN_METHOD_RETURN);
+        Assert.assertEquals(invoker.invoke(), ANOTHER_PLUGIN_METHOD_RETURN);
+        Assert.assertEquals(invoker.getPlugin().getPluginName(), ANOTHER_PLUGIN_ID);
+    }
+
+    @Test(expectedExceptions = NoMethodFoundException.class)
+    public void executeNotExistingMethodWithInvoker() throws NoPluginFoundException, MethodInvocationException {
+        pluginController.getPluginInvoker(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, "methodNotExisting").invoke();
+    }
+
+    @Test(expectedExceptions = NoPluginFoundException.class)
+    public void executeNotExistingPluginWithInvoker() throws NoPluginFoundException, MethodInvocationException {
+        pluginController.getPluginInvoker(IStandardPlugin3.class, "not-existing-plugin", ANOTHER_PLUGIN_METHOD).invoke();
+    }
+
+    @Test
+    public void executeMethodWithFixedParameters() throws NoPluginFoundException, DuplicatedPluginFoundException {
+        Assert.assertEquals(pluginController.executePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD),
+                ANOTHER_PLUGIN_METHOD_RETURN);
+        //Invalid parameters are logged and no result is returned.
+        Assert.assertNull(pluginController.executePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD, "text"));
+        Assert.assertNull(pluginController.executePluginMethodInt(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD, 1));
+    }
+
+    @Test
+    public void executeMethodBatch() throws NoPluginFoundException, DuplicatedPluginFoundException {
+        List<MethodExecutionResult> results = pluginController.executePluginMethodBatch(IStandardPlugin3.class, ANOTHER_PLUGIN_ID,
+                ANOTHER_PLUGIN_METHOD, Arrays.asList(new Object[0], new Object[]{"text"}, new Object[0]));
+        Assert.assertEquals(results.size(), 3);
+        Assert.assertTrue(results.get(0).isSuccess());
+        Assert.assertEquals(results.get(0).getValue(), ANOTHER_PLUGIN_METHOD_RETURN);
+        //A failure does not stop the next executions.
+        Assert.assertFalse(results.get(1).isSuccess());
+        Assert.assertNotNull(results.get(1).getError());
+        Assert.assertEquals(results.get(2).getValue(), ANOTHER_PLUGIN_METHOD_RETURN);
+    }
+
+    @Test
+    public void executeMethodAsync() throws ExecutionException, InterruptedException {
+        Assert.assertEquals(pluginController.executePluginMethodAsync(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD).get(),
+                ANOTHER_PLUGIN_METHOD_RETURN);
+        Assert.assertTrue(pluginController.executePluginMethodAsync(IStandardPlugin3.class, "not-existing-plugin", ANOTHER_PLUGIN_METHOD)
+                .isCompletedExceptionally());
+        Map<String, MethodExecutionResult> results = pluginController.executePluginsMethodAsync(IStandardPlugin3.class,
+                ANOTHER_PLUGIN_METHOD).get();
+        Assert.assertEquals(results.get(ANOTHER_PLUGIN_ID).getValue(), ANOTHER_PLUGIN_METHOD_RETURN);
+    }
+
+    @Test
+    public void executeMethodWithoutExceptions() {
+        MethodExecutionResult result = pluginController.tryExecutePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID,
+                ANOTHER_PLUGIN_METHOD);
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals(result.getValue(), ANOTHER_PLUGIN_METHOD_RETURN);
+        Assert.assertEquals(pluginController.tryExecutePluginMethod(IStandardPlugin3.class, "not-existing-plugin", ANOTHER_PLUGIN_METHOD)
+                .getStatus(), MethodExecutionResult.Status.PLUGIN_NOT_FOUND);
+        for (int i = 0; i < 2; i++) {
+            Assert.assertSame(pluginController.tryExecutePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, "methodNotExisting"),
+                    MethodExecutionResult.methodNotFound());
+        }
+        Assert.assertEquals(pluginController.tryExecutePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD, "text")
+                .getStatus(), MethodExecutionResult.Status.FAILURE);
+        Assert.assertFalse(pluginController.findPlugin(IStandardPlugin3.class, "not-existing-plugin").isPresent());
+    }
+
+    @Test
+    public void executeMethodWithInvokerWithoutExceptions() {
+        Assert.assertEquals(pluginController.getPluginInvoker(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD).tryInvoke()
+                .getValue(), ANOTHER_PLUGIN_METHOD_RETURN);
+        Assert.assertEquals(pluginController.getPluginInvoker(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, "methodNotExisting").tryInvoke()
+                .getStatus(), MethodExecutionResult.Status.METHOD_NOT_FOUND);
+        PluginInvoker<IStandardPlugin3> missingPlugin = pluginController.getPluginInvoker(IStandardPlugin3.class, "not-existing-plugin",
+                ANOTHER_PLUGIN_METHOD);
+        Assert.assertEquals(missingPlugin.tryInvoke().getStatus(), MethodExecutionResult.Status.PLUGIN_NOT_FOUND);
+        Assert.assertFalse(missingPlugin.findPlugin().isPresent());
+    }
+
+    @Test
+    public void pluginsReadyAfterStartup() {
+        Assert.assertTrue(pluginController.isStartupFinished());
+        Assert.assertTrue(pluginController.awaitStartup(0));
+        //Other tests may stop the plugins.
+        Assert.assertNotNull(pluginController.getPluginsReadiness().get(ANOTHER_PLUGIN_ID));
+    }
+
+    @Test
+    public void asyncStartupFailsFastUntilFinished() throws Exception {
+        PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setAsyncStartup(true);
+        settings.setStartupWaitTimeout(0);
+        System.setProperty(SlowStartPlugin.BLOCK_PROPERTY, "true");
+        PluginController controller = createSlowStartController(settings);
+        try {
+            Assert.assertTrue(waitForReadiness(controller, PluginReadiness.STARTING));
+            Assert.assertFalse(controller.isStartupFinished());
+            Assert.assertFalse(controller.awaitStartup(0));
+            Assert.assertThrows(PluginNotReadyException.class, () -> controller.getPlugin(IStandardPlugin.class, SLOW_PLUGIN_ID));
+            Assert.assertThrows(PluginNotReadyException.class,
+                    () -> controller.executePluginMethod(IStandardPlugin.class, SLOW_PLUGIN_ID, SLOW_PLUGIN_METHOD));
+            Assert.assertTrue(controller.findPlugin(IStandardPlugin.class, SLOW_PLUGIN_ID).isEmpty());
+            Assert.assertEquals(controller.tryExecutePluginMethod(IStandardPlugin.class, SLOW_PLUGIN_ID, SLOW_PLUGIN_METHOD).getStatus(),
+                    MethodExecutionResult.Status.PLUGIN_NOT_FOUND);
+
+            System.clearProperty(SlowStartPlugin.BLOCK_PROPERTY);
+            Assert.assertTrue(controller.awaitStartup(STARTUP_TIMEOUT));
+            Assert.assertTrue(controller.isStartupFinished());
+            Assert.assertEquals(controller.getPluginsReadiness().get(SLOW_PLUGIN_ID), PluginReadiness.READY);
+            Assert.assertEquals(controller.executePluginMethod(IStandardPlugin.class, SLOW_PLUGIN_ID, SLOW_PLUGIN_METHOD),
+                    SLOW_PLUGIN_VERSION);
+        } finally {
+            System.clearProperty(SlowStartPlugin.BLOCK_PROPERTY);
+            controller.shutdown();
+        }
+    }
+
+    @Test
+    public void asyncStartupWaitsBeforeExecuting() throws Exception {
+        PluginControllerSettings settings = new PluginControllerSettings();
+        settings.setAsyncStartup(true);
+        settings.setStartupWaitTimeout(STARTUP_TIMEOUT);
+        System.setProperty(SlowStartPlugin.BLOCK_PROPERTY, "true");
+        PluginController controller = createSlowStartController(settings);
+        try {
+            Assert.assertTrue(waitForReadiness(controller, PluginReadiness.STARTING));
+            Assert.assertFalse(controller.isStartupFinished());
+            Thread release = new Thread(() -> {
+                try {
+                    Thread.sleep(STARTUP_RELEASE_DELAY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                System.clearProperty(SlowStartPlugin.BLOCK_PROPERTY);
+            });
+            release.start();
+            //The caller waits for the startup instead of failing.
+            Assert.assertEquals(controller.executePluginMethod(IStandardPlugin.class, SLOW_PLUGIN_ID, SLOW_PLUGIN_METHOD),
+                    SLOW_PLUGIN_VERSION);
+            Assert.assertTrue(controller.isStartupFinished());
+            Assert.assertEquals(controller.getPluginsReadiness().get(SLOW_PLUGIN_ID), PluginReadiness.READY);
+            release.join();
+        } finally {
+            System.clearProperty(SlowStartPlugin.BLOCK_PROPERTY);
+            controller.shutdown();
+        }
+    }
+
+    private static PluginController createSlowStartController(PluginControllerSettings settings) throws IOException {
+        Path folder = Files.createTempDirectory("plugins-startup");
+        PluginJars.write(folder.resolve(SLOW_PLUGIN_ID + ".jar"), SLOW_PLUGIN_ID, SlowStartPlugin.class, ReloadablePluginExtension.class,
+                Map.of(PluginJars.getResourcePath(ReloadablePluginExtension.class, ReloadablePluginExtension.VERSION_RESOURCE),
+                        SLOW_PLUGIN_VERSION));
+        return new PluginController(new DefaultPluginManager(folder), settings);
+    }
+
+    private static boolean waitForReadiness(PluginController controller, PluginReadiness readiness) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STARTUP_TIMEOUT);
+        while (System.nanoTime() < end) {
+            if (controller.getPluginsReadiness().get(SLOW_PLUGIN_ID) == readiness) {
+                return true;
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        return false;
+    }
+
+    @Test
+    public void executionsAreMeasured() throws NoPluginFoundException, DuplicatedPluginFoundException, MethodInvocationException {
+        long calls = getCalls(ANOTHER_PLUGIN_METHOD);
+        pluginController.executePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD);
+        pluginController.getPluginInvoker(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD).invoke();
+        Assert.assertEquals(getCalls(ANOTHER_PLUGIN_METHOD), calls + 2);
+        long errors = pluginController.getInvocationStatistics(ANOTHER_PLUGIN_ID).get(ANOTHER_PLUGIN_METHOD).getErrors();
+        pluginController.tryExecutePluginMethod(IStandardPlugin3.class, ANOTHER_PLUGIN_ID, ANOTHER_PLUGIN_METHOD, "text");
+        Assert.assertEquals(pluginController.getInvocationStatistics(ANOTHER_PLUGIN_ID).get(ANOTHER_PLUGIN_METHOD).getErrors(),
+                errors + 1);
+    }
+
+    private long getCalls(String methodName) {
+        InvocationStatistics statistics = pluginController.getInvocationStatistics(ANOTHER_PLUGIN_ID).get(methodName);
+        return statistics != null ? statistics.getCalls() : 0;
+    }
 }
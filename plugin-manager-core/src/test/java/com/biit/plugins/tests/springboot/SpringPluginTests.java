@@ -21,19 +21,43 @@ package com.biit.plugins.tests.springboot;
  * #L%
  */
 
+import com.biit.plugins.configuration.PluginConfiguration;
+import com.biit.plugins.context.PluginContextBuilder;
+import com.biit.plugins.context.PluginParentContext;
 import com.biit.plugins.springboot.SpringTestPluginApplication;
+import com.biit.plugins.springboot.plugin.GreetingsProvider;
+import com.biit.plugins.springboot.plugin.GreetingsProviderConfiguration;
 import com.biit.plugins.springboot.plugin.TestPluginController;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.pf4j.DefaultPluginDescriptor;
+import org.pf4j.PluginManager;
+import org.pf4j.PluginWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.handler.HandlerExceptionResolverComposite;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -47,6 +71,12 @@ public class SpringPluginTests extends AbstractTestNGSpringContextTests {
     @Autowired
     private WebApplicationContext context;
 
+    @Autowired
+    private PluginManager pluginManager;
+
+    @Autowired
+    private PluginConfiguration pluginConfiguration;
+
     private MockMvc mockMvc;
 
     @BeforeClass
@@ -62,4 +92,94 @@ public class SpringPluginTests extends AbstractTestNGSpringContextTests {
                 .andExpect(status().isOk())
                 .andExpect(content().string(TestPluginController.GREETINGS_MESSAGE));
     }
+
+    @Test
+    public void pluginContextUsesSharedParent() {
+        Assert.assertNotNull(PluginParentContext.get(pluginManager));
+        PluginWrapper pluginWrapper = new PluginWrapper(pluginManager, new DefaultPluginDescriptor("spring-plugin", "", null, "1.0.0", "",
+                "", ""), Paths.get("spring-plugin"), getClass().getClassLoader());
+        try (AnnotationConfigApplicationContext pluginContext = PluginContextBuilder.forPlugin(pluginWrapper)
+                .register(GreetingsProviderConfiguration.class).build()) {
+            Assert.assertSame(pluginContext.getParent(), PluginParentContext.get(pluginManager));
+            Assert.assertNotNull(pluginContext.getBean(GreetingsProvider.class));
+            //Common beans are not created again for the plugin.
+            Assert.assertFalse(pluginContext.containsLocalBean(PluginParentContext.OBJECT_MAPPER_BEAN));
+            Assert.assertSame(pluginContext.getBean(ObjectMapper.class),
+                    PluginParentContext.get(pluginManager).getBean(ObjectMapper.class));
+        }
+    }
+
+    @Test
+    public void registerPluginEndpoints() throws Exception {
+        Assert.assertEquals(pluginConfiguration.getRequestMappings().register("dynamic-plugin", List.of(new DynamicController())), 1);
+        mockMvc.perform(get("/plugin-dynamic-controller/greetings"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(DynamicController.GREETINGS_MESSAGE));
+        Assert.assertEquals(pluginConfiguration.getRequestMappings().unregister("dynamic-plugin"), 1);
+        mockMvc.perform(get("/plugin-dynamic-controller/greetings"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void unregisterPluginEndpointsReleasesControllerClasses() throws Exception {
+        pluginConfiguration.getRequestMappings().register("failing-plugin", List.of(new FailingController()));
+        mockMvc.perform(get("/plugin-failing-controller/greetings"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(FailingController.ERROR_MESSAGE));
+        RequestMappingHandlerAdapter handlerAdapter = context.getBean(RequestMappingHandlerAdapter.class);
+        ExceptionHandlerExceptionResolver exceptionResolver = getExceptionResolver();
+        Assert.assertTrue(getCache(handlerAdapter, "initBinderCache").containsKey(FailingController.class));
+        Assert.assertTrue(getCache(handlerAdapter, "modelAttributeCache").containsKey(FailingController.class));
+        Assert.assertTrue(getCache(handlerAdapter, "sessionAttributesHandlerCache").containsKey(FailingController.class));
+        Assert.assertTrue(getCache(exceptionResolver, "exceptionHandlerCache").containsKey(FailingController.class));
+
+        pluginConfiguration.getRequestMappings().unregister("failing-plugin");
+        Assert.assertFalse(getCache(handlerAdapter, "initBinderCache").containsKey(FailingController.class));
+        Assert.assertFalse(getCache(handlerAdapter, "modelAttributeCache").containsKey(FailingController.class));
+        Assert.assertFalse(getCache(handlerAdapter, "sessionAttributesHandlerCache").containsKey(FailingController.class));
+        Assert.assertFalse(getCache(exceptionResolver, "exceptionHandlerCache").containsKey(FailingController.class));
+    }
+
+    private ExceptionHandlerExceptionResolver getExceptionResolver() {
+        for (HandlerExceptionResolver resolver : context.getBean("handlerExceptionResolver", HandlerExceptionResolverComposite.class)
+                .getExceptionResolvers()) {
+            if (resolver instanceof ExceptionHandlerExceptionResolver) {
+                return (ExceptionHandlerExceptionResolver) resolver;
+            }
+        }
+        throw new AssertionError("No exception handler resolver found.");
+    }
+
+    private Map<?, ?> getCache(Object owner, String cacheName) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(owner, cacheName);
+    }
+
+    //Not a component, so it is only mapped when registered.
+    @RequestMapping("/plugin-dynamic-controller")
+    public static class DynamicController {
+        public static final String GREETINGS_MESSAGE = "An endpoint registered at runtime";
+
+        @GetMapping("/greetings")
+        @ResponseBody
+        public String greetings() {
+            return GREETINGS_MESSAGE;
+        }
+    }
+
+    @RequestMapping("/plugin-failing-controller")
+    public static class FailingController {
+        public static final String ERROR_MESSAGE = "An error handled by the plugin";
+
+        @GetMapping("/greetings")
+        @ResponseBody
+        public String greetings() {
+            throw new IllegalStateException(ERROR_MESSAGE);
+        }
+
+        @ExceptionHandler(IllegalStateException.class)
+        @ResponseBody
+        public String handleError(IllegalStateException e) {
+            return e.getMessage();
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.biit.plugins.interfaces;
+
+/*-
+ * #%L
+ * Plugin Manager (Interfaces)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a plugin method whose result depends only on its parameters. The results are cached by the plugin manager and
+ * reused when the method is executed again with equal parameters. The parameters must implement {@code equals} and
+ * {@code hashCode}. Exceptions are never cached.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CacheableMethod {
+
+    /**
+     * Maximum number of results kept. When it is reached, the least recently used results are discarded.
+     */
+    int maxSize() default 1000;
+
+    /**
+     * Milliseconds that a result is valid. By default, results do not expire.
+     */
+    long ttlMillis() default 0;
+}
@@ -25,6 +25,7 @@ import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
 import org.pf4j.ExtensionPoint;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface IPlugin extends ExtensionPoint, Comparable<IPlugin> {
@@ -39,4 +40,66 @@ public interface IPlugin extends ExtensionPoint, Comparable<IPlugin> {
 
     Object executeMethod(String methodName, Object... parameters) throws MethodInvocationException;
 
+    /**
+     * Executes a method without parameters. This and the next methods with a fixed number of parameters avoid creating
+     * an array on each execution. By default, they call {@link #executeMethod(String, Object...)}, and plugins can
+     * override them.
+     */
+    default Object executeMethod(String methodName) throws MethodInvocationException {
+        return executeMethod(methodName, new Object[0]);
+    }
+
+    default Object executeMethod(String methodName, Object parameter) throws MethodInvocationException {
+        return executeMethod(methodName, new Object[]{parameter});
+    }
+
+    default Object executeMethod(String methodName, Object parameter1, Object parameter2) throws MethodInvocationException {
+        return executeMethod(methodName, new Object[]{parameter1, parameter2});
+    }
+
+    default Object executeMethod(String methodName, Object parameter1, Object parameter2, Object parameter3)
+            throws MethodInvocationException {
+        return executeMethod(methodName, new Object[]{parameter1, parameter2, parameter3});
+    }
+
+    default Object executeMethod(String methodName, Object parameter1, Object parameter2, Object parameter3, Object parameter4)
+            throws MethodInvocationException {
+        return executeMethod(methodName, new Object[]{parameter1, parameter2, parameter3, parameter4});
+    }
+
+    /**
+     * Executes a method with a single primitive parameter. This and the next methods avoid boxing the value if the
+     * plugin method receives a primitive. By default, the value is boxed.
+     */
+    default Object executeMethodInt(String methodName, int parameter) throws MethodInvocationException {
+        return executeMethod(methodName, (Object) parameter);
+    }
+
+    default Object executeMethodLong(String methodName, long parameter) throws MethodInvocationException {
+        return executeMethod(methodName, (Object) parameter);
+    }
+
+    default Object executeMethodDouble(String methodName, double parameter) throws MethodInvocationException {
+        return executeMethod(methodName, (Object) parameter);
+    }
+
+    /**
+     * Executes the same method once for each set of parameters. A failure on one execution does not stop the next ones,
+     * and is reported on its result. Plugins can override it to handle the whole batch at once.
+     *
+     * @param methodName     the name of the method.
+     * @param parametersList the parameters of each execution.
+     * @return a result for each set of parameters, in the same order.
+     */
+    default List<MethodExecutionResult> executeMethodBatch(String methodName, List<Object[]> parametersList) {
+        final List<MethodExecutionResult> results = new ArrayList<>(parametersList.size());
+        for (Object[] parameters : parametersList) {
+            try {
+                results.add(MethodExecutionResult.success(executeMethod(methodName, parameters)));
+            } catch (MethodInvocationException e) {
+                results.add(MethodExecutionResult.failure(e));
+            }
+        }
+        return results;
+    }
 }
@@ -0,0 +1,131 @@
+package com.biit.plugins.interfaces;
+
+/*-
+ * #%L
+ * Plugin Manager (Interfaces)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.biit.plugins.interfaces.exceptions.MethodInvocationException;
+import com.biit.plugins.interfaces.exceptions.NoMethodFoundException;
+
+/**
+ * Result of one execution of a plugin method inside a batch, or of an execution that does not throw exceptions.
+ * Contains the value returned by the method, or the exception if the execution has failed. A missing plugin or
+ * method is reported only with the status, without creating any exception.
+ */
+public final class MethodExecutionResult {
+    private static final MethodExecutionResult PLUGIN_NOT_FOUND = new MethodExecutionResult(Status.PLUGIN_NOT_FOUND, null, null);
+    private static final MethodExecutionResult METHOD_NOT_FOUND = new MethodExecutionResult(Status.METHOD_NOT_FOUND, null, null);
+
+    private final Status status;
+    private final Object value;
+    private final MethodInvocationException error;
+
+    /**
+     * Outcome of the execution.
+     */
+    public enum Status {
+        SUCCESS,
+        FAILURE,
+        PLUGIN_NOT_FOUND,
+        METHOD_NOT_FOUND
+    }
+
+    private MethodExecutionResult(Status status, Object value, MethodInvocationException error) {
+        this.status = status;
+        this.value = value;
+        this.error = error;
+    }
+
+    public static MethodExecutionResult success(Object value) {
+        return new MethodExecutionResult(Status.SUCCESS, value, null);
+    }
+
+    public static MethodExecutionResult failure(MethodInvocationException error) {
+        return new MethodExecutionResult(error instanceof NoMethodFoundException ? Status.METHOD_NOT_FOUND : Status.FAILURE, null, error);
+    }
+
+    /**
+     * The plugin does not exist. The same instance is always returned.
+     *
+     * @return a result without value nor error.
+     */
+    public static MethodExecutionResult pluginNotFound() {
+        return PLUGIN_NOT_FOUND;
+    }
+
+    /**
+     * The plugin has not the method. The same instance is always returned.
+     *
+     * @return a result without value nor error.
+     */
+    public static MethodExecutionResult methodNotFound() {
+        return METHOD_NOT_FOUND;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    /**
+     * If the plugin or the method do not exist.
+     *
+     * @return true if the status is {@link Status#PLUGIN_NOT_FOUND} or {@link Status#METHOD_NOT_FOUND}.
+     */
+    public boolean isNotFound() {
+        return status == Status.PLUGIN_NOT_FOUND || status == Status.METHOD_NOT_FOUND;
+    }
+
+    /**
+     * Value returned by the method.
+     *
+     * @return the value, or null if the execution has failed.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Exception thrown when executing the method.
+     *
+     * @return the exception, or null if the execution has not failed. It can be null also if the plugin or the
+     * method do not exist.
+     */
+    public MethodInvocationException getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        switch (status) {
+            case SUCCESS:
+                return "Success: " + value;
+            case PLUGIN_NOT_FOUND:
+                return "Plugin not found";
+            case METHOD_NOT_FOUND:
+                return error != null ? "Method not found: " + error : "Method not found";
+            default:
+                return "Failure: " + error;
+        }
+    }
+}
@@ -21,6 +21,9 @@ package com.biit.plugins.interfaces.exceptions;
  * #L%
  */
 
+/**
+ * No method of the plugin can be executed with the parameters, or several of them are equally specific.
+ */
 public class InvalidMethodParametersException extends MethodInvocationException {
     private static final long serialVersionUID = 2781594922476539377L;
 
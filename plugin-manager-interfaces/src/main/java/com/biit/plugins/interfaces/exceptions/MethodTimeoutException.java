@@ -0,0 +1,33 @@
+package com.biit.plugins.interfaces.exceptions;
+
+/*-
+ * #%L
+ * Plugin Manager (Interfaces)
+ * %%
+ * Copyright (C) 2022 - 2025 BiiT Sourcing Solutions S.L.
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+/**
+ * The execution of a plugin method has not finished in the time allowed, and has been cancelled.
+ */
+public class MethodTimeoutException extends MethodInvocationException {
+    private static final long serialVersionUID = 6462395360745328819L;
+
+    public MethodTimeoutException(String message) {
+        super(message);
+    }
+}